@@ -0,0 +1,53 @@
+package com.chmfc.desafioComicsApi.desafioapi.benchmark;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.CodigoCupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.service.CupomLoteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da geração de códigos de cupom usada por {@code CupomService.gerarCupom}.
+ * {@link UUID#randomUUID()} é mantido como referência do formato anterior.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CodigoCupomBenchmark {
+
+    @Benchmark
+    public String codigoCompacto() {
+        return CodigoCupom.codificar(CodigoCupom.gerarChave());
+    }
+
+    @Benchmark
+    public Long decodificarCodigo() {
+        return CodigoCupom.decodificar("51HMG9TRAJBYVP");
+    }
+
+    @Benchmark
+    public String uuidReferencia() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public Cupom novoCupom() {
+        return new Cupom(Quadrinho.Raridade.raro, CupomLoteService.descontoPara(Quadrinho.Raridade.raro));
+    }
+}
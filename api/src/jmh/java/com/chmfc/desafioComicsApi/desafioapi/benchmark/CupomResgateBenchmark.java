@@ -0,0 +1,99 @@
+package com.chmfc.desafioComicsApi.desafioapi.benchmark;
+
+import com.chmfc.desafioComicsApi.desafioapi.DesafioapiApplication;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import com.chmfc.desafioComicsApi.desafioapi.service.CupomService;
+import com.chmfc.desafioComicsApi.desafioapi.service.FiltroCupons;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da vazão do resgate de cupons ({@link CupomService#resgatar}) contra o H2 em memória,
+ * com 1, 2, 4 e 8 threads. Cada thread resgata o seu próprio cupom, com usos suficientes para toda a medição,
+ * de modo que o resultado mede o UPDATE condicional e não a disputa pelo bloqueio de uma mesma linha.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CupomResgateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Contexto {
+
+        private ConfigurableApplicationContext contexto;
+        private CupomService cupomService;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            contexto = new SpringApplicationBuilder(DesafioapiApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("cupons.pool.minimo=0")
+                    .run();
+            cupomService = contexto.getBean(CupomService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            contexto.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CupomDaThread {
+
+        private String codigo;
+
+        @Setup(Level.Trial)
+        public void preparar(Contexto contexto) {
+            Cupom cupom = new Cupom(Quadrinho.Raridade.raro, 0.1);
+            cupom.setUsosRestantes(Integer.MAX_VALUE);
+            cupom = contexto.contexto.getBean(CupomRepository.class).save(cupom);
+            contexto.contexto.getBean(FiltroCupons.class).adicionar(cupom.getChave());
+            codigo = cupom.getCodigo();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Cupom resgatar1Thread(Contexto contexto, CupomDaThread cupom) {
+        return contexto.cupomService.resgatar(cupom.codigo);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Cupom resgatar2Threads(Contexto contexto, CupomDaThread cupom) {
+        return contexto.cupomService.resgatar(cupom.codigo);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cupom resgatar4Threads(Contexto contexto, CupomDaThread cupom) {
+        return contexto.cupomService.resgatar(cupom.codigo);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Cupom resgatar8Threads(Contexto contexto, CupomDaThread cupom) {
+        return contexto.cupomService.resgatar(cupom.codigo);
+    }
+}
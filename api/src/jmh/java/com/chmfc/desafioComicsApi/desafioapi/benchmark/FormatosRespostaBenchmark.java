@@ -0,0 +1,105 @@
+package com.chmfc.desafioComicsApi.desafioapi.benchmark;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmark dos formatos de resposta das listagens grandes: JSON, CBOR e Smile, com e sem gzip.
+ * Mede o tempo de serialização (e compressão) de uma lista de {@link QuadrinhoDTO} e de {@link CupomDTO};
+ * o tamanho em bytes de cada combinação é impresso na preparação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatosRespostaBenchmark {
+
+    @Param({"100000"})
+    private int tamanho;
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    @Param({"nenhuma", "gzip"})
+    private String compressao;
+
+    private ObjectMapper objectMapper;
+    private List<QuadrinhoDTO> quadrinhos;
+    private List<CupomDTO> cupons;
+
+    @Setup
+    public void preparar() throws IOException {
+        JsonFactory fabrica = switch (formato) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(fabrica).build();
+        quadrinhos = new ArrayList<>(tamanho);
+        cupons = new ArrayList<>(tamanho);
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < tamanho; i++) {
+            Quadrinho quadrinho = new Quadrinho();
+            quadrinho.setId((long) i);
+            quadrinho.setNome("Quadrinho " + i);
+            quadrinho.setAutor("Autor " + (i % 1000));
+            quadrinho.setRaridade(i % 10 == 0 ? Quadrinho.Raridade.raro : Quadrinho.Raridade.comum);
+            quadrinho.setDataCriacao(agora);
+            quadrinho.setDataModificacao(agora);
+            quadrinhos.add(QuadrinhoDTO.de(quadrinho));
+
+            Cupom cupom = new Cupom(quadrinho.getRaridade(), 0.2);
+            cupom.setId((long) i);
+            cupons.add(CupomDTO.de(cupom));
+        }
+        System.out.printf("%n%s/%s, %d itens: quadrinhos %d bytes, cupons %d bytes%n",
+                formato, compressao, tamanho, serializar(quadrinhos).length, serializar(cupons).length);
+    }
+
+    @Benchmark
+    public byte[] serializarQuadrinhos() throws IOException {
+        return serializar(quadrinhos);
+    }
+
+    @Benchmark
+    public byte[] serializarCupons() throws IOException {
+        return serializar(cupons);
+    }
+
+    private byte[] serializar(List<?> lista) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(tamanho * 64);
+        try (OutputStream destino = compressao.equals("gzip") ? new GZIPOutputStream(saida, 8192) : saida) {
+            objectMapper.writeValue(destino, lista);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+package com.chmfc.desafioComicsApi.desafioapi.benchmark;
+
+import com.chmfc.desafioComicsApi.desafioapi.DesafioapiApplication;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.service.QuadrinhoService;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark dos caminhos de leitura de {@link QuadrinhoService} contra o H2 em memória,
+ * populado com um catálogo de tamanho configurável.
+ * As consultas diretas ao {@link QuadrinhoRepository} servem de referência sem o cache do serviço:
+ * a busca de entidades pelo id vai sempre ao banco, e a projeção em {@link QuadrinhoDTO} por autor
+ * passa apenas pelo cache de consultas do Hibernate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuadrinhoServiceBenchmark {
+
+    private static final int AUTORES = 1000;
+
+    @Param({"100000"})
+    private int quantidade;
+
+    private ConfigurableApplicationContext contexto;
+    private QuadrinhoService quadrinhoService;
+    private QuadrinhoRepository quadrinhoRepository;
+    private long primeiroId;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(DesafioapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        quadrinhoService = contexto.getBean(QuadrinhoService.class);
+        quadrinhoRepository = contexto.getBean(QuadrinhoRepository.class);
+        popular(contexto.getBean(JdbcTemplate.class));
+        primeiroId = quadrinhoRepository.listarPagina(0L, Limit.of(1)).get(0).id();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public QuadrinhoDTO buscarPorIdComCache() {
+        return quadrinhoService.buscarPorId(primeiroId + ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    @Benchmark
+    public Optional<Quadrinho> buscarPorIdSemCache() {
+        return quadrinhoRepository.findById(primeiroId + ThreadLocalRandom.current().nextInt(quantidade));
+    }
+
+    @Benchmark
+    public List<QuadrinhoDTO> buscarPorAutorComCache() {
+        return quadrinhoService.getQuadrinhosPorAutor("Autor " + ThreadLocalRandom.current().nextInt(AUTORES));
+    }
+
+    @Benchmark
+    public List<QuadrinhoDTO> buscarPorAutorCacheConsultas() {
+        return quadrinhoRepository.listarPorAutor("Autor " + ThreadLocalRandom.current().nextInt(AUTORES));
+    }
+
+    @Benchmark
+    public List<QuadrinhoDTO> buscarPagina() {
+        return quadrinhoService.buscarPagina(primeiroId + ThreadLocalRandom.current().nextInt(quantidade), 50);
+    }
+
+    private void popular(JdbcTemplate jdbcTemplate) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> linhas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            linhas.add(new Object[]{
+                    "Quadrinho " + i,
+                    "Autor " + (i % AUTORES),
+                    (i % 10 == 0 ? Quadrinho.Raridade.raro : Quadrinho.Raridade.comum).name(),
+                    agora,
+                    agora
+            });
+        }
+        jdbcTemplate.batchUpdate("insert into quadrinhos (nome, autor, raridade, data_criacao, data_modificacao) "
+                + "values (?, ?, ?, ?, ?)", linhas);
+    }
+}
@@ -0,0 +1,90 @@
+package com.chmfc.desafioComicsApi.desafioapi.benchmark;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da serialização JSON de listas grandes de {@link Quadrinho} e {@link Cupom}, como entidades e como DTOs,
+ * com o mesmo {@link ObjectMapper} configurado pelo Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacaoBenchmark {
+
+    @Param({"1000", "100000"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+    private List<Quadrinho> quadrinhos;
+    private List<Cupom> cupons;
+    private List<QuadrinhoDTO> quadrinhosDto;
+    private List<CupomDTO> cuponsDto;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        quadrinhos = new ArrayList<>(tamanho);
+        cupons = new ArrayList<>(tamanho);
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < tamanho; i++) {
+            Quadrinho quadrinho = new Quadrinho();
+            quadrinho.setId((long) i);
+            quadrinho.setNome("Quadrinho " + i);
+            quadrinho.setAutor("Autor " + (i % 1000));
+            quadrinho.setRaridade(i % 10 == 0 ? Quadrinho.Raridade.raro : Quadrinho.Raridade.comum);
+            quadrinho.setDataCriacao(agora);
+            quadrinho.setDataModificacao(agora);
+            quadrinhos.add(quadrinho);
+
+            Cupom cupom = new Cupom(quadrinho.getRaridade(), 0.2);
+            cupom.setId((long) i);
+            cupons.add(cupom);
+        }
+        quadrinhosDto = quadrinhos.stream().map(QuadrinhoDTO::de).toList();
+        cuponsDto = cupons.stream().map(CupomDTO::de).toList();
+    }
+
+    @Benchmark
+    public byte[] serializarQuadrinhos() throws Exception {
+        return objectMapper.writeValueAsBytes(quadrinhos);
+    }
+
+    @Benchmark
+    public byte[] serializarCupons() throws Exception {
+        return objectMapper.writeValueAsBytes(cupons);
+    }
+
+    @Benchmark
+    public byte[] serializarQuadrinhosDto() throws Exception {
+        return objectMapper.writeValueAsBytes(quadrinhosDto);
+    }
+
+    @Benchmark
+    public byte[] serializarCuponsDto() throws Exception {
+        return objectMapper.writeValueAsBytes(cuponsDto);
+    }
+}
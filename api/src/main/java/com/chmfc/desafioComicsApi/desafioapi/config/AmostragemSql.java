@@ -0,0 +1,60 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link StatementInspector} que substitui o {@code show-sql}: registra no log apenas uma amostra das instruções SQL
+ * geradas pelo Hibernate e conta as instruções executadas na requisição HTTP corrente.
+ * A contagem só acontece em threads onde {@link #iniciarContagem()} foi chamado; nas demais, o custo é o de um
+ * acesso a {@link ThreadLocal}. Consultas lentas são registradas à parte pelo próprio Hibernate,
+ * via {@code hibernate.log_slow_query}.
+ */
+@Slf4j
+public class AmostragemSql implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTAGEM = new ThreadLocal<>();
+
+    private final double taxaAmostragem;
+
+    /**
+     * Cria o inspetor.
+     *
+     * @param taxaAmostragem Fração das instruções registradas no log, entre 0 (nenhuma) e 1 (todas).
+     */
+    public AmostragemSql(double taxaAmostragem) {
+        this.taxaAmostragem = taxaAmostragem;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] contagem = CONTAGEM.get();
+        if (contagem != null) {
+            contagem[0]++;
+        }
+        if (taxaAmostragem > 0 && (taxaAmostragem >= 1 || ThreadLocalRandom.current().nextDouble() < taxaAmostragem)) {
+            log.info("SQL (amostra): {}", sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Passa a contar as instruções executadas na thread corrente.
+     */
+    public static void iniciarContagem() {
+        CONTAGEM.set(new int[1]);
+    }
+
+    /**
+     * Encerra a contagem da thread corrente.
+     *
+     * @return Quantidade de instruções executadas desde {@link #iniciarContagem()}, ou -1 se não havia contagem.
+     */
+    public static int encerrarContagem() {
+        int[] contagem = CONTAGEM.get();
+        CONTAGEM.remove();
+        return contagem == null ? -1 : contagem[0];
+    }
+}
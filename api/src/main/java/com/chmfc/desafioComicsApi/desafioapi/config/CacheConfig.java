@@ -0,0 +1,77 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Classe de configuração do cache em memória das consultas de quadrinhos.
+ * Cada cache é limitado por tamanho e por tempo de vida, e registra estatísticas de acertos, falhas e remoções.
+ * <p>
+ * O interceptador de cache roda antes do transacional: acertos não abrem transação nem ocupam conexão, e as buscas
+ * sincronizadas ({@code sync = true}) que aguardam a primeira consulta pela mesma chave também não.
+ */
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Cache de quadrinhos indexado pelo id.
+     */
+    public static final String QUADRINHOS_POR_ID = "quadrinhosPorId";
+
+    /**
+     * Cache de listas de quadrinhos indexado pela raridade.
+     */
+    public static final String QUADRINHOS_POR_RARIDADE = "quadrinhosPorRaridade";
+
+    /**
+     * Cache de listas de quadrinhos indexado pelo autor.
+     */
+    public static final String QUADRINHOS_POR_AUTOR = "quadrinhosPorAutor";
+
+    @Value("${quadrinhos.cache.por-id.tamanho-maximo:10000}")
+    private long tamanhoMaximoPorId;
+
+    @Value("${quadrinhos.cache.por-raridade.tamanho-maximo:2}")
+    private long tamanhoMaximoPorRaridade;
+
+    @Value("${quadrinhos.cache.por-autor.tamanho-maximo:1000}")
+    private long tamanhoMaximoPorAutor;
+
+    @Value("${quadrinhos.cache.ttl:10m}")
+    private Duration ttl;
+
+    /**
+     * Cria o gerenciador de cache com uma configuração Caffeine por cache.
+     * As remoções feitas dentro de uma transação só são aplicadas após o commit,
+     * evitando que uma leitura concorrente repopule o cache com dados ainda não confirmados.
+     *
+     * @return Gerenciador de cache sensível a transações.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(QUADRINHOS_POR_ID, construir(tamanhoMaximoPorId));
+        cacheManager.registerCustomCache(QUADRINHOS_POR_RARIDADE, construir(tamanhoMaximoPorRaridade));
+        cacheManager.registerCustomCache(QUADRINHOS_POR_AUTOR, construir(tamanhoMaximoPorAutor));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> construir(long tamanhoMaximo) {
+        return Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
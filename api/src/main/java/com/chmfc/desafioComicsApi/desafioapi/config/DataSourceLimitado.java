@@ -0,0 +1,106 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link DataSource} que limita a quantidade de conexões obtidas ao mesmo tempo.
+ * Cada conexão ocupa uma permissão de um semáforo justo até ser fechada;
+ * quem chega quando não há permissões aguarda em fila, até o tempo máximo configurado.
+ * Com threads virtuais, evita que milhares de requisições disputem diretamente o pool de conexões.
+ */
+public class DataSourceLimitado extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final Duration esperaMaxima;
+
+    /**
+     * Cria o data source limitado.
+     *
+     * @param alvo Data source real, normalmente o pool Hikari.
+     * @param limite Quantidade máxima de conexões em uso ao mesmo tempo.
+     * @param esperaMaxima Tempo máximo de espera por uma permissão.
+     */
+    public DataSourceLimitado(DataSource alvo, int limite, Duration esperaMaxima) {
+        super(alvo);
+        this.permissoes = new Semaphore(limite, true);
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de permissões livres no momento.
+     *
+     * @return Quantidade de conexões que ainda podem ser obtidas sem espera.
+     */
+    public int getPermissoesDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Tempo de espera por conexão esgotado após " + esperaMaxima.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    /**
+     * Envolve a conexão para devolver a permissão uma única vez, quando ela for fechada.
+     */
+    private Connection envolver(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if ("close".equals(metodo.getName()) && fechada.compareAndSet(false, true)) {
+                        try {
+                            return metodo.invoke(conexao, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permissoes.release();
+                        }
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
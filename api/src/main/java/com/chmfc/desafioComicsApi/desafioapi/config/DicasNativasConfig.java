@@ -0,0 +1,49 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.service.RelatorioImportacao;
+import com.chmfc.desafioComicsApi.desafioapi.service.ResultadoBusca;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.EventoAlteracao;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.LoteAlteracoes;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.Pagina;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Classe de configuração das dicas de reflexão e de recursos usadas no processamento AOT e na imagem nativa.
+ * Os tipos abaixo são lidos e escritos pelo Jackson também fora dos controladores (listas em streaming, feed de
+ * alterações, respostas de idempotência persistidas), onde o Spring não os descobre sozinho. Os getters e setters
+ * gerados pelo Lombok já estão no bytecode e são cobertos pelas mesmas dicas.
+ */
+@Configuration
+@ImportRuntimeHints(DicasNativasConfig.Dicas.class)
+@RegisterReflectionForBinding({Quadrinho.class, Cupom.class, QuadrinhoDTO.class, CupomDTO.class, Pagina.class,
+        EventoAlteracao.class, LoteAlteracoes.class, RelatorioImportacao.class, ResultadoBusca.class})
+public class DicasNativasConfig {
+
+    /**
+     * Registra as dicas que não dependem da serialização JSON.
+     */
+    static class Dicas implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Raridade chega como texto nos caminhos, nos parâmetros e nas colunas enum, e é convertida por valueOf
+            hints.reflection().registerType(Quadrinho.Raridade.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+            // Provedor JCache do cache de segundo nível, instanciado pelo nome configurado em application.properties
+            hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            // Regiões do cache de segundo nível e migrações de todos os bancos
+            hints.resources().registerPattern("application.conf");
+            hints.resources().registerPattern("db/migration/*/*.sql");
+        }
+    }
+}
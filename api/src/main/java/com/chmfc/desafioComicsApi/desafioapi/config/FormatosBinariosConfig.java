@@ -0,0 +1,50 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Classe de configuração dos formatos binários oferecidos por negociação de conteúdo, além do JSON.
+ * CBOR e Smile representam os mesmos objetos do JSON, com números, datas e nomes de campos em forma compacta,
+ * o que reduz o tamanho e o custo de serialização das listagens grandes.
+ * <p>
+ * Os conversores são criados a partir do {@link Jackson2ObjectMapperBuilder} do Spring Boot,
+ * para que as propriedades {@code spring.jackson.*} valham também para os formatos binários;
+ * por serem do mesmo tipo, substituem os conversores padrão que o Spring registraria sem essa configuração.
+ */
+@Configuration
+public class FormatosBinariosConfig {
+
+    /**
+     * Tipo de mídia do Smile, que não tem constante em {@link MediaType}.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Cria o conversor CBOR ({@code application/cbor}).
+     *
+     * @param builder Construtor de {@code ObjectMapper} configurado pelo Spring Boot.
+     * @return O conversor.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Cria o conversor Smile ({@code application/x-jackson-smile}).
+     *
+     * @param builder Construtor de {@code ObjectMapper} configurado pelo Spring Boot.
+     * @return O conversor.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
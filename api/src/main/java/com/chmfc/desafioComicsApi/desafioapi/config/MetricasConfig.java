@@ -0,0 +1,201 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Classe de configuração das métricas da aplicação, publicadas pelo Actuator em {@code /actuator/prometheus}.
+ * As métricas de requisições HTTP, do pool Hikari, dos caches e das estatísticas do Hibernate
+ * vêm da autoconfiguração do Spring Boot; aqui ficam as que dependem do código da aplicação:
+ * <ul>
+ *     <li>{@code servico.transacoes}: duração dos métodos {@link Transactional} dos serviços, incluindo o commit;</li>
+ *     <li>{@code repositorio.linhas}: linhas retornadas ou alteradas por método de repositório;</li>
+ *     <li>{@code http.requisicoes.sql}: instruções SQL geradas pelo Hibernate em cada requisição.</li>
+ * </ul>
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> registros;
+
+    public MetricasConfig(ObjectProvider<MeterRegistry> registros) {
+        this.registros = registros;
+    }
+
+    /**
+     * Registra o {@link AmostragemSql} como inspetor de instruções do Hibernate,
+     * a menos que outro inspetor já tenha sido configurado em {@code spring.jpa.properties}.
+     *
+     * @param taxaAmostragem Fração das instruções SQL registradas no log.
+     * @return Customizador das propriedades do Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer amostragemSql(@Value("${banco.sql.taxa-amostragem:0}") double taxaAmostragem) {
+        return propriedades -> propriedades.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new AmostragemSql(taxaAmostragem));
+    }
+
+    /**
+     * Mede a duração dos métodos {@link Transactional} das classes {@link Service}.
+     * O interceptador é colocado antes do interceptador de transação, para que o tempo inclua o commit.
+     *
+     * @param registros Registro de métricas, obtido apenas na primeira chamada.
+     * @return Pós-processador que adiciona o interceptador aos serviços.
+     */
+    @Bean
+    public static AbstractBeanFactoryAwareAdvisingPostProcessor metricasTransacoes(ObjectProvider<MeterRegistry> registros) {
+        MethodInterceptor interceptador = invocacao -> {
+            Timer.Sample amostra = Timer.start();
+            String resultado = "sucesso";
+            try {
+                return invocacao.proceed();
+            } catch (Throwable e) {
+                resultado = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                amostra.stop(Timer.builder("servico.transacoes")
+                        .description("Duração dos métodos transacionais dos serviços, incluindo o commit")
+                        .tag("classe", invocacao.getMethod().getDeclaringClass().getSimpleName())
+                        .tag("metodo", invocacao.getMethod().getName())
+                        .tag("resultado", resultado)
+                        .publishPercentileHistogram()
+                        .register(registros.getObject()));
+            }
+        };
+        AbstractBeanFactoryAwareAdvisingPostProcessor posProcessador = new AbstractBeanFactoryAwareAdvisingPostProcessor() {
+            {
+                advisor = new DefaultPointcutAdvisor(
+                        new AnnotationMatchingPointcut(Service.class, Transactional.class, true), interceptador);
+            }
+        };
+        posProcessador.setBeforeExistingAdvisors(true);
+        return posProcessador;
+    }
+
+    /**
+     * Registra, para cada método de repositório, a quantidade de linhas do resultado:
+     * o tamanho das coleções, 0 ou 1 para {@link Optional} e entidades, e o valor retornado pelas alterações em massa.
+     * A latência de cada método já é medida pelo Spring Boot em {@code spring.data.repository.invocations}.
+     * Métodos que retornam {@link java.util.stream.Stream} não são contados, para não consumir o stream.
+     *
+     * @param registros Registro de métricas, obtido apenas na primeira chamada.
+     * @return Pós-processador que adiciona o interceptador aos repositórios.
+     */
+    @Bean
+    public static BeanPostProcessor metricasRepositorios(ObjectProvider<MeterRegistry> registros) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(repositorio -> repositorio.addRepositoryProxyPostProcessor(
+                            (proxy, informacoes) -> proxy.addAdvice(contadorDeLinhas(
+                                    registros, informacoes.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor contadorDeLinhas(ObjectProvider<MeterRegistry> registros, String repositorio) {
+        return invocacao -> {
+            Object resultado = invocacao.proceed();
+            long linhas = contarLinhas(resultado);
+            if (linhas >= 0) {
+                DistributionSummary.builder("repositorio.linhas")
+                        .description("Linhas retornadas ou alteradas por método de repositório")
+                        .tag("repositorio", repositorio)
+                        .tag("metodo", invocacao.getMethod().getName())
+                        .register(registros.getObject())
+                        .record(linhas);
+            }
+            return resultado;
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (request.getDispatcherType() == DispatcherType.REQUEST) {
+                    AmostragemSql.iniciarContagem();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                registrarInstrucoes(request);
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                registrarInstrucoes(request);
+            }
+        });
+    }
+
+    /**
+     * Registra as instruções contadas na thread da requisição. Em respostas assíncronas, só entram as instruções
+     * executadas antes de a resposta passar para outra thread.
+     */
+    private void registrarInstrucoes(HttpServletRequest request) {
+        int instrucoes = AmostragemSql.encerrarContagem();
+        if (instrucoes < 0) {
+            return;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.requisicoes.sql")
+                .description("Instruções SQL geradas pelo Hibernate por requisição")
+                .tag("uri", padrao == null ? "UNKNOWN" : padrao.toString())
+                .tag("metodo", request.getMethod())
+                .publishPercentileHistogram()
+                .register(registros.getObject())
+                .record(instrucoes);
+    }
+
+    private static long contarLinhas(Object resultado) {
+        if (resultado instanceof Collection<?> colecao) {
+            return colecao.size();
+        }
+        if (resultado instanceof Map<?, ?> mapa) {
+            return mapa.size();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado instanceof Integer || resultado instanceof Long) {
+            return ((Number) resultado).longValue();
+        }
+        if (resultado instanceof Boolean || resultado instanceof java.util.stream.BaseStream<?, ?>) {
+            return -1;
+        }
+        return resultado == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,159 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe de configuração das réplicas de leitura do banco.
+ * Ativada por {@code banco.replicas.habilitado=true}, com as URLs das réplicas em {@code banco.replicas.urls}.
+ * Nesse modo, o {@link DataSource} da aplicação passa a ser o de um {@link RoteadorReplicas}: transações
+ * {@code readOnly} são atendidas pelas réplicas em dia, e as escritas e demais transações, pelo primário
+ * configurado em {@code spring.datasource.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banco.replicas.habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+    @Value("${banco.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${banco.replicas.usuario:}")
+    private String usuario;
+
+    @Value("${banco.replicas.senha:}")
+    private String senha;
+
+    @Value("${banco.replicas.tamanho-pool:10}")
+    private int tamanhoPool;
+
+    @Value("${banco.replicas.espera-conexao:1s}")
+    private Duration esperaConexao;
+
+    @Value("${banco.replicas.balanceamento:round-robin}")
+    private RoteadorReplicas.Balanceamento balanceamento;
+
+    @Value("${banco.replicas.atraso-maximo:5s}")
+    private Duration atrasoMaximo;
+
+    /**
+     * Cria o pool do primário, com as mesmas propriedades que o Spring Boot usaria, e os pools das réplicas.
+     * As réplicas herdam a configuração do primário, exceto URL, credenciais (quando informadas) e tamanho do pool,
+     * e iniciam sem conectar: uma réplica fora do ar apenas fica indisponível até responder.
+     *
+     * @param propriedades Propriedades {@code spring.datasource.*}.
+     * @param environment Ambiente com as propriedades {@code spring.datasource.hikari.*}.
+     * @return O roteador.
+     */
+    @Bean
+    public RoteadorReplicas roteadorReplicas(DataSourceProperties propriedades, Environment environment) {
+        HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        if (primario.getPoolName() == null) {
+            primario.setPoolName("primario");
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig configuracao = new HikariConfig();
+            primario.copyStateTo(configuracao);
+            configuracao.setPoolName("replica-" + (i + 1));
+            configuracao.setJdbcUrl(urls.get(i).trim());
+            if (StringUtils.hasText(usuario)) {
+                configuracao.setUsername(usuario);
+                configuracao.setPassword(senha);
+            }
+            configuracao.setMaximumPoolSize(tamanhoPool);
+            if (configuracao.getMinimumIdle() > tamanhoPool) {
+                configuracao.setMinimumIdle(tamanhoPool);
+            }
+            configuracao.setConnectionTimeout(esperaConexao.toMillis());
+            configuracao.setReadOnly(true);
+            configuracao.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(configuracao));
+        }
+        return new RoteadorReplicas(primario, replicas, balanceamento, atrasoMaximo);
+    }
+
+    /**
+     * Expõe o data source roteado como o {@link DataSource} da aplicação, no lugar do criado pelo Spring Boot.
+     *
+     * @param roteador O roteador de réplicas.
+     * @return O data source roteado.
+     */
+    @Bean
+    public DataSource dataSource(RoteadorReplicas roteador) {
+        return roteador.getDataSource();
+    }
+
+    /**
+     * Publica as métricas de cada réplica: atraso, disponibilidade e leituras atendidas,
+     * além das métricas {@code hikaricp.*} dos pools das réplicas, que não são beans.
+     *
+     * @param roteador O roteador de réplicas.
+     * @return Registrador das métricas {@code banco.replicas.*}.
+     */
+    @Bean
+    public MeterBinder metricasReplicas(RoteadorReplicas roteador) {
+        return registro -> {
+            List<HikariDataSource> replicas = roteador.getReplicas();
+            for (int i = 0; i < replicas.size(); i++) {
+                int indice = i;
+                HikariDataSource pool = replicas.get(i);
+                if (pool.getMetricRegistry() == null) {
+                    pool.setMetricRegistry(registro);
+                }
+                Gauge.builder("banco.replicas.atraso", roteador, r -> {
+                            Duration atraso = r.getAtraso(indice);
+                            return atraso == null ? Double.NaN : atraso.toMillis() / 1000.0;
+                        })
+                        .description("Atraso de replicação medido na última verificação")
+                        .baseUnit("seconds")
+                        .tag("replica", pool.getPoolName())
+                        .register(registro);
+                Gauge.builder("banco.replicas.disponivel", roteador, r -> r.isDisponivel(indice) ? 1 : 0)
+                        .description("Se a réplica está recebendo leituras")
+                        .tag("replica", pool.getPoolName())
+                        .register(registro);
+                FunctionCounter.builder("banco.replicas.leituras", roteador, r -> r.getLeituras(indice))
+                        .description("Conexões de leitura entregues pela réplica")
+                        .tag("replica", pool.getPoolName())
+                        .register(registro);
+            }
+            FunctionCounter.builder("banco.replicas.leituras", roteador, RoteadorReplicas::getLeiturasPrimario)
+                    .description("Conexões de leitura entregues pelo primário por falta de réplica disponível")
+                    .tag("replica", "primario")
+                    .register(registro);
+        };
+    }
+
+    /**
+     * Informa no health do Actuator a situação de cada réplica.
+     * O status permanece UP mesmo sem réplicas disponíveis, já que as leituras seguem para o primário.
+     *
+     * @param roteador O roteador de réplicas.
+     * @return Indicador {@code replicas}.
+     */
+    @Bean
+    public HealthIndicator replicasHealthIndicator(RoteadorReplicas roteador) {
+        return () -> Health.up().withDetails(roteador.estatisticas()).build();
+    }
+}
@@ -0,0 +1,364 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Roteador de conexões entre o banco primário e as réplicas de leitura.
+ * O {@link DataSource} da aplicação é um {@link LazyConnectionDataSourceProxy}: a conexão real só é obtida
+ * na primeira instrução, quando a transação já marcou a conexão como somente leitura; transações
+ * {@code readOnly} recebem então uma conexão de réplica, e as demais, do primário.
+ * <p>
+ * Cada réplica só recebe leituras enquanto estiver em dia: a cada verificação, o primário grava o instante atual
+ * na tabela {@code batimento_replicacao} e cada réplica tem o instante replicado comparado ao relógio da aplicação.
+ * Réplicas atrasadas além do limite, ou que falham ao conectar, ficam fora da distribuição até a próxima verificação;
+ * sem nenhuma réplica disponível, as leituras vão para o primário.
+ * <p>
+ * As conexões de cada pool podem passar por um data source intermediário ({@link #envolverPools}),
+ * como o {@link DataSourceLimitado} do modo com threads virtuais, que então limita cada pool separadamente.
+ */
+@Slf4j
+public class RoteadorReplicas implements AutoCloseable {
+
+    private static final int ID_BATIMENTO = 1;
+
+    /**
+     * Forma de distribuir as leituras entre as réplicas disponíveis.
+     */
+    public enum Balanceamento {
+        /**
+         * Alterna entre as réplicas, em ordem.
+         */
+        ROUND_ROBIN,
+        /**
+         * Escolhe a réplica com menos conexões em uso; empates seguem o rodízio.
+         */
+        MENOS_CONEXOES
+    }
+
+    private final HikariDataSource primario;
+    private final List<Replica> replicas;
+    private final Balanceamento balanceamento;
+    private final Duration atrasoMaximo;
+    private final LazyConnectionDataSourceProxy dataSource;
+    private final AtomicLong rodizio = new AtomicLong();
+    private final LongAdder leiturasPrimario = new LongAdder();
+    private volatile DataSource acessoPrimario;
+
+    /**
+     * Cria o roteador.
+     *
+     * @param primario Pool do banco primário, que recebe as escritas e as leituras sem réplica disponível.
+     * @param replicas Pools das réplicas, somente leitura.
+     * @param balanceamento Forma de distribuir as leituras entre as réplicas.
+     * @param atrasoMaximo Atraso de replicação a partir do qual uma réplica deixa de receber leituras.
+     */
+    public RoteadorReplicas(HikariDataSource primario, List<HikariDataSource> replicas,
+                            Balanceamento balanceamento, Duration atrasoMaximo) {
+        this.primario = primario;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.balanceamento = balanceamento;
+        this.atrasoMaximo = atrasoMaximo;
+        this.acessoPrimario = primario;
+        this.dataSource = new LazyConnectionDataSourceProxy(new DataSourcePrimario());
+        this.dataSource.setReadOnlyDataSource(new DataSourceLeitura());
+    }
+
+    /**
+     * Retorna o {@link DataSource} roteado, a ser usado pela aplicação.
+     *
+     * @return Data source que entrega conexões do primário ou das réplicas conforme a transação.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Retorna os pools das réplicas, na ordem configurada.
+     *
+     * @return Os pools das réplicas.
+     */
+    public List<HikariDataSource> getReplicas() {
+        return replicas.stream().map(Replica::pool).toList();
+    }
+
+    /**
+     * Passa a obter as conexões de cada pool, do primário e das réplicas, pelo data source criado pela função.
+     * Deve ser chamado antes de o roteador entregar conexões.
+     *
+     * @param envoltorio Função que recebe um pool e devolve o data source pelo qual as conexões dele serão obtidas.
+     */
+    public void envolverPools(Function<HikariDataSource, DataSource> envoltorio) {
+        acessoPrimario = envoltorio.apply(primario);
+        replicas.forEach(replica -> replica.acesso = envoltorio.apply(replica.pool()));
+    }
+
+    /**
+     * Retorna o data source pelo qual as conexões de cada pool são obtidas.
+     *
+     * @return Mapa do nome do pool (primário e réplicas, nessa ordem) para o data source de acesso a ele.
+     */
+    public Map<String, DataSource> getAcessosPools() {
+        Map<String, DataSource> acessos = new LinkedHashMap<>();
+        acessos.put(primario.getPoolName(), acessoPrimario);
+        replicas.forEach(replica -> acessos.put(replica.nome(), replica.acesso));
+        return acessos;
+    }
+
+    /**
+     * Grava o batimento no primário e verifica o atraso de cada réplica.
+     */
+    @Scheduled(fixedDelayString = "${banco.replicas.intervalo-verificacao:1000}")
+    public void verificar() {
+        registrarBatimento();
+        verificarReplicas();
+    }
+
+    /**
+     * Grava o instante atual no batimento do primário.
+     */
+    public void registrarBatimento() {
+        try {
+            new JdbcTemplate(primario).update("update batimento_replicacao set instante = ? where id = ?", LocalDateTime.now(), ID_BATIMENTO);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar o batimento de replicação no primário: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lê o batimento replicado em cada réplica e atualiza quais delas podem receber leituras.
+     */
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            Duration atraso = null;
+            String falha = null;
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.pool());
+                jdbcTemplate.setQueryTimeout((int) Math.max(1, atrasoMaximo.toSeconds()));
+                LocalDateTime instante = jdbcTemplate.queryForObject(
+                        "select instante from batimento_replicacao where id = ?", LocalDateTime.class, ID_BATIMENTO);
+                atraso = instante == null ? null : Duration.between(instante, LocalDateTime.now());
+                if (atraso != null && atraso.isNegative()) {
+                    atraso = Duration.ZERO;
+                }
+            } catch (RuntimeException e) {
+                falha = e.getMessage();
+            }
+            boolean disponivel = atraso != null && atraso.compareTo(atrasoMaximo) <= 0;
+            replica.atraso = atraso;
+            if (disponivel != replica.disponivel) {
+                if (disponivel) {
+                    log.info("Réplica {} em dia (atraso de {} ms); voltando a receber leituras", replica.nome(), atraso.toMillis());
+                } else if (falha != null) {
+                    log.warn("Réplica {} indisponível: {}", replica.nome(), falha);
+                } else {
+                    log.warn("Réplica {} atrasada ({}); leituras desviadas", replica.nome(), atraso);
+                }
+            }
+            replica.disponivel = disponivel;
+        }
+    }
+
+    /**
+     * Retorna a situação de cada réplica e a quantidade de leituras atendidas.
+     *
+     * @return Mapa com as leituras desviadas ao primário e, por réplica, disponibilidade, atraso, leituras e conexões em uso.
+     */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("balanceamento", balanceamento.name());
+        estatisticas.put("leiturasPrimario", leiturasPrimario.sum());
+        for (Replica replica : replicas) {
+            Map<String, Object> situacao = new LinkedHashMap<>();
+            situacao.put("disponivel", replica.disponivel);
+            situacao.put("atrasoMs", replica.atraso == null ? null : replica.atraso.toMillis());
+            situacao.put("leituras", replica.leituras.sum());
+            situacao.put("conexoesAtivas", replica.conexoesAtivas());
+            estatisticas.put(replica.nome(), situacao);
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Retorna se a réplica informada está recebendo leituras.
+     *
+     * @param indice Posição da réplica na configuração, começando em 0.
+     * @return true se a réplica estava em dia na última verificação.
+     */
+    public boolean isDisponivel(int indice) {
+        return replicas.get(indice).disponivel;
+    }
+
+    /**
+     * Retorna o atraso medido na última verificação de uma réplica.
+     *
+     * @param indice Posição da réplica na configuração, começando em 0.
+     * @return O atraso, ou null se a réplica não pôde ser lida.
+     */
+    public Duration getAtraso(int indice) {
+        return replicas.get(indice).atraso;
+    }
+
+    /**
+     * Retorna a quantidade de leituras atendidas por uma réplica.
+     *
+     * @param indice Posição da réplica na configuração, começando em 0.
+     * @return Quantidade de conexões de leitura entregues pela réplica.
+     */
+    public long getLeituras(int indice) {
+        return replicas.get(indice).leituras.sum();
+    }
+
+    /**
+     * Retorna a quantidade de leituras desviadas ao primário por falta de réplica disponível.
+     *
+     * @return Quantidade de conexões de leitura entregues pelo primário.
+     */
+    public long getLeiturasPrimario() {
+        return leiturasPrimario.sum();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool().close());
+        primario.close();
+    }
+
+    /**
+     * Entrega uma conexão de leitura: da réplica escolhida pelo balanceamento entre as disponíveis,
+     * da próxima réplica se a escolhida falhar ao conectar, ou do primário se nenhuma responder.
+     */
+    private Connection conexaoLeitura() throws SQLException {
+        List<Replica> candidatas = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.disponivel) {
+                candidatas.add(replica);
+            }
+        }
+        if (!candidatas.isEmpty()) {
+            int inicio = (int) Math.floorMod(rodizio.getAndIncrement(), (long) candidatas.size());
+            if (balanceamento == Balanceamento.MENOS_CONEXOES) {
+                inicio = menosConexoes(candidatas, inicio);
+            }
+            for (int i = 0; i < candidatas.size(); i++) {
+                Replica replica = candidatas.get((inicio + i) % candidatas.size());
+                try {
+                    Connection conexao = replica.acesso.getConnection();
+                    replica.leituras.increment();
+                    return conexao;
+                } catch (SQLException e) {
+                    replica.disponivel = false;
+                    log.warn("Réplica {} indisponível: {}", replica.nome(), e.getMessage());
+                }
+            }
+        }
+        leiturasPrimario.increment();
+        Connection conexao = acessoPrimario.getConnection();
+        conexao.setReadOnly(true);
+        return conexao;
+    }
+
+    /**
+     * Retorna a posição da candidata com menos conexões em uso, percorrendo a partir da posição do rodízio.
+     */
+    private static int menosConexoes(List<Replica> candidatas, int inicio) {
+        int escolhida = inicio;
+        int menor = Integer.MAX_VALUE;
+        for (int i = 0; i < candidatas.size(); i++) {
+            int posicao = (inicio + i) % candidatas.size();
+            int ativas = candidatas.get(posicao).conexoesAtivas();
+            if (ativas < menor) {
+                menor = ativas;
+                escolhida = posicao;
+            }
+        }
+        return escolhida;
+    }
+
+    /**
+     * Réplica de leitura, com a situação da última verificação.
+     */
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final LongAdder leituras = new LongAdder();
+        private volatile boolean disponivel;
+        private volatile Duration atraso;
+        private volatile DataSource acesso;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+            this.acesso = pool;
+        }
+
+        private HikariDataSource pool() {
+            return pool;
+        }
+
+        private String nome() {
+            return pool.getPoolName();
+        }
+
+        private int conexoesAtivas() {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            return mxBean == null ? 0 : mxBean.getActiveConnections();
+        }
+    }
+
+    /**
+     * Data source do primário entregue ao {@link LazyConnectionDataSourceProxy}.
+     * Delega ao pool, para que o Spring Boot o encontre e publique as métricas dele, mas obtém as conexões
+     * pelo data source de acesso ao primário.
+     */
+    private final class DataSourcePrimario extends DelegatingDataSource {
+
+        private DataSourcePrimario() {
+            super(primario);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return acessoPrimario.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return acessoPrimario.getConnection(username, password);
+        }
+    }
+
+    /**
+     * Data source somente leitura entregue ao {@link LazyConnectionDataSourceProxy}.
+     */
+    private final class DataSourceLeitura extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return conexaoLeitura();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return conexaoLeitura();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe de configuração do modo de execução com threads virtuais.
+ * Ativada apenas quando as threads virtuais estão de fato em uso: {@code spring.threads.virtual.enabled=true}
+ * (perfil {@code virtual-threads}) executando em Java 21 ou superior. Em Java 17 a propriedade é ignorada
+ * pelo Spring Boot e o limitador também fica desligado.
+ * Nesse modo, as requisições e as chamadas transacionais rodam em threads virtuais,
+ * e o acesso a cada pool de conexões passa a ser limitado por um {@link DataSourceLimitado}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    /**
+     * Limita o acesso a cada pool de conexões com um {@link DataSourceLimitado} próprio, para que as threads
+     * aguardem em uma fila justa em vez de disputar diretamente as conexões do pool.
+     * Sem réplicas, o pool é o {@link HikariDataSource} criado pelo Spring Boot. Com réplicas, os pools do primário
+     * e de cada réplica são limitados separadamente dentro do {@link RoteadorReplicas}: um limite único sobre o
+     * data source roteado seria dimensionado pelo primário e não impediria que uma réplica fosse sobrecarregada.
+     * O limite do primário é {@code banco.conexoes.limite-concorrente} (padrão: o tamanho máximo do pool) e a espera,
+     * {@code banco.conexoes.espera-maxima}; cada réplica é limitada ao tamanho do próprio pool, com a espera de
+     * {@code banco.replicas.espera-conexao}, para que uma réplica saturada seja preterida tão rápido quanto antes.
+     *
+     * @param environment Ambiente com as propriedades da aplicação.
+     * @return Pós-processador que limita os pools.
+     */
+    @Bean
+    public static BeanPostProcessor limitadorDeConexoes(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource pool) {
+                    return limitarPrimario(pool, environment);
+                }
+                if (bean instanceof RoteadorReplicas roteador) {
+                    roteador.envolverPools(pool -> roteador.getReplicas().contains(pool)
+                            ? new DataSourceLimitado(pool, pool.getMaximumPoolSize(), Duration.ofMillis(pool.getConnectionTimeout()))
+                            : limitarPrimario(pool, environment));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static DataSourceLimitado limitarPrimario(HikariDataSource pool, Environment environment) {
+        int limite = environment.getProperty("banco.conexoes.limite-concorrente", Integer.class, pool.getMaximumPoolSize());
+        Duration espera = environment.getProperty("banco.conexoes.espera-maxima", Duration.class, Duration.ofSeconds(5));
+        return new DataSourceLimitado(pool, limite, espera);
+    }
+
+    /**
+     * Publica as permissões livres de cada {@link DataSourceLimitado}, com o nome do pool na tag {@code pool},
+     * complementando as métricas do pool Hikari: com threads virtuais, a espera por conexão acontece na fila
+     * do semáforo, antes de chegar ao pool.
+     *
+     * @param dataSource Data source da aplicação, já envolvido pelo limitador quando não há réplicas.
+     * @param roteador Roteador de réplicas, quando habilitado.
+     * @return Registrador da métrica {@code banco.conexoes.permissoes.disponiveis}.
+     */
+    @Bean
+    public MeterBinder metricasLimitadorDeConexoes(DataSource dataSource, ObjectProvider<RoteadorReplicas> roteador) {
+        return registro -> {
+            Map<String, DataSource> acessos = new LinkedHashMap<>();
+            roteador.ifAvailable(r -> acessos.putAll(r.getAcessosPools()));
+            if (dataSource instanceof DataSourceLimitado limitado && limitado.getTargetDataSource() instanceof HikariDataSource pool) {
+                acessos.put(pool.getPoolName(), limitado);
+            }
+            acessos.forEach((nomePool, acesso) -> {
+                if (acesso instanceof DataSourceLimitado limitado) {
+                    Gauge.builder("banco.conexoes.permissoes.disponiveis", limitado, DataSourceLimitado::getPermissoesDisponiveis)
+                            .description("Conexões que ainda podem ser obtidas sem esperar na fila do limitador")
+                            .tag("pool", nomePool)
+                            .register(registro);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Classe de configuração que confirma, ao iniciar a aplicação, que os índices declarados nas entidades existem no banco.
+ * Os índices esperados são lidos das anotações {@link Table#indexes()} das entidades JPA;
+ * se algum estiver ausente (por exemplo, uma migração não aplicada), a aplicação não sobe.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Configuration
+@ConditionalOnProperty(name = "banco.indices.verificar", havingValue = "true")
+public class VerificacaoIndicesConfig {
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Verifica os índices de todas as entidades mapeadas.
+     *
+     * @throws IllegalStateException se algum índice declarado não existir no banco.
+     * @throws SQLException se não for possível ler os metadados do banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificarIndices() throws SQLException {
+        List<String> ausentes = new ArrayList<>();
+        try (Connection conexao = dataSource.getConnection()) {
+            DatabaseMetaData metadados = conexao.getMetaData();
+            for (EntityType<?> entidade : entityManagerFactory.getMetamodel().getEntities()) {
+                Table tabela = entidade.getJavaType().getAnnotation(Table.class);
+                if (tabela == null || tabela.indexes().length == 0) {
+                    continue;
+                }
+                Set<String> existentes = indicesDaTabela(metadados, conexao.getCatalog(), tabela.name());
+                for (Index indice : tabela.indexes()) {
+                    if (!existentes.contains(indice.name().toLowerCase(Locale.ROOT))) {
+                        ausentes.add(tabela.name() + "." + indice.name());
+                    }
+                }
+            }
+        }
+        if (!ausentes.isEmpty()) {
+            throw new IllegalStateException("Índices ausentes no banco: " + ausentes
+                    + ". Verifique se as migrações do Flyway foram aplicadas.");
+        }
+        log.info("Índices das entidades verificados no banco");
+    }
+
+    private Set<String> indicesDaTabela(DatabaseMetaData metadados, String catalogo, String tabela) throws SQLException {
+        Set<String> indices = new HashSet<>();
+        try (ResultSet resultado = metadados.getIndexInfo(catalogo, null, tabela, false, true)) {
+            while (resultado.next()) {
+                String nome = resultado.getString("INDEX_NAME");
+                if (nome != null) {
+                    indices.add(nome.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return indices;
+    }
+}
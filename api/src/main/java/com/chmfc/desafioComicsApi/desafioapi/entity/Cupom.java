@@ -0,0 +1,129 @@
+package com.chmfc.desafioComicsApi.desafioapi.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representa um cupom de desconto no sistema.
+ * Cada cupom possui um código único, uma raridade associada,
+ * um valor de desconto e uma data de validade.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "cupons", indexes = {
+        @Index(name = "idx_cupons_raridade_validade", columnList = "raridade, validade"),
+        @Index(name = "idx_cupons_data_criacao", columnList = "data_criacao"),
+        @Index(name = "idx_cupons_reservado_data_criacao", columnList = "reservado, data_criacao")
+})
+public class Cupom {
+
+    /**
+     * Quantidade de dias de validade de um cupom, contados da sua emissão.
+     */
+    public static final int DIAS_VALIDADE = 30;
+
+    /**
+     * Identificador único do cupom.
+     * Gerado por sequência com otimizador pooled, reservando blocos de ids
+     * de uma só vez para que as inserções possam ser agrupadas em lotes JDBC.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cupons_seq")
+    @SequenceGenerator(name = "cupons_seq", sequenceName = "cupons_seq", allocationSize = 500)
+    private Long id;
+
+    /**
+     * Código único do cupom.
+     * Gerado automaticamente ao criar um novo cupom, a partir da {@link #chave}.
+     * Cupons anteriores ao formato compacto mantêm o código em formato UUID.
+     */
+    @Column(nullable = false, unique = true)
+    private String codigo;
+
+    /**
+     * Valor numérico de 64 bits do código, usado nas buscas por código.
+     * Nulo apenas para cupons emitidos antes do formato compacto.
+     */
+    @JsonIgnore
+    @Column(name = "chave", unique = true)
+    private Long chave;
+
+    /**
+     * Raridade associada ao quadrinho que o cupom aplica.
+     * Utiliza o tipo enumerado {@link Quadrinho.Raridade}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Quadrinho.Raridade raridade;
+
+    /**
+     * Valor do desconto aplicado pelo cupom.
+     */
+    @Column(nullable = false)
+    private double desconto;
+
+    /**
+     * Data e hora de validade do cupom.
+     * Após essa data, o cupom não poderá mais ser utilizado.
+     */
+    @Column(nullable = false)
+    private LocalDateTime validade;
+
+    /**
+     * Quantidade de vezes que o cupom ainda pode ser resgatado.
+     * Decrementada atomicamente a cada resgate.
+     */
+    @ColumnDefault("1")
+    @Column(name = "usos_restantes", nullable = false)
+    private int usosRestantes = 1;
+
+    /**
+     * Data e hora de criação do cupom.
+     * Usada para sincronizar incrementalmente o filtro de códigos entre instâncias.
+     */
+    @Column(name = "data_criacao", updatable = false)
+    private LocalDateTime dataCriacao;
+
+    /**
+     * Indica que o cupom foi pré-gerado e ainda está na reserva de uma instância, sem ter sido emitido.
+     * Cupons reservados não aparecem nas listagens e nas estatísticas e não podem ser resgatados.
+     */
+    @JsonIgnore
+    @ColumnDefault("false")
+    @Column(name = "reservado", nullable = false)
+    private boolean reservado;
+
+    /**
+     * Construtor que cria um cupom com base na raridade e valor de desconto fornecidos.
+     * O código do cupom é gerado automaticamente e a validade é definida para 30 dias a partir da data de criação.
+     *
+     * @param raridade Raridade associada ao quadrinho que o cupom aplica.
+     * @param desconto Valor do desconto aplicado pelo cupom.
+     */
+    public Cupom(Quadrinho.Raridade raridade, double desconto) {
+        this.chave = CodigoCupom.gerarChave();
+        this.codigo = CodigoCupom.codificar(chave); // Gera um código único para o cupom
+        this.raridade = raridade;
+        this.desconto = desconto;
+        renovar(LocalDateTime.now());
+    }
+
+    /**
+     * Define a data de criação do cupom e recalcula a validade a partir dela.
+     * Usado também na emissão de um cupom pré-gerado, que passa a valer a partir da emissão.
+     *
+     * @param dataCriacao Data de criação (ou de emissão) do cupom.
+     */
+    public void renovar(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+        this.validade = dataCriacao.plusDays(DIAS_VALIDADE);
+    }
+}
\ No newline at end of file
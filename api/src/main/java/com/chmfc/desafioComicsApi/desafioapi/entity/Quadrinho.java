@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,13 +17,28 @@ import java.util.Objects;
 /**
  * Classe de entidade JPA que representa um Quadrinho.
  * Utiliza anotações do JPA e Lombok para reduzir código boilerplate.
+ * As instâncias ficam no cache de segundo nível do Hibernate, na região {@link #REGIAO_CACHE}, de modo que buscas
+ * pelo id em novos contextos de persistência, como as das atualizações feitas pelo serviço, não voltam ao banco.
+ * As atualizações escrevem todas as colunas: numa entidade sem versão, o Hibernate descartaria do cache, em vez de
+ * atualizar, a entrada de uma instância atualizada só nas colunas alteradas.
  */
 @Getter @Setter @NoArgsConstructor
 @Entity
-@Table(name = "quadrinhos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Quadrinho.REGIAO_CACHE)
+@Table(name = "quadrinhos", indexes = {
+        @Index(name = "idx_quadrinhos_autor", columnList = "autor, raridade, nome, data_criacao, data_modificacao"),
+        @Index(name = "idx_quadrinhos_raridade", columnList = "raridade, autor, nome, data_criacao, data_modificacao"),
+        @Index(name = "idx_quadrinhos_data_modificacao", columnList = "data_modificacao")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Quadrinho implements Serializable {
 
+    /**
+     * Região do cache de segundo nível com as instâncias de Quadrinho, configurada em {@code application.conf}.
+     */
+    public static final String REGIAO_CACHE = "quadrinhos";
+
     /**
      * Identificador único da entidade.
      */
@@ -0,0 +1,274 @@
+package com.chmfc.desafioComicsApi.desafioapi.repository;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Repositório para a entidade {@link Cupom}.
+ * Extende {@link JpaRepository} para fornecer operações CRUD e outras
+ * funções de persistência diretamente para a entidade Cupom.
+ */
+public interface CupomRepository extends JpaRepository<Cupom, Long> {
+
+    /**
+     * Encontra cupons pela raridade associada ao quadrinho.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @return Uma lista de cupons que correspondem à raridade fornecida.
+     */
+    List<Cupom> findByRaridade(Quadrinho.Raridade raridade);
+
+    /**
+     * Lista os cupons emitidos de uma raridade que ainda estão dentro da validade, selecionando apenas as colunas
+     * devolvidas pela API. Atendida pelo índice composto (raridade, validade).
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param agora Instante de referência; só são retornados cupons com validade posterior a ele.
+     * @return Uma lista de cupons válidos que correspondem à raridade fornecida.
+     */
+    @Query("select new com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO("
+            + "c.id, c.codigo, c.raridade, c.desconto, c.validade, c.usosRestantes, c.dataCriacao) "
+            + "from Cupom c where c.raridade = :raridade and c.validade > :agora and c.reservado = false")
+    List<CupomDTO> listarValidosPorRaridade(@Param("raridade") Quadrinho.Raridade raridade,
+                                            @Param("agora") LocalDateTime agora);
+
+    /**
+     * Percorre todos os cupons emitidos ainda válidos e com usos restantes, em ordem de id, já na forma devolvida pela API.
+     * O stream deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @param agora Instante de referência; só são retornados cupons com validade posterior a ele.
+     * @return Stream com os cupons válidos.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select new com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO("
+            + "c.id, c.codigo, c.raridade, c.desconto, c.validade, c.usosRestantes, c.dataCriacao) "
+            + "from Cupom c where c.validade > :agora and c.reservado = false and c.usosRestantes > 0 order by c.id")
+    Stream<CupomDTO> streamValidos(@Param("agora") LocalDateTime agora);
+
+    /**
+     * Lista os cupons emitidos ainda válidos e com usos restantes criados a partir de um instante, em ordem de id.
+     * Cupons retirados da reserva têm a data de criação renovada na emissão e também são retornados.
+     *
+     * @param desde Instante inicial (inclusivo).
+     * @param agora Instante de referência; só são retornados cupons com validade posterior a ele.
+     * @return Uma lista com os cupons criados desde o instante informado.
+     */
+    @Query("select new com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO("
+            + "c.id, c.codigo, c.raridade, c.desconto, c.validade, c.usosRestantes, c.dataCriacao) "
+            + "from Cupom c where c.dataCriacao >= :desde and c.validade > :agora and c.reservado = false "
+            + "and c.usosRestantes > 0 order by c.id")
+    List<CupomDTO> listarCriadosDesde(@Param("desde") LocalDateTime desde, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Percorre os ids e os usos restantes dos cupons emitidos de uma raridade ainda válidos e com usos restantes,
+     * em ordem de id. O stream deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param agora Instante de referência; só são retornados cupons com validade posterior a ele.
+     * @return Stream com os usos restantes de cada cupom.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select c.id as id, c.usosRestantes as usosRestantes from Cupom c where c.raridade = :raridade "
+            + "and c.validade > :agora and c.reservado = false and c.usosRestantes > 0 order by c.id")
+    Stream<UsosCupom> streamUsosRestantes(@Param("raridade") Quadrinho.Raridade raridade,
+                                          @Param("agora") LocalDateTime agora);
+
+    /**
+     * Conta os cupons emitidos dentro da validade e soma os seus descontos, por raridade e pelo minuto em que expiram,
+     * em uma única consulta agregada.
+     *
+     * @param agora Instante de referência; só são considerados cupons com validade posterior a ele.
+     * @return Uma linha por raridade e minuto de validade existente.
+     */
+    @Query("select c.raridade as raridade, year(c.validade) as ano, month(c.validade) as mes, day(c.validade) as dia, "
+            + "hour(c.validade) as hora, minute(c.validade) as minuto, count(c) as quantidade, sum(c.desconto) as descontos "
+            + "from Cupom c where c.validade > :agora and c.reservado = false "
+            + "group by c.raridade, year(c.validade), month(c.validade), day(c.validade), hour(c.validade), minute(c.validade)")
+    List<FaixaValidade> contarValidosPorMinuto(@Param("agora") LocalDateTime agora);
+
+    /**
+     * Busca os ids do próximo bloco de cupons expirados de uma raridade, em ordem de validade.
+     * Atendida pelo índice composto (raridade, validade), sem varrer a tabela.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param agora Instante de referência; são considerados expirados os cupons com validade até ele.
+     * @param limite Quantidade máxima de ids retornados.
+     * @return Lista com os ids dos cupons expirados.
+     */
+    @Query("select c.id from Cupom c where c.raridade = :raridade and c.validade <= :agora order by c.validade")
+    List<Long> findIdsExpirados(@Param("raridade") Quadrinho.Raridade raridade,
+                                @Param("agora") LocalDateTime agora, Limit limite);
+
+    /**
+     * Remove os cupons com os ids informados em um único DELETE pela chave primária.
+     *
+     * @param ids Ids dos cupons a remover.
+     * @return Quantidade de cupons removidos.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Cupom c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Busca os ids do próximo bloco de cupons reservados criados até um instante, abandonados por uma reserva
+     * que não os emitiu a tempo (por exemplo, após um reinício da instância).
+     * Atendida pelo índice composto (reservado, data_criacao).
+     *
+     * @param limite Instante limite; são considerados abandonados os cupons reservados criados até ele.
+     * @param quantidade Quantidade máxima de ids retornados.
+     * @return Lista com os ids dos cupons reservados abandonados.
+     */
+    @Query("select c.id from Cupom c where c.reservado = true and c.dataCriacao <= :limite")
+    List<Long> findIdsReservadosAte(@Param("limite") LocalDateTime limite, Limit quantidade);
+
+    /**
+     * Remove, dentre os ids informados, os cupons que ainda estão reservados, em um único DELETE pela chave primária.
+     * Cupons emitidos nesse meio tempo são mantidos.
+     *
+     * @param ids Ids dos cupons a remover.
+     * @return Quantidade de cupons removidos.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Cupom c where c.id in :ids and c.reservado = true")
+    int removerReservados(@Param("ids") List<Long> ids);
+
+    /**
+     * Emite um cupom reservado: retira a marca de reserva e renova a data de criação e a validade.
+     * Não altera cupons que já não estão reservados, como os removidos por abandono.
+     *
+     * @param id Id do cupom.
+     * @param dataCriacao Data de emissão, que passa a ser a data de criação do cupom.
+     * @param validade Nova validade do cupom.
+     * @return 1 se o cupom foi emitido, 0 caso contrário.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Cupom c set c.reservado = false, c.dataCriacao = :dataCriacao, c.validade = :validade "
+            + "where c.id = :id and c.reservado = true")
+    int emitirReservado(@Param("id") Long id, @Param("dataCriacao") LocalDateTime dataCriacao,
+                        @Param("validade") LocalDateTime validade);
+
+    /**
+     * Encontra um cupom pela chave numérica do seu código.
+     *
+     * @param chave A chave do código do cupom.
+     * @return O cupom correspondente, se existir.
+     */
+    Optional<Cupom> findByChave(Long chave);
+
+    /**
+     * Encontra um cupom pelo código textual.
+     * Usado para cupons emitidos antes do formato compacto, que não possuem chave.
+     *
+     * @param codigo O código do cupom.
+     * @return O cupom correspondente, se existir.
+     */
+    Optional<Cupom> findByCodigo(String codigo);
+
+    /**
+     * Percorre as chaves de todos os cupons no formato compacto.
+     * O stream deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Stream com as chaves dos cupons.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select c.chave from Cupom c where c.chave is not null")
+    Stream<Long> streamChaves();
+
+    /**
+     * Percorre os códigos dos cupons emitidos antes do formato compacto.
+     * O stream deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Stream com os códigos legados.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select c.codigo from Cupom c where c.chave is null")
+    Stream<String> streamCodigosLegados();
+
+    /**
+     * Busca as chaves dos cupons criados a partir de um instante.
+     *
+     * @param desde Instante inicial (inclusivo).
+     * @return Lista com as chaves dos cupons criados desde o instante informado.
+     */
+    @Query("select c.chave from Cupom c where c.dataCriacao >= :desde and c.chave is not null")
+    List<Long> findChavesCriadasDesde(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Consome um uso do cupom emitido com a chave informada, se ele ainda for válido e tiver usos restantes.
+     * A verificação e o decremento acontecem no mesmo UPDATE condicional, sem bloqueio prévio da linha,
+     * de modo que resgates concorrentes nunca consomem mais usos do que o cupom possui.
+     *
+     * @param chave A chave do código do cupom.
+     * @param agora Instante do resgate, comparado com a validade do cupom.
+     * @return 1 se um uso foi consumido, 0 caso contrário.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Cupom c set c.usosRestantes = c.usosRestantes - 1 " +
+            "where c.chave = :chave and c.usosRestantes > 0 and c.validade > :agora and c.reservado = false")
+    int consumirUsoPorChave(@Param("chave") Long chave, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Consome um uso do cupom legado com o código informado, nas mesmas condições de {@link #consumirUsoPorChave}.
+     *
+     * @param codigo O código legado do cupom.
+     * @param agora Instante do resgate, comparado com a validade do cupom.
+     * @return 1 se um uso foi consumido, 0 caso contrário.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Cupom c set c.usosRestantes = c.usosRestantes - 1 " +
+            "where c.codigo = :codigo and c.usosRestantes > 0 and c.validade > :agora and c.reservado = false")
+    int consumirUsoPorCodigo(@Param("codigo") String codigo, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Usos restantes de um cupom.
+     */
+    interface UsosCupom {
+
+        Long getId();
+
+        int getUsosRestantes();
+    }
+
+    /**
+     * Quantidade e soma dos descontos dos cupons de uma raridade que expiram em um mesmo minuto.
+     */
+    interface FaixaValidade {
+
+        Quadrinho.Raridade getRaridade();
+
+        int getAno();
+
+        int getMes();
+
+        int getDia();
+
+        int getHora();
+
+        int getMinuto();
+
+        long getQuantidade();
+
+        double getDescontos();
+    }
+}
@@ -0,0 +1,190 @@
+package com.chmfc.desafioComicsApi.desafioapi.repository;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Interface de repositório para a entidade Quadrinho.
+ * Extende JpaRepository para fornecer operações CRUD e outras funcionalidades JPA.
+ */
+public interface QuadrinhoRepository extends JpaRepository<Quadrinho, Long> {
+
+    /**
+     * Região do cache de consultas com os resultados de {@link #buscarDtoPorId}.
+     */
+    String REGIAO_POR_ID = "quadrinhos-por-id";
+
+    /**
+     * Região do cache de consultas com os resultados de {@link #listarPorRaridade}.
+     */
+    String REGIAO_POR_RARIDADE = "quadrinhos-por-raridade";
+
+    /**
+     * Região do cache de consultas com os resultados de {@link #listarPorAutor}.
+     */
+    String REGIAO_POR_AUTOR = "quadrinhos-por-autor";
+
+    /**
+     * Início das consultas que montam {@link QuadrinhoDTO} direto das colunas, sem instanciar entidades.
+     */
+    String SELECIONAR_DTO = "select new com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO("
+            + "q.id, q.nome, q.autor, q.raridade, q.dataCriacao, q.dataModificacao) from Quadrinho q ";
+
+    /**
+     * Busca a representação de leitura de um quadrinho pelo id.
+     * O resultado fica no cache de consultas do Hibernate, com os valores das colunas selecionadas;
+     * qualquer escrita na tabela feita pelo Hibernate invalida o resultado.
+     *
+     * @param id Identificador do quadrinho.
+     * @return O quadrinho correspondente, se existir.
+     */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = REGIAO_POR_ID)})
+    @Query(SELECIONAR_DTO + "where q.id = :id")
+    Optional<QuadrinhoDTO> buscarDtoPorId(@Param("id") Long id);
+
+    /**
+     * Conta os quadrinhos por raridade e autor em uma única consulta agregada.
+     *
+     * @return Uma linha por combinação de raridade e autor existente.
+     */
+    @Query("select q.raridade as raridade, q.autor as autor, count(q) as quantidade from Quadrinho q group by q.raridade, q.autor")
+    List<ContagemQuadrinhos> contarPorRaridadeEAutor();
+
+    /**
+     * Lista os quadrinhos de uma raridade, selecionando apenas as colunas devolvidas pela API.
+     * O resultado fica no cache de consultas do Hibernate, nas mesmas condições de {@link #buscarDtoPorId}.
+     *
+     * @param raridade Raridade do quadrinho.
+     * @return Lista de quadrinhos com a raridade especificada.
+     */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = REGIAO_POR_RARIDADE)})
+    @Query(SELECIONAR_DTO + "where q.raridade = :raridade")
+    List<QuadrinhoDTO> listarPorRaridade(@Param("raridade") Quadrinho.Raridade raridade);
+
+    /**
+     * Lista os quadrinhos de um autor, selecionando apenas as colunas devolvidas pela API.
+     * O resultado fica no cache de consultas do Hibernate, nas mesmas condições de {@link #buscarDtoPorId}.
+     *
+     * @param autor Nome do autor.
+     * @return Lista de quadrinhos do autor especificado.
+     */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = REGIAO_POR_AUTOR)})
+    @Query(SELECIONAR_DTO + "where q.autor = :autor")
+    List<QuadrinhoDTO> listarPorAutor(@Param("autor") String autor);
+
+    /**
+     * Lista os quadrinhos com os nomes informados, pelo índice único do nome.
+     *
+     * @param nomes Nomes dos quadrinhos.
+     * @return Lista de quadrinhos encontrados.
+     */
+    @Query(SELECIONAR_DTO + "where q.nome in :nomes")
+    List<QuadrinhoDTO> listarPorNomes(@Param("nomes") Collection<String> nomes);
+
+    /**
+     * Busca a próxima página de quadrinhos por keyset sobre o id.
+     * A consulta usa a chave primária como ponto de partida, evitando o custo de OFFSET em tabelas grandes.
+     *
+     * @param id Último id já retornado ao cliente (exclusivo).
+     * @param limite Quantidade máxima de quadrinhos da página.
+     * @return Lista de quadrinhos com id maior que o informado, em ordem crescente de id.
+     */
+    @Query(SELECIONAR_DTO + "where q.id > :id order by q.id")
+    List<QuadrinhoDTO> listarPagina(@Param("id") Long id, Limit limite);
+
+    /**
+     * Percorre todos os quadrinhos em ordem de id sem materializar a tabela em memória.
+     * Cada linha é convertida direto em {@link QuadrinhoDTO}, sem entrar no contexto de persistência.
+     * O stream deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Stream de quadrinhos em ordem crescente de id.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECIONAR_DTO + "order by q.id")
+    Stream<QuadrinhoDTO> streamTodos();
+
+    /**
+     * Busca os quadrinhos criados ou alterados a partir de um instante.
+     *
+     * @param desde Instante inicial, inclusivo.
+     * @return Lista de quadrinhos com data de modificação igual ou posterior a {@code desde}.
+     */
+    @Query(SELECIONAR_DTO + "where q.dataModificacao >= :desde")
+    List<QuadrinhoDTO> listarModificadosDesde(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Lê a raridade e o autor de um quadrinho e trava a linha até o fim da transação corrente.
+     * Usado pelas escritas que não carregam o quadrinho, para conhecer o estado anterior à alteração
+     * sem que outra transação o altere antes do commit.
+     *
+     * @param id Identificador do quadrinho.
+     * @return A raridade e o autor atuais, se o quadrinho existir.
+     */
+    @Query(value = "select raridade, autor from quadrinhos where id = :id for update", nativeQuery = true)
+    Optional<ClassificacaoQuadrinho> travarClassificacao(@Param("id") Long id);
+
+    /**
+     * Remove o quadrinho com o id informado em um único DELETE, sem carregá-lo antes.
+     *
+     * @param id Identificador do quadrinho.
+     * @return Quantidade de linhas removidas (0 se o quadrinho não existir).
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Quadrinho q where q.id = :id")
+    int removerPorId(@Param("id") Long id);
+
+    /**
+     * Altera a raridade do quadrinho com o id informado em um único UPDATE, sem carregá-lo antes.
+     *
+     * @param id Identificador do quadrinho.
+     * @param raridade Nova raridade.
+     * @param dataModificacao Data da modificação.
+     * @return Quantidade de linhas alteradas (0 se o quadrinho não existir).
+     */
+    @Transactional
+    @Modifying
+    @Query("update Quadrinho q set q.raridade = :raridade, q.dataModificacao = :dataModificacao where q.id = :id")
+    int atualizarRaridade(@Param("id") Long id, @Param("raridade") Quadrinho.Raridade raridade,
+                          @Param("dataModificacao") LocalDateTime dataModificacao);
+
+    /**
+     * Raridade e autor de um quadrinho.
+     */
+    interface ClassificacaoQuadrinho {
+
+        Quadrinho.Raridade getRaridade();
+
+        String getAutor();
+    }
+
+    /**
+     * Quantidade de quadrinhos de uma raridade e de um autor.
+     */
+    interface ContagemQuadrinhos {
+
+        Quadrinho.Raridade getRaridade();
+
+        String getAutor();
+
+        long getQuantidade();
+    }
+}
@@ -0,0 +1,222 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Busca textual por nome e autor de quadrinhos, respondida a partir de um índice em memória.
+ * O índice é reconstruído do banco ao iniciar a aplicação, recebe as alterações feitas pelo
+ * {@link QuadrinhoService} desta instância após o commit e é sincronizado periodicamente
+ * com os quadrinhos criados ou alterados por outras instâncias.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class BuscaQuadrinhos {
+
+    private final QuadrinhoRepository quadrinhoRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Tamanho de página usado quando o cliente não informa um.
+     */
+    @Value("${quadrinhos.busca.tamanho-padrao:20}")
+    private int tamanhoPadrao;
+
+    /**
+     * Tamanho máximo de página aceito, independentemente do valor solicitado.
+     */
+    @Value("${quadrinhos.busca.tamanho-maximo:100}")
+    private int tamanhoMaximo;
+
+    /**
+     * Margem de tempo revisitada a cada sincronização, cobrindo transações ainda não confirmadas na anterior.
+     */
+    @Value("${quadrinhos.busca.margem-sincronizacao:1m}")
+    private Duration margemSincronizacao;
+
+    private final IndiceTextual indice = new IndiceTextual();
+    private final Set<Long> removidosDuranteCarga = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean carregando = new AtomicBoolean();
+    private volatile boolean pronto;
+    private volatile LocalDateTime ultimaSincronizacao;
+
+    /**
+     * Reconstrói o índice a partir do banco assim que a aplicação termina de subir.
+     * Se a carga falhar, é repetida a cada sincronização até completar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarAoIniciar() {
+        iniciarCarga();
+    }
+
+    /**
+     * Busca quadrinhos cujo nome ou autor contenham palavras começando por cada palavra da consulta,
+     * ignorando maiúsculas e acentos.
+     *
+     * @param consulta Texto buscado.
+     * @param pagina Número da página, começando em 0, ou null para a primeira.
+     * @param tamanho Quantidade de itens por página, ou null para usar o tamanho padrão.
+     * @return Página de resultados ordenada por relevância.
+     * @throws ResponseStatusException com status 400 se a consulta estiver vazia,
+     *                                 ou 503 se o índice ainda estiver sendo carregado.
+     */
+    public ResultadoBusca buscar(String consulta, Integer pagina, Integer tamanho) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o texto da busca.");
+        }
+        if (!pronto) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Índice de busca em carga; tente novamente.");
+        }
+        int limite = tamanho == null ? tamanhoPadrao : Math.max(1, Math.min(tamanho, tamanhoMaximo));
+        return indice.buscar(consulta, pagina == null ? 0 : Math.max(0, pagina), limite);
+    }
+
+    /**
+     * Consulta um quadrinho no índice, sem acessar o banco.
+     * Como o índice só é atualizado após o commit, dentro de uma transação de escrita o resultado é o estado
+     * anterior às alterações ainda não confirmadas.
+     *
+     * @param id Identificador do quadrinho.
+     * @return O quadrinho indexado, ou vazio se o índice ainda estiver carregando ou não tiver o quadrinho.
+     */
+    public Optional<QuadrinhoDTO> consultar(Long id) {
+        if (!pronto) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(indice.consultar(id));
+    }
+
+    /**
+     * Atualiza o índice com o estado do quadrinho após o commit da transação corrente.
+     *
+     * @param quadrinho Quadrinho criado ou alterado.
+     */
+    public void indexar(Quadrinho quadrinho) {
+        aposConfirmar(() -> gravar(QuadrinhoDTO.de(quadrinho)));
+    }
+
+    /**
+     * Atualiza o índice com um quadrinho relido do banco, após o commit da transação corrente.
+     *
+     * @param quadrinho Quadrinho criado ou alterado.
+     */
+    public void indexar(QuadrinhoDTO quadrinho) {
+        aposConfirmar(() -> gravar(quadrinho));
+    }
+
+    /**
+     * Altera no índice apenas os campos informados, após o commit da transação corrente.
+     * Usado pelas alterações feitas sem carregar o quadrinho.
+     *
+     * @param id Identificador do quadrinho.
+     * @param nome Novo nome, ou null se não foi alterado.
+     * @param autor Novo autor, ou null se não foi alterado.
+     * @param raridade Nova raridade, ou null se não foi alterada.
+     * @param dataModificacao Data da alteração.
+     */
+    public void alterar(Long id, String nome, String autor, Quadrinho.Raridade raridade, LocalDateTime dataModificacao) {
+        aposConfirmar(() -> indice.alterar(id, nome, autor, raridade, dataModificacao));
+    }
+
+    /**
+     * Remove o quadrinho do índice após o commit da transação corrente.
+     *
+     * @param id Identificador do quadrinho removido.
+     */
+    public void remover(Long id) {
+        aposConfirmar(() -> {
+            if (!pronto) {
+                removidosDuranteCarga.add(id);
+            }
+            indice.remover(id);
+        });
+    }
+
+    /**
+     * Atualiza o índice com os quadrinhos criados ou alterados por outras instâncias desde a última sincronização.
+     * Remoções feitas por outras instâncias só são refletidas na próxima reconstrução do índice.
+     * Enquanto a carga inicial não tiver completado, inicia uma nova tentativa, se nenhuma estiver em andamento.
+     */
+    @Scheduled(fixedDelayString = "${quadrinhos.busca.intervalo-sincronizacao:5000}")
+    public void sincronizar() {
+        if (!pronto) {
+            iniciarCarga();
+            return;
+        }
+        LocalDateTime inicio = LocalDateTime.now();
+        LocalDateTime desde = ultimaSincronizacao.minus(margemSincronizacao);
+        quadrinhoRepository.listarModificadosDesde(desde).forEach(this::gravar);
+        ultimaSincronizacao = inicio;
+    }
+
+    private void gravar(QuadrinhoDTO quadrinho) {
+        indice.gravar(quadrinho.id(), quadrinho.nome(), quadrinho.autor(), quadrinho.raridade(), quadrinho.dataModificacao());
+    }
+
+    private void aposConfirmar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private void iniciarCarga() {
+        if (carregando.compareAndSet(false, true)) {
+            Thread carga = new Thread(this::carregar, "indice-quadrinhos");
+            carga.setDaemon(true);
+            carga.start();
+        }
+    }
+
+    private void carregar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        try {
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            transacao.setReadOnly(true);
+            transacao.executeWithoutResult(status -> {
+                try (Stream<QuadrinhoDTO> quadrinhos = quadrinhoRepository.streamTodos()) {
+                    quadrinhos.filter(quadrinho -> !removidosDuranteCarga.contains(quadrinho.id()))
+                            .forEach(this::gravar);
+                }
+            });
+            ultimaSincronizacao = inicio;
+            pronto = true;
+            removidosDuranteCarga.clear();
+            log.info("Índice de busca carregado com {} quadrinhos em {} ms", indice.tamanho(),
+                    Duration.between(inicio, LocalDateTime.now()).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao carregar o índice de busca; nova tentativa na próxima sincronização: {}", e.getMessage());
+        } finally {
+            carregando.set(false);
+        }
+    }
+}
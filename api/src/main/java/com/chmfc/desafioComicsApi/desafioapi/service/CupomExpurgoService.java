@@ -0,0 +1,99 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serviço responsável pela remoção periódica dos cupons expirados.
+ * Os cupons são removidos em blocos limitados, cada um em sua própria transação curta,
+ * selecionados pelo índice (raridade, validade) e removidos pela chave primária,
+ * de modo que a tabela nunca fica bloqueada por muito tempo.
+ * Na mesma execução são removidos os cupons reservados abandonados: os que ainda estão marcados como reservados
+ * depois da idade máxima da reserva de {@link CupomPool}, que nunca emite cupons mais antigos que ela.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CupomExpurgoService {
+
+    private final CupomRepository cupomRepository;
+
+    /**
+     * Quantidade máxima de cupons removidos em cada bloco.
+     */
+    @Value("${cupons.expurgo.tamanho-bloco:1000}")
+    private int tamanhoBloco;
+
+    /**
+     * Idade máxima de um cupom na reserva de {@link CupomPool}; cupons ainda reservados depois dela foram abandonados.
+     */
+    @Value("${cupons.pool.idade-maxima:1h}")
+    private Duration idadeMaximaReserva;
+
+    private final AtomicLong totalRemovidos = new AtomicLong();
+    private volatile long removidosUltimaExecucao;
+    private volatile long duracaoUltimaExecucaoMs;
+    private volatile LocalDateTime ultimaExecucao;
+
+    /**
+     * Remove todos os cupons expirados, bloco a bloco, para cada raridade, e depois os cupons reservados abandonados.
+     *
+     * @return Quantidade de cupons removidos nesta execução.
+     */
+    @Scheduled(cron = "${cupons.expurgo.cron:0 */10 * * * *}")
+    public long expurgar() {
+        long inicio = System.nanoTime();
+        LocalDateTime agora = LocalDateTime.now();
+        long removidos = 0;
+        for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+            List<Long> ids;
+            do {
+                ids = cupomRepository.findIdsExpirados(raridade, agora, Limit.of(tamanhoBloco));
+                if (!ids.isEmpty()) {
+                    removidos += cupomRepository.deleteByIdIn(ids);
+                }
+            } while (ids.size() == tamanhoBloco);
+        }
+        LocalDateTime limiteReserva = agora.minus(idadeMaximaReserva);
+        List<Long> ids;
+        do {
+            ids = cupomRepository.findIdsReservadosAte(limiteReserva, Limit.of(tamanhoBloco));
+            if (!ids.isEmpty()) {
+                removidos += cupomRepository.removerReservados(ids);
+            }
+        } while (ids.size() == tamanhoBloco);
+        duracaoUltimaExecucaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        removidosUltimaExecucao = removidos;
+        ultimaExecucao = agora;
+        totalRemovidos.addAndGet(removidos);
+        log.info("Expurgo de cupons expirados: {} removidos em {} ms", removidos, duracaoUltimaExecucaoMs);
+        return removidos;
+    }
+
+    /**
+     * Retorna o resultado da última execução e o total acumulado de cupons removidos.
+     *
+     * @return Mapa com o instante, a duração e a quantidade removida na última execução, e o total removido.
+     */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("ultimaExecucao", ultimaExecucao);
+        estatisticas.put("removidosUltimaExecucao", removidosUltimaExecucao);
+        estatisticas.put("duracaoUltimaExecucaoMs", duracaoUltimaExecucaoMs);
+        estatisticas.put("totalRemovidos", totalRemovidos.get());
+        return estatisticas;
+    }
+}
@@ -0,0 +1,129 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serviço responsável pela criação de cupons em lote.
+ * Os cupons são persistidos em blocos do tamanho do lote JDBC configurado,
+ * limpando o contexto de persistência a cada bloco para manter o uso de memória constante.
+ */
+@RequiredArgsConstructor
+@Service
+public class CupomLoteService {
+
+    private final EntityManager entityManager;
+    private final CupomRepository cupomRepository;
+    private final FiltroCupons filtroCupons;
+    private final ListaCupons listaCupons;
+    private final EstatisticasCatalogo estatisticasCatalogo;
+    private final RegistroAlteracoes registroAlteracoes;
+
+    /**
+     * Quantidade de cupons enviados ao banco em cada lote JDBC.
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int tamanhoLote;
+
+    /**
+     * Quantidade de vezes que cada cupom emitido pode ser resgatado.
+     */
+    @Value("${cupons.usos-por-cupom:1}")
+    private int usosPorCupom;
+
+    /**
+     * Calcula o desconto de um cupom com base na raridade do quadrinho.
+     * Cupons para quadrinhos raros têm um desconto de 10%, enquanto cupons para quadrinhos comuns têm um desconto de 20%.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @return O valor do desconto.
+     */
+    public static double descontoPara(Quadrinho.Raridade raridade) {
+        return raridade == Quadrinho.Raridade.raro ? 0.1 : 0.2;
+    }
+
+    /**
+     * Gera e persiste uma quantidade de cupons para a raridade informada, em uma única transação.
+     * Os cupons entram na {@link ListaCupons} e nas {@link EstatisticasCatalogo} após o commit.
+     *
+     * @param raridade A raridade do quadrinho para o qual os cupons serão gerados.
+     * @param quantidade A quantidade de cupons a gerar.
+     * @return Os cupons persistidos, já desanexados do contexto de persistência.
+     */
+    @Transactional
+    public List<Cupom> gerarLote(Quadrinho.Raridade raridade, int quantidade) {
+        List<Cupom> cupons = persistir(raridade, quantidade, false);
+        listaCupons.adicionar(cupons);
+        estatisticasCatalogo.cuponsCriados(cupons);
+        return cupons;
+    }
+
+    /**
+     * Gera e persiste, em uma única transação, cupons marcados como reservados, para a reserva de {@link CupomPool}.
+     * Cupons reservados só entram na {@link ListaCupons} e nas {@link EstatisticasCatalogo} quando emitidos
+     * por {@link #emitirReservado(Cupom)}.
+     *
+     * @param raridade A raridade do quadrinho para o qual os cupons serão gerados.
+     * @param quantidade A quantidade de cupons a gerar.
+     * @return Os cupons persistidos, já desanexados do contexto de persistência.
+     */
+    @Transactional
+    public List<Cupom> reservarLote(Quadrinho.Raridade raridade, int quantidade) {
+        return persistir(raridade, quantidade, true);
+    }
+
+    /**
+     * Emite um cupom retirado da reserva com um único UPDATE pela chave primária: a marca de reserva é retirada
+     * e a data de criação e a validade são renovadas, de modo que o cupom vale {@value Cupom#DIAS_VALIDADE} dias
+     * a partir da emissão, não importa quanto tempo tenha esperado na reserva.
+     * A emissão é registrada no feed de alterações na mesma transação.
+     * Após o commit, o cupom entra na {@link ListaCupons} e nas {@link EstatisticasCatalogo}.
+     *
+     * @param cupom Cupom reservado, retirado da reserva.
+     * @return true se o cupom foi emitido; false se já não estava reservado, como quando foi removido por abandono.
+     */
+    @Transactional
+    public boolean emitirReservado(Cupom cupom) {
+        LocalDateTime agora = LocalDateTime.now();
+        if (cupomRepository.emitirReservado(cupom.getId(), agora, agora.plusDays(Cupom.DIAS_VALIDADE)) == 0) {
+            return false;
+        }
+        cupom.renovar(agora);
+        cupom.setReservado(false);
+        registroAlteracoes.registrar(RegistroAlteracoes.CUPOM_EMITIDO, cupom.getId(), CupomDTO.de(cupom));
+        listaCupons.adicionar(List.of(cupom));
+        estatisticasCatalogo.cuponsCriados(List.of(cupom));
+        return true;
+    }
+
+    private List<Cupom> persistir(Quadrinho.Raridade raridade, int quantidade, boolean reservado) {
+        double desconto = descontoPara(raridade);
+        List<Cupom> cupons = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Cupom cupom = new Cupom(raridade, desconto);
+            cupom.setUsosRestantes(usosPorCupom);
+            cupom.setReservado(reservado);
+            entityManager.persist(cupom);
+            filtroCupons.adicionar(cupom.getChave());
+            cupons.add(cupom);
+            if ((i + 1) % tamanhoLote == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return cupons;
+    }
+}
@@ -0,0 +1,258 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reserva em memória de cupons já persistidos, separada por raridade.
+ * Um reabastecedor em segundo plano mantém cada reserva acima do nível mínimo, gerando cupons em lote;
+ * a emissão de um cupom passa a ser a retirada de um item da fila e um único UPDATE pela chave primária.
+ * <p>
+ * Os cupons da reserva são gravados marcados como reservados e ficam fora das listagens, das estatísticas e dos
+ * resgates até serem emitidos; na emissão, a validade passa a contar da data de emissão. Cupons que esperam na reserva
+ * mais que a idade máxima são descartados e removidos do banco, e os que sobram de uma instância encerrada sem
+ * esvaziar a reserva são removidos por {@link CupomExpurgoService} depois da mesma idade máxima.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CupomPool {
+
+    private final CupomLoteService cupomLoteService;
+    private final CupomRepository cupomRepository;
+
+    /**
+     * Quantidade máxima de cupons mantidos em memória por raridade.
+     */
+    @Value("${cupons.pool.capacidade:1000}")
+    private int capacidade;
+
+    /**
+     * Nível abaixo do qual a reserva de uma raridade é reabastecida.
+     */
+    @Value("${cupons.pool.minimo:250}")
+    private int minimo;
+
+    /**
+     * Tempo máximo que uma requisição aguarda por um cupom quando a reserva está vazia.
+     */
+    @Value("${cupons.pool.espera-maxima:200ms}")
+    private Duration esperaMaxima;
+
+    /**
+     * Tempo máximo que um cupom pode esperar na reserva antes de ser descartado.
+     */
+    @Value("${cupons.pool.idade-maxima:1h}")
+    private Duration idadeMaxima;
+
+    private final Map<Quadrinho.Raridade, BlockingQueue<Cupom>> reservas = new EnumMap<>(Quadrinho.Raridade.class);
+    private final Map<Quadrinho.Raridade, AtomicBoolean> reabastecendo = new EnumMap<>(Quadrinho.Raridade.class);
+    private final LongAdder retirados = new LongAdder();
+    private final LongAdder gerados = new LongAdder();
+    private final LongAdder esgotamentos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final ConcurrentLinkedQueue<Long> idsDescartados = new ConcurrentLinkedQueue<>();
+    private final ExecutorService reabastecedor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cupom-pool");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Cria as reservas vazias de cada raridade.
+     */
+    @PostConstruct
+    public void inicializar() {
+        for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+            reservas.put(raridade, new ArrayBlockingQueue<>(capacidade));
+            reabastecendo.put(raridade, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Preenche as reservas assim que a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencherAoIniciar() {
+        verificarReservas();
+    }
+
+    /**
+     * Verifica periodicamente cada reserva: descarta os cupons que passaram da idade máxima, remove do banco os
+     * descartados e agenda o reabastecimento das reservas que estão abaixo do mínimo.
+     */
+    @Scheduled(fixedDelayString = "${cupons.pool.intervalo-verificacao:1000}")
+    public void verificarReservas() {
+        LocalDateTime limite = LocalDateTime.now().minus(idadeMaxima);
+        for (BlockingQueue<Cupom> reserva : reservas.values()) {
+            // Os cupons entram na fila na ordem em que são gerados; os mais antigos estão sempre no início
+            Cupom cupom;
+            while ((cupom = reserva.peek()) != null && cupom.getDataCriacao().isBefore(limite)) {
+                if (reserva.remove(cupom)) {
+                    descartar(cupom);
+                }
+            }
+        }
+        removerDescartados();
+        for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+            agendarReabastecimento(raridade);
+        }
+    }
+
+    /**
+     * Retira um cupom da reserva da raridade informada e o emite, com validade contada a partir de agora.
+     * Cupons que passaram da idade máxima são descartados no caminho.
+     * Se a reserva estiver vazia, aguarda até o tempo máximo configurado antes de recusar a requisição.
+     *
+     * @param raridade A raridade do quadrinho para o qual o cupom será emitido.
+     * @return Um cupom já persistido e emitido.
+     * @throws ResponseStatusException com status 503 se não houver cupom disponível dentro do tempo de espera.
+     */
+    public Cupom retirar(Quadrinho.Raridade raridade) {
+        BlockingQueue<Cupom> reserva = reservas.get(raridade);
+        while (true) {
+            Cupom cupom = reserva.poll();
+            if (cupom == null) {
+                esgotamentos.increment();
+                agendarReabastecimento(raridade);
+                cupom = aguardar(reserva);
+            }
+            if (cupom.getDataCriacao().isBefore(LocalDateTime.now().minus(idadeMaxima))) {
+                descartar(cupom);
+                continue;
+            }
+            // Falha apenas se o cupom foi removido do banco nesse meio tempo; segue para o próximo
+            if (cupomLoteService.emitirReservado(cupom)) {
+                retirados.increment();
+                if (reserva.size() < minimo) {
+                    agendarReabastecimento(raridade);
+                }
+                return cupom;
+            }
+        }
+    }
+
+    /**
+     * Retorna o estado atual das reservas e os contadores de uso.
+     *
+     * @return Mapa com o tamanho de cada reserva e os totais de cupons gerados, retirados e esgotamentos.
+     */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        reservas.forEach((raridade, reserva) -> estatisticas.put("disponiveis." + raridade, reserva.size()));
+        estatisticas.put("gerados", gerados.sum());
+        estatisticas.put("retirados", retirados.sum());
+        estatisticas.put("esgotamentos", esgotamentos.sum());
+        estatisticas.put("descartados", descartados.sum());
+        return estatisticas;
+    }
+
+    /**
+     * Interrompe o reabastecedor ao encerrar a aplicação e remove do banco os cupons que ficaram na reserva.
+     * Se a remoção falhar, os cupons são removidos depois por {@link CupomExpurgoService}.
+     */
+    @PreDestroy
+    public void encerrar() {
+        reabastecedor.shutdownNow();
+        reservas.values().forEach(reserva -> {
+            List<Cupom> restantes = new ArrayList<>();
+            reserva.drainTo(restantes);
+            restantes.forEach(cupom -> idsDescartados.add(cupom.getId()));
+        });
+        try {
+            removerDescartados();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao remover os cupons da reserva ao encerrar: {}", e.getMessage());
+        }
+    }
+
+    private Cupom aguardar(BlockingQueue<Cupom> reserva) {
+        Cupom cupom = null;
+        try {
+            cupom = reserva.poll(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (cupom == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Nenhum cupom disponível no momento.");
+        }
+        return cupom;
+    }
+
+    private void descartar(Cupom cupom) {
+        descartados.increment();
+        idsDescartados.add(cupom.getId());
+    }
+
+    private void removerDescartados() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = idsDescartados.poll()) != null) {
+            ids.add(id);
+            if (ids.size() == capacidade) {
+                cupomRepository.removerReservados(ids);
+                ids.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            cupomRepository.removerReservados(ids);
+        }
+    }
+
+    private void agendarReabastecimento(Quadrinho.Raridade raridade) {
+        if (reservas.get(raridade).size() >= minimo || !reabastecendo.get(raridade).compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reabastecedor.execute(() -> reabastecer(raridade));
+        } catch (RuntimeException e) {
+            reabastecendo.get(raridade).set(false);
+            throw e;
+        }
+    }
+
+    private void reabastecer(Quadrinho.Raridade raridade) {
+        BlockingQueue<Cupom> reserva = reservas.get(raridade);
+        try {
+            int faltantes = reserva.remainingCapacity();
+            if (faltantes > 0) {
+                for (Cupom cupom : cupomLoteService.reservarLote(raridade, faltantes)) {
+                    reserva.offer(cupom);
+                }
+                gerados.add(faltantes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reabastecer a reserva de cupons {}: {}", raridade, e.getMessage());
+        } finally {
+            reabastecendo.get(raridade).set(false);
+        }
+    }
+}
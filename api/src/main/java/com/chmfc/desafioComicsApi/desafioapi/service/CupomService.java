@@ -0,0 +1,140 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.CodigoCupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Serviço responsável pela lógica de negócios relacionada aos cupons.
+ * Utiliza {@link CupomRepository} para operações de persistência e {@link CupomPool} para a emissão de cupons.
+ */
+@RequiredArgsConstructor
+@Service
+public class CupomService {
+
+    private final CupomRepository cupomRepository;
+    private final CupomPool cupomPool;
+    private final CupomLoteService cupomLoteService;
+    private final FiltroCupons filtroCupons;
+    private final ListaCupons listaCupons;
+
+    /**
+     * Quantidade de cupons persistidos em cada transação durante a emissão em massa.
+     */
+    @Value("${cupons.lote.tamanho-transacao:10000}")
+    private int tamanhoTransacao;
+
+    /**
+     * Emite um novo cupom com base na raridade do quadrinho.
+     * O cupom é retirado da reserva de cupons já persistidos mantida por {@link CupomPool};
+     * o desconto segue a regra de {@link CupomLoteService#descontoPara(Quadrinho.Raridade)}.
+     * A emissão é registrada no feed de alterações na mesma transação que retira o cupom da reserva.
+     *
+     * @param raridade A raridade do quadrinho para o qual o cupom será gerado.
+     * @return O cupom recém-emitido.
+     */
+    public Cupom gerarCupom(Quadrinho.Raridade raridade) {
+        return cupomPool.retirar(raridade);
+    }
+
+    /**
+     * Emite uma quantidade de cupons para a raridade informada, em blocos persistidos com inserções em lote.
+     * Cada bloco é confirmado em sua própria transação e entregue ao consumidor logo em seguida,
+     * permitindo transmitir os cupons ao cliente enquanto os próximos blocos são gerados.
+     *
+     * @param raridade A raridade do quadrinho para o qual os cupons serão gerados.
+     * @param quantidade A quantidade total de cupons a gerar.
+     * @param consumidor Função que recebe cada cupom já persistido.
+     */
+    public void gerarCupons(Quadrinho.Raridade raridade, int quantidade, Consumer<Cupom> consumidor) {
+        int restantes = quantidade;
+        while (restantes > 0) {
+            int bloco = Math.min(restantes, tamanhoTransacao);
+            cupomLoteService.gerarLote(raridade, bloco).forEach(consumidor);
+            restantes -= bloco;
+        }
+    }
+
+    /**
+     * Recupera uma lista de cupons válidos com base na raridade do quadrinho.
+     * Cupons já expirados não são retornados.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @return Uma lista de cupons válidos que correspondem à raridade fornecida.
+     */
+    @Transactional(readOnly = true)
+    public List<CupomDTO> getCuponsPorRaridade(Quadrinho.Raridade raridade) {
+        return cupomRepository.listarValidosPorRaridade(raridade, LocalDateTime.now());
+    }
+
+    /**
+     * Busca um cupom pelo código informado pelo cliente.
+     * Códigos malformados, com dígito verificador inválido ou recusados pelo {@link FiltroCupons}
+     * são descartados sem consulta ao banco.
+     * Não abre transação própria, para que códigos recusados não ocupem uma conexão.
+     *
+     * @param codigo O código do cupom.
+     * @return O cupom correspondente, se existir.
+     */
+    public Optional<Cupom> buscarPorCodigo(String codigo) {
+        Long chave = CodigoCupom.decodificar(codigo);
+        if (chave != null) {
+            return filtroCupons.podeExistir(chave) ? cupomRepository.findByChave(chave) : Optional.empty();
+        }
+        if (CodigoCupom.isLegado(codigo)) {
+            return filtroCupons.podeExistir(CodigoCupom.chaveLegada(codigo))
+                    ? cupomRepository.findByCodigo(codigo.toLowerCase(Locale.ROOT))
+                    : Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Resgata um uso do cupom com o código informado.
+     * O uso é consumido por um único UPDATE condicional, que verifica a validade e os usos restantes
+     * no próprio banco; o cupom só é lido novamente para montar a resposta ou explicar uma recusa.
+     * Os usos restantes lidos são repassados a {@link ListaCupons}, que atualiza o bloco do cupom na listagem.
+     *
+     * @param codigo O código do cupom.
+     * @return O cupom resgatado, com os usos restantes já atualizados.
+     * @throws ResponseStatusException com status 404 se o cupom não existir,
+     *                                 410 se estiver expirado ou 409 se não tiver mais usos.
+     */
+    public Cupom resgatar(String codigo) {
+        LocalDateTime agora = LocalDateTime.now();
+        Long chave = CodigoCupom.decodificar(codigo);
+        int consumidos;
+        if (chave != null && filtroCupons.podeExistir(chave)) {
+            consumidos = cupomRepository.consumirUsoPorChave(chave, agora);
+        } else if (chave == null && CodigoCupom.isLegado(codigo) && filtroCupons.podeExistir(CodigoCupom.chaveLegada(codigo))) {
+            consumidos = cupomRepository.consumirUsoPorCodigo(codigo.toLowerCase(Locale.ROOT), agora);
+        } else {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cupom não encontrado.");
+        }
+
+        Cupom cupom = buscarPorCodigo(codigo)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cupom não encontrado."));
+        if (consumidos == 0) {
+            if (!cupom.getValidade().isAfter(agora)) {
+                throw new ResponseStatusException(HttpStatus.GONE, "Cupom expirado.");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cupom sem usos restantes.");
+        }
+        listaCupons.atualizar(CupomDTO.de(cupom));
+        return cupom;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,369 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas agregadas do catálogo, mantidas em contadores em memória:
+ * quadrinhos por raridade e por autor, e cupons válidos e desconto médio por raridade.
+ * <p>
+ * Os contadores são carregados ao iniciar a aplicação com uma consulta agregada por tabela e depois atualizados,
+ * após o commit, pelas escritas do {@link QuadrinhoService}, da {@link ImportacaoQuadrinhosService} e do
+ * {@link CupomLoteService}. Os cupons saem da contagem quando a validade passa, com precisão de um minuto:
+ * cada cupom é agrupado pelo minuto seguinte ao da sua validade, e as faixas vencidas são descontadas periodicamente.
+ * Escritas feitas por outras instâncias, pela API reativa ou direto no banco só aparecem na reconciliação periódica,
+ * que recarrega todos os contadores do banco; o mesmo vale para escritas que cruzam uma reconciliação em andamento.
+ * Quando uma escrita não sabe o estado anterior do quadrinho, a reconciliação é antecipada
+ * ({@link #alteracaoNaoContada()}).
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class EstatisticasCatalogo {
+
+    private final QuadrinhoRepository quadrinhoRepository;
+    private final CupomRepository cupomRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile Contadores contadores = new Contadores();
+    private volatile boolean pronto;
+    private volatile LocalDateTime ultimaReconciliacao;
+    private volatile long divergenciaUltimaReconciliacao;
+    private final AtomicBoolean reconciliacaoPendente = new AtomicBoolean();
+
+    /**
+     * Carrega os contadores do banco assim que a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarAoIniciar() {
+        reconciliar();
+    }
+
+    /**
+     * Recarrega todos os contadores do banco e registra quanto os contadores em memória haviam divergido.
+     */
+    @Scheduled(initialDelayString = "${estatisticas.intervalo-reconciliacao:300000}",
+            fixedDelayString = "${estatisticas.intervalo-reconciliacao:300000}")
+    public void reconciliar() {
+        LocalDateTime agora = LocalDateTime.now();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        Contadores novos = transacao.execute(status -> carregar(agora));
+        Contadores anteriores = contadores;
+        contadores = novos;
+        if (pronto) {
+            divergenciaUltimaReconciliacao = anteriores.divergencia(novos);
+            if (divergenciaUltimaReconciliacao != 0) {
+                log.info("Reconciliação das estatísticas: contadores corrigidos em {} unidades", divergenciaUltimaReconciliacao);
+            }
+        }
+        ultimaReconciliacao = agora;
+        pronto = true;
+    }
+
+    /**
+     * Desconta dos cupons válidos as faixas de validade já vencidas.
+     */
+    @Scheduled(fixedDelayString = "${estatisticas.intervalo-expiracao:1000}")
+    public void expirarCupons() {
+        contadores.expirar(LocalDateTime.now());
+    }
+
+    /**
+     * Reconcilia os contadores se alguma escrita confirmada desde a última verificação não pôde ser contada.
+     */
+    @Scheduled(fixedDelayString = "${estatisticas.intervalo-expiracao:1000}")
+    public void reconciliarSePendente() {
+        if (reconciliacaoPendente.compareAndSet(true, false)) {
+            reconciliar();
+        }
+    }
+
+    /**
+     * Conta um quadrinho criado, após o commit da transação corrente.
+     *
+     * @param raridade Raridade do quadrinho.
+     * @param autor Autor do quadrinho.
+     */
+    public void quadrinhoCriado(Quadrinho.Raridade raridade, String autor) {
+        aposConfirmar(() -> contadores.somarQuadrinho(raridade, autor, 1));
+    }
+
+    /**
+     * Desconta um quadrinho removido, após o commit da transação corrente.
+     *
+     * @param raridade Raridade do quadrinho removido.
+     * @param autor Autor do quadrinho removido.
+     */
+    public void quadrinhoRemovido(Quadrinho.Raridade raridade, String autor) {
+        aposConfirmar(() -> contadores.somarQuadrinho(raridade, autor, -1));
+    }
+
+    /**
+     * Move um quadrinho alterado entre as contagens, após o commit da transação corrente.
+     * Nada muda se a raridade e o autor continuam os mesmos.
+     *
+     * @param raridadeAnterior Raridade antes da alteração.
+     * @param autorAnterior Autor antes da alteração.
+     * @param raridade Raridade após a alteração.
+     * @param autor Autor após a alteração.
+     */
+    public void quadrinhoAlterado(Quadrinho.Raridade raridadeAnterior, String autorAnterior,
+                                  Quadrinho.Raridade raridade, String autor) {
+        if (raridadeAnterior == raridade && autorAnterior.equals(autor)) {
+            return;
+        }
+        aposConfirmar(() -> {
+            Contadores atuais = contadores;
+            atuais.somarQuadrinho(raridadeAnterior, autorAnterior, -1);
+            atuais.somarQuadrinho(raridade, autor, 1);
+        });
+    }
+
+    /**
+     * Registra, após o commit da transação corrente, uma escrita de quadrinho cujo estado anterior não é conhecido.
+     * Os contadores não são alterados; a reconciliação é antecipada para a próxima verificação.
+     */
+    public void alteracaoNaoContada() {
+        aposConfirmar(() -> reconciliacaoPendente.set(true));
+    }
+
+    /**
+     * Substitui, após o commit da transação corrente, um conjunto de quadrinhos gravados de uma vez:
+     * os estados anteriores são descontados e os novos são contados.
+     *
+     * @param anteriores Quadrinhos como estavam antes da gravação (apenas os que já existiam).
+     * @param gravados Quadrinhos como ficaram após a gravação.
+     */
+    public void quadrinhosSubstituidos(Collection<QuadrinhoDTO> anteriores, Collection<QuadrinhoDTO> gravados) {
+        aposConfirmar(() -> {
+            Contadores atuais = contadores;
+            anteriores.forEach(anterior -> atuais.somarQuadrinho(anterior.raridade(), anterior.autor(), -1));
+            gravados.forEach(gravado -> atuais.somarQuadrinho(gravado.raridade(), gravado.autor(), 1));
+        });
+    }
+
+    /**
+     * Conta os cupons persistidos, após o commit da transação corrente.
+     *
+     * @param cupons Cupons gravados.
+     */
+    public void cuponsCriados(Collection<Cupom> cupons) {
+        aposConfirmar(() -> {
+            Contadores atuais = contadores;
+            for (Cupom cupom : cupons) {
+                atuais.somarCupom(cupom.getRaridade(), cupom.getValidade(), cupom.getDesconto());
+            }
+        });
+    }
+
+    /**
+     * Retorna o resumo do catálogo: totais de quadrinhos por raridade e cupons válidos e desconto médio por raridade.
+     *
+     * @return Mapa com as estatísticas de quadrinhos, de cupons e da última reconciliação.
+     * @throws ResponseStatusException com status 503 se os contadores ainda não foram carregados.
+     */
+    public Map<String, Object> resumo() {
+        verificarPronto();
+        Contadores atuais = contadores;
+        Map<String, Long> quadrinhosPorRaridade = new LinkedHashMap<>();
+        long totalQuadrinhos = 0;
+        Map<String, Map<String, Object>> cuponsPorRaridade = new LinkedHashMap<>();
+        for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+            long quantidade = atuais.quadrinhosPorRaridade.get(raridade).sum();
+            quadrinhosPorRaridade.put(raridade.name(), quantidade);
+            totalQuadrinhos += quantidade;
+
+            CuponsRaridade cupons = atuais.cupons.get(raridade);
+            long validos = cupons.validos.sum();
+            Map<String, Object> valores = new LinkedHashMap<>();
+            valores.put("validos", validos);
+            valores.put("descontoMedio", validos > 0 ? cupons.descontos.sum() / validos : 0.0);
+            cuponsPorRaridade.put(raridade.name(), valores);
+        }
+
+        Map<String, Object> quadrinhos = new LinkedHashMap<>();
+        quadrinhos.put("total", totalQuadrinhos);
+        quadrinhos.put("porRaridade", quadrinhosPorRaridade);
+        quadrinhos.put("autores", atuais.quadrinhosPorAutor.values().stream().filter(contagem -> contagem.sum() > 0).count());
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("quadrinhos", quadrinhos);
+        resumo.put("cupons", cuponsPorRaridade);
+        resumo.put("ultimaReconciliacao", ultimaReconciliacao);
+        resumo.put("divergenciaUltimaReconciliacao", divergenciaUltimaReconciliacao);
+        return resumo;
+    }
+
+    /**
+     * Retorna a quantidade de quadrinhos de cada autor, em ordem alfabética.
+     *
+     * @return Mapa do autor para a quantidade de quadrinhos; autores sem quadrinhos não aparecem.
+     * @throws ResponseStatusException com status 503 se os contadores ainda não foram carregados.
+     */
+    public Map<String, Long> quadrinhosPorAutor() {
+        verificarPronto();
+        Map<String, Long> porAutor = new TreeMap<>();
+        contadores.quadrinhosPorAutor.forEach((autor, contagem) -> {
+            long quantidade = contagem.sum();
+            if (quantidade > 0) {
+                porAutor.put(autor, quantidade);
+            }
+        });
+        return porAutor;
+    }
+
+    /**
+     * Retorna a quantidade de quadrinhos de um autor.
+     *
+     * @param autor Nome do autor.
+     * @return Quantidade de quadrinhos do autor, ou 0 se ele não tiver nenhum.
+     * @throws ResponseStatusException com status 503 se os contadores ainda não foram carregados.
+     */
+    public long quadrinhosDoAutor(String autor) {
+        verificarPronto();
+        LongAdder contagem = contadores.quadrinhosPorAutor.get(autor);
+        return contagem == null ? 0 : Math.max(0, contagem.sum());
+    }
+
+    private void verificarPronto() {
+        if (!pronto) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Estatísticas em carga; tente novamente.");
+        }
+    }
+
+    /**
+     * Lê os contadores do banco: uma consulta agregada para os quadrinhos e outra para os cupons válidos.
+     */
+    private Contadores carregar(LocalDateTime agora) {
+        Contadores novos = new Contadores();
+        for (QuadrinhoRepository.ContagemQuadrinhos linha : quadrinhoRepository.contarPorRaridadeEAutor()) {
+            novos.somarQuadrinho(linha.getRaridade(), linha.getAutor(), linha.getQuantidade());
+        }
+        for (CupomRepository.FaixaValidade faixa : cupomRepository.contarValidosPorMinuto(agora)) {
+            LocalDateTime minuto = LocalDateTime.of(faixa.getAno(), faixa.getMes(), faixa.getDia(), faixa.getHora(), faixa.getMinuto());
+            novos.somarCupons(faixa.getRaridade(), minuto.plusMinutes(1), faixa.getQuantidade(), faixa.getDescontos());
+        }
+        return novos;
+    }
+
+    private void aposConfirmar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    /**
+     * Conjunto de contadores; a reconciliação troca o conjunto inteiro de uma vez.
+     */
+    private static final class Contadores {
+
+        private final Map<Quadrinho.Raridade, LongAdder> quadrinhosPorRaridade = new EnumMap<>(Quadrinho.Raridade.class);
+        private final ConcurrentHashMap<String, LongAdder> quadrinhosPorAutor = new ConcurrentHashMap<>();
+        private final Map<Quadrinho.Raridade, CuponsRaridade> cupons = new EnumMap<>(Quadrinho.Raridade.class);
+
+        private Contadores() {
+            for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+                quadrinhosPorRaridade.put(raridade, new LongAdder());
+                cupons.put(raridade, new CuponsRaridade());
+            }
+        }
+
+        private void somarQuadrinho(Quadrinho.Raridade raridade, String autor, long quantidade) {
+            quadrinhosPorRaridade.get(raridade).add(quantidade);
+            quadrinhosPorAutor.computeIfAbsent(autor, chave -> new LongAdder()).add(quantidade);
+        }
+
+        private void somarCupom(Quadrinho.Raridade raridade, LocalDateTime validade, double desconto) {
+            somarCupons(raridade, validade.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1), 1, desconto);
+        }
+
+        private void somarCupons(Quadrinho.Raridade raridade, LocalDateTime expiracao, long quantidade, double descontos) {
+            CuponsRaridade contagem = cupons.get(raridade);
+            Faixa faixa = contagem.expiracoes.computeIfAbsent(expiracao, chave -> new Faixa());
+            faixa.quantidade.add(quantidade);
+            faixa.descontos.add(descontos);
+            contagem.validos.add(quantidade);
+            contagem.descontos.add(descontos);
+        }
+
+        private void expirar(LocalDateTime agora) {
+            for (CuponsRaridade contagem : cupons.values()) {
+                ConcurrentNavigableMap<LocalDateTime, Faixa> vencidas = contagem.expiracoes.headMap(agora, true);
+                for (Map.Entry<LocalDateTime, Faixa> entrada : vencidas.entrySet()) {
+                    if (contagem.expiracoes.remove(entrada.getKey(), entrada.getValue())) {
+                        contagem.validos.add(-entrada.getValue().quantidade.sum());
+                        contagem.descontos.add(-entrada.getValue().descontos.sum());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Soma das diferenças absolutas entre estes contadores e os recarregados do banco.
+         */
+        private long divergencia(Contadores banco) {
+            long divergencia = 0;
+            for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+                divergencia += Math.abs(quadrinhosPorRaridade.get(raridade).sum() - banco.quadrinhosPorRaridade.get(raridade).sum());
+                divergencia += Math.abs(cupons.get(raridade).validos.sum() - banco.cupons.get(raridade).validos.sum());
+            }
+            return divergencia;
+        }
+    }
+
+    /**
+     * Cupons válidos de uma raridade, com as faixas de expiração ainda não vencidas.
+     */
+    private static final class CuponsRaridade {
+
+        private final LongAdder validos = new LongAdder();
+        private final DoubleAdder descontos = new DoubleAdder();
+        private final ConcurrentSkipListMap<LocalDateTime, Faixa> expiracoes = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Cupons que saem da contagem no mesmo minuto.
+     */
+    private static final class Faixa {
+
+        private final LongAdder quantidade = new LongAdder();
+        private final DoubleAdder descontos = new DoubleAdder();
+    }
+}
@@ -0,0 +1,526 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.EventoAlteracao;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.LoteAlteracoes;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Feed das alterações registradas por {@link RegistroAlteracoes}, entregue por long-poll ou por server-sent events.
+ * Uma única thread lê as alterações novas do banco e as distribui em lote a todos os consumidores conectados,
+ * de modo que o custo de leitura não cresce com a quantidade de consumidores; as alterações mais recentes
+ * ficam em memória, e apenas consumidores muito atrasados voltam a ler do banco. Componentes da própria instância
+ * acompanham as alterações por um {@link Ouvinte}, sem consultar o banco.
+ * Cada assinante de server-sent events tem a própria fila, limitada, esvaziada por uma tarefa de envio própria;
+ * assim, uma conexão lenta não atrasa as demais, e o assinante cuja fila enche é desconectado para retomar
+ * pelo {@code Last-Event-ID}.
+ * <p>
+ * As sequências vêm de uma coluna auto incremento, que pode ser confirmada fora de ordem por transações concorrentes.
+ * Por isso, uma lacuna na sequência interrompe a entrega até ser preenchida ou até ter sido vista há mais de
+ * {@code eventos.feed.janela-lacunas}; a partir daí, é considerada uma transação desfeita e ignorada.
+ * A janela conta a partir da primeira leitura em que a lacuna apareceu, e não da data de criação das alterações,
+ * para que uma transação demorada entre a inserção e o commit não seja ignorada antes da hora.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class FeedAlteracoes {
+
+    private static final String SELECIONAR =
+            "select id, tipo, agregado_id, dados, data_criacao from eventos_alteracao where id > ? order by id limit ?";
+    private static final String SELECIONAR_ATE =
+            "select id, tipo, agregado_id, dados, data_criacao from eventos_alteracao where id > ? and id <= ? order by id limit ?";
+    private static final RowMapper<EventoAlteracao> MAPEADOR = (rs, linha) -> new EventoAlteracao(
+            rs.getLong("id"), rs.getString("tipo"), rs.getLong("agregado_id"), rs.getString("dados"),
+            rs.getTimestamp("data_criacao").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Quantidade máxima de alterações lidas do banco, entregues em uma resposta ou enviadas a um assinante por vez.
+     */
+    @Value("${eventos.feed.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    /**
+     * Quantidade de alterações recentes mantidas em memória.
+     */
+    @Value("${eventos.feed.capacidade:10000}")
+    private int capacidade;
+
+    /**
+     * Intervalo máximo entre duas leituras do banco; alterações confirmadas nesta instância antecipam a leitura.
+     */
+    @Value("${eventos.feed.intervalo:500ms}")
+    private Duration intervalo;
+
+    /**
+     * Tempo após o qual uma lacuna na sequência é considerada uma transação desfeita.
+     */
+    @Value("${eventos.feed.janela-lacunas:5s}")
+    private Duration janelaLacunas;
+
+    /**
+     * Tempo máximo de espera de uma requisição de long-poll.
+     */
+    @Value("${eventos.feed.espera-maxima:30s}")
+    private Duration esperaMaxima;
+
+    /**
+     * Tempo máximo de uma conexão de server-sent events; o cliente reconecta informando o último id recebido.
+     */
+    @Value("${eventos.feed.duracao-conexao:30m}")
+    private Duration duracaoConexao;
+
+    /**
+     * Intervalo sem alterações após o qual os assinantes recebem um comentário, para manter a conexão aberta.
+     */
+    @Value("${eventos.feed.intervalo-heartbeat:15s}")
+    private Duration intervaloHeartbeat;
+
+    /**
+     * Quantidade máxima de alterações aguardando envio a um assinante.
+     */
+    @Value("${eventos.feed.fila-assinante:1000}")
+    private int filaAssinante;
+
+    private final ConcurrentSkipListMap<Long, EventoAlteracao> recentes = new ConcurrentSkipListMap<>();
+    private final Queue<Espera> esperas = new ConcurrentLinkedQueue<>();
+    private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+    private final List<Ouvinte> ouvintes = new CopyOnWriteArrayList<>();
+    private final LongAdder assinantesDesconectados = new LongAdder();
+    private final LongAdder lacunasIgnoradas = new LongAdder();
+    private final AtomicInteger contadorEnvios = new AtomicInteger();
+    private final ExecutorService envios = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "feed-alteracoes-envio-" + contadorEnvios.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object sinal = new Object();
+    private volatile boolean pronto;
+    private volatile boolean encerrado;
+    private volatile boolean sinalizado;
+
+    /**
+     * Sequência da última alteração lida do banco; as alterações até ela, a partir de {@link #inicioMemoria}, estão em memória.
+     */
+    private volatile long ultimaSequencia;
+    private volatile long inicioMemoria;
+    private long ultimoHeartbeat = System.nanoTime();
+
+    /**
+     * Lacunas ainda não preenchidas, pela sequência da alteração que vem logo depois delas,
+     * com o instante (System.nanoTime) em que cada uma foi vista pela primeira vez. Usado só pela thread de leitura.
+     */
+    private final NavigableMap<Long, Long> lacunas = new TreeMap<>();
+
+    /**
+     * Inicia a leitura do feed a partir da última alteração registrada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        Long maior = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from eventos_alteracao", Long.class);
+        ultimaSequencia = maior == null ? 0 : maior;
+        inicioMemoria = ultimaSequencia;
+        notificar(ouvinte -> ouvinte.publicadas(new LoteAlteracoes(List.of(), ultimaSequencia)));
+        pronto = true;
+        Thread leitor = new Thread(this::executar, "feed-alteracoes");
+        leitor.setDaemon(true);
+        leitor.start();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        encerrado = true;
+        sinalizar();
+        assinantes.forEach(assinante -> assinante.emissor.complete());
+        envios.shutdownNow();
+    }
+
+    /**
+     * Antecipa a próxima leitura do banco. Chamado após o commit de transações que registraram alterações.
+     */
+    public void sinalizar() {
+        synchronized (sinal) {
+            sinalizado = true;
+            sinal.notifyAll();
+        }
+    }
+
+    /**
+     * Informa as alterações confirmadas por uma transação desta instância, antes de serem lidas do banco,
+     * e antecipa a próxima leitura.
+     *
+     * @param eventos Alterações registradas pela transação, com as sequências geradas pelo banco.
+     */
+    public void confirmadas(List<EventoAlteracao> eventos) {
+        notificar(ouvinte -> ouvinte.confirmadas(eventos));
+        sinalizar();
+    }
+
+    /**
+     * Registra um ouvinte das alterações publicadas pelo feed e das confirmadas nesta instância.
+     *
+     * @param ouvinte Ouvinte a registrar.
+     */
+    public void acompanhar(Ouvinte ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    /**
+     * Retorna as alterações posteriores à sequência informada, sem esperar.
+     *
+     * @param desde Sequência da última alteração já recebida; 0 para começar do início.
+     * @param limite Quantidade máxima de alterações.
+     * @return Lote de alterações e a sequência para continuar.
+     */
+    public LoteAlteracoes consultar(long desde, int limite) {
+        int tamanho = Math.max(1, Math.min(limite, tamanhoLote));
+        List<EventoAlteracao> eventos;
+        if (desde >= inicioMemoria) {
+            eventos = new ArrayList<>(Math.min(tamanho, recentes.size()));
+            for (EventoAlteracao evento : recentes.tailMap(desde, false).values()) {
+                if (eventos.size() == tamanho) {
+                    break;
+                }
+                eventos.add(evento);
+            }
+        } else {
+            eventos = ler(desde, tamanho);
+        }
+        long proxima = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).sequencia();
+        return new LoteAlteracoes(eventos, proxima);
+    }
+
+    /**
+     * Retorna as alterações posteriores à sequência informada, esperando até a chegada de alguma ou até o tempo informado.
+     *
+     * @param desde Sequência da última alteração já recebida.
+     * @param limite Quantidade máxima de alterações.
+     * @param espera Tempo máximo de espera, limitado por {@code eventos.feed.espera-maxima}.
+     * @return Resultado que é preenchido com as alterações, ou com um lote vazio se o tempo acabar.
+     */
+    public DeferredResult<LoteAlteracoes> aguardar(long desde, int limite, Duration espera) {
+        verificarPronto();
+        long tempo = Math.max(0, Math.min(espera.toMillis(), esperaMaxima.toMillis()));
+        LoteAlteracoes vazio = new LoteAlteracoes(List.of(), desde);
+        DeferredResult<LoteAlteracoes> resultado = new DeferredResult<>(tempo == 0 ? null : tempo, () -> vazio);
+        LoteAlteracoes lote = consultar(desde, limite);
+        if (!lote.eventos().isEmpty() || tempo == 0) {
+            resultado.setResult(lote);
+            return resultado;
+        }
+        Espera registrada = new Espera(desde, limite, resultado);
+        esperas.add(registrada);
+        resultado.onCompletion(() -> esperas.remove(registrada));
+        // Alterações lidas entre a consulta e o registro da espera não seriam entregues até a próxima leitura
+        if (ultimaSequencia > desde) {
+            resultado.setResult(consultar(desde, limite));
+        }
+        return resultado;
+    }
+
+    /**
+     * Abre uma conexão de server-sent events que recebe as alterações posteriores à sequência informada.
+     * Cada evento tem como id a sequência da alteração e como nome o tipo da alteração.
+     *
+     * @param desde Sequência da última alteração já recebida, ou null para receber apenas as próximas.
+     * @return Emissor de eventos associado à conexão.
+     */
+    public SseEmitter assinar(Long desde) {
+        verificarPronto();
+        SseEmitter emissor = new SseEmitter(duracaoConexao.toMillis());
+        Assinante assinante = new Assinante(emissor, desde == null ? ultimaSequencia : desde, filaAssinante);
+        emissor.onCompletion(() -> assinantes.remove(assinante));
+        emissor.onTimeout(emissor::complete);
+        emissor.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        sinalizar();
+        return emissor;
+    }
+
+    /**
+     * Retorna a situação do feed.
+     *
+     * @return Mapa com a última sequência lida, as alterações em memória, os consumidores conectados,
+     * os assinantes desconectados por fila cheia e as lacunas ignoradas.
+     */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("ultimaSequencia", ultimaSequencia);
+        estatisticas.put("inicioMemoria", inicioMemoria);
+        estatisticas.put("assinantes", assinantes.size());
+        estatisticas.put("esperas", esperas.size());
+        estatisticas.put("assinantesDesconectados", assinantesDesconectados.sum());
+        estatisticas.put("lacunasIgnoradas", lacunasIgnoradas.sum());
+        return estatisticas;
+    }
+
+    private void verificarPronto() {
+        if (!pronto) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Feed de alterações em inicialização; tente novamente.");
+        }
+    }
+
+    private void executar() {
+        while (!encerrado) {
+            boolean pendente = false;
+            try {
+                pendente = publicar();
+                pendente |= distribuir();
+                atenderEsperas();
+            } catch (RuntimeException e) {
+                log.warn("Falha ao ler o feed de alterações: {}", e.getMessage());
+            }
+            if (!pendente) {
+                esperarSinal();
+            }
+        }
+    }
+
+    /**
+     * Lê do banco as alterações posteriores à última lida e as guarda em memória.
+     *
+     * @return true se o lote lido estava cheio, indicando que pode haver mais alterações a ler.
+     */
+    private boolean publicar() {
+        List<EventoAlteracao> lidos = jdbcTemplate.query(SELECIONAR, MAPEADOR, ultimaSequencia, tamanhoLote);
+        List<EventoAlteracao> lote = ateLacunaRecente(lidos);
+        for (EventoAlteracao evento : lote) {
+            recentes.put(evento.sequencia(), evento);
+            ultimaSequencia = evento.sequencia();
+        }
+        if (!lote.isEmpty()) {
+            LoteAlteracoes publicado = new LoteAlteracoes(lote, ultimaSequencia);
+            notificar(ouvinte -> ouvinte.publicadas(publicado));
+        }
+        lacunas.headMap(ultimaSequencia, true).clear();
+        while (recentes.size() > capacidade) {
+            inicioMemoria = recentes.pollFirstEntry().getKey();
+        }
+        return lote.size() == tamanhoLote;
+    }
+
+    /**
+     * Retorna as alterações lidas até a primeira lacuna vista há menos de {@code eventos.feed.janela-lacunas}.
+     * Lacunas mais antigas que isso são consideradas transações desfeitas e deixam de segurar a entrega.
+     */
+    private List<EventoAlteracao> ateLacunaRecente(List<EventoAlteracao> lidos) {
+        long agora = System.nanoTime();
+        long anterior = ultimaSequencia;
+        for (int i = 0; i < lidos.size(); i++) {
+            long sequencia = lidos.get(i).sequencia();
+            if (sequencia != anterior + 1) {
+                long vistaEm = lacunas.computeIfAbsent(sequencia, s -> agora);
+                if (agora - vistaEm < janelaLacunas.toNanos()) {
+                    return lidos.subList(0, i);
+                }
+                lacunasIgnoradas.increment();
+                log.warn("Sequências {} a {} do feed de alterações ignoradas após {} ms",
+                        anterior + 1, sequencia - 1, janelaLacunas.toMillis());
+            }
+            anterior = sequencia;
+        }
+        return lidos;
+    }
+
+    /**
+     * Coloca na fila de cada assinante até um lote das alterações que ele ainda não recebeu e agenda o envio.
+     * O envio acontece fora desta thread. Um assinante com a fila cheia fica para a próxima rodada; se, nesse estado,
+     * ficar para trás das alterações em memória, é desconectado e retoma, ao reconectar, a partir do último evento recebido.
+     *
+     * @return true se algum assinante ainda tem alterações a receber.
+     */
+    private boolean distribuir() {
+        boolean heartbeat = System.nanoTime() - ultimoHeartbeat > intervaloHeartbeat.toNanos();
+        if (heartbeat) {
+            ultimoHeartbeat = System.nanoTime();
+        }
+        boolean pendente = false;
+        for (Assinante assinante : assinantes) {
+            int espaco = assinante.fila.remainingCapacity();
+            if (espaco == 0) {
+                if (assinante.cursor < inicioMemoria) {
+                    desconectar(assinante);
+                }
+                continue;
+            }
+            LoteAlteracoes lote = consultar(assinante.cursor, Math.min(tamanhoLote, espaco));
+            for (EventoAlteracao evento : lote.eventos()) {
+                assinante.fila.add(evento);
+                assinante.cursor = evento.sequencia();
+            }
+            if (lote.eventos().isEmpty() && heartbeat) {
+                assinante.heartbeat = true;
+            }
+            agendarEnvio(assinante);
+            pendente |= assinante.cursor < ultimaSequencia && assinante.fila.remainingCapacity() > 0;
+        }
+        return pendente;
+    }
+
+    private void agendarEnvio(Assinante assinante) {
+        if ((!assinante.fila.isEmpty() || assinante.heartbeat) && assinante.enviando.compareAndSet(false, true)) {
+            envios.execute(() -> enviar(assinante));
+        }
+    }
+
+    /**
+     * Esvazia a fila de um assinante. Só uma tarefa de envio por assinante executa de cada vez;
+     * ao terminar, antecipa a próxima rodada se o assinante ainda tiver alterações a receber.
+     */
+    private void enviar(Assinante assinante) {
+        try {
+            EventoAlteracao evento;
+            while ((evento = assinante.fila.poll()) != null) {
+                assinante.emissor.send(SseEmitter.event()
+                        .id(String.valueOf(evento.sequencia()))
+                        .name(evento.tipo())
+                        .data(evento, MediaType.APPLICATION_JSON));
+            }
+            if (assinante.heartbeat) {
+                assinante.heartbeat = false;
+                assinante.emissor.send(SseEmitter.event().comment("ativo"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            assinantes.remove(assinante);
+            assinante.emissor.completeWithError(e);
+            return;
+        } finally {
+            assinante.enviando.set(false);
+        }
+        if (assinante.cursor < ultimaSequencia) {
+            sinalizar();
+        }
+        agendarEnvio(assinante);
+    }
+
+    private void desconectar(Assinante assinante) {
+        assinantes.remove(assinante);
+        assinantesDesconectados.increment();
+        log.debug("Assinante do feed de alterações desconectado com a fila cheia na sequência {}", assinante.cursor);
+        assinante.emissor.complete();
+    }
+
+    private void notificar(Consumer<Ouvinte> notificacao) {
+        for (Ouvinte ouvinte : ouvintes) {
+            try {
+                notificacao.accept(ouvinte);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao notificar um ouvinte do feed de alterações: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void atenderEsperas() {
+        for (Espera espera : esperas) {
+            if (ultimaSequencia > espera.desde) {
+                LoteAlteracoes lote = consultar(espera.desde, espera.limite);
+                if (!lote.eventos().isEmpty()) {
+                    espera.resultado.setResult(lote);
+                }
+            }
+        }
+    }
+
+    private void esperarSinal() {
+        synchronized (sinal) {
+            if (!sinalizado && !encerrado) {
+                try {
+                    TimeUnit.MILLISECONDS.timedWait(sinal, intervalo.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    encerrado = true;
+                }
+            }
+            sinalizado = false;
+        }
+    }
+
+    /**
+     * Lê do banco as alterações posteriores à sequência informada, para consumidores que ficaram para trás
+     * da memória. A leitura vai só até a última sequência publicada, cujas lacunas já foram avaliadas.
+     */
+    private List<EventoAlteracao> ler(long desde, int limite) {
+        return jdbcTemplate.query(SELECIONAR_ATE, MAPEADOR, desde, ultimaSequencia, limite);
+    }
+
+    /**
+     * Recebe as alterações do feed dentro da própria instância.
+     */
+    public interface Ouvinte {
+
+        /**
+         * Recebe, na thread de leitura e em ordem de sequência, as alterações publicadas pelo feed.
+         * A primeira chamada, no início da leitura, não traz alterações, apenas a sequência a partir da qual o feed começa.
+         *
+         * @param lote Alterações publicadas e a última sequência lida.
+         */
+        void publicadas(LoteAlteracoes lote);
+
+        /**
+         * Recebe, logo após o commit, as alterações registradas por esta instância, que ainda podem não ter sido publicadas.
+         *
+         * @param eventos Alterações confirmadas.
+         */
+        void confirmadas(List<EventoAlteracao> eventos);
+    }
+
+    /**
+     * Requisição de long-poll aguardando alterações posteriores a {@code desde}.
+     */
+    private record Espera(long desde, int limite, DeferredResult<LoteAlteracoes> resultado) {
+    }
+
+    /**
+     * Conexão de server-sent events, com a fila de alterações a enviar e a sequência da última alteração colocada nela.
+     */
+    private static final class Assinante {
+
+        private final SseEmitter emissor;
+        private final BlockingQueue<EventoAlteracao> fila;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean heartbeat;
+        private volatile long cursor;
+
+        private Assinante(SseEmitter emissor, long cursor, int capacidadeFila) {
+            this.emissor = emissor;
+            this.cursor = cursor;
+            this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre chaves de 64 bits, seguro para uso concorrente.
+ * Responde com certeza quando uma chave nunca foi adicionada;
+ * quando responde que a chave pode existir, há uma pequena probabilidade de falso positivo.
+ */
+class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * Cria um filtro dimensionado para a quantidade esperada de chaves e a taxa de falso positivo desejada.
+     *
+     * @param capacidadeEsperada Quantidade de chaves que se espera adicionar.
+     * @param taxaFalsoPositivo Probabilidade aceitável de falso positivo, entre 0 e 1.
+     */
+    public FiltroBloom(long capacidadeEsperada, double taxaFalsoPositivo) {
+        long n = Math.max(1, capacidadeEsperada);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.quantidadeBits = (long) palavras * 64;
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / n * Math.log(2)));
+    }
+
+    /**
+     * Adiciona uma chave ao filtro.
+     *
+     * @param chave A chave a adicionar.
+     */
+    public void adicionar(long chave) {
+        long h1 = misturar(chave);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            long mascara = 1L << posicao;
+            int palavra = (int) (posicao >>> 6);
+            if ((bits.get(palavra) & mascara) == 0) {
+                bits.getAndAccumulate(palavra, mascara, (atual, m) -> atual | m);
+            }
+        }
+    }
+
+    /**
+     * Verifica se a chave pode ter sido adicionada ao filtro.
+     *
+     * @param chave A chave a verificar.
+     * @return false se a chave certamente nunca foi adicionada; true se ela pode ter sido.
+     */
+    public boolean podeConter(long chave) {
+        long h1 = misturar(chave);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Função de mistura do SplitMix64, usada para espalhar chaves com padrões de bits próximos.
+     */
+    private static long misturar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
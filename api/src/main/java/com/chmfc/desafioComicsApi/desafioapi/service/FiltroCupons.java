@@ -0,0 +1,151 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.CodigoCupom;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Filtro em memória dos códigos de cupom existentes.
+ * Permite recusar códigos inexistentes sem consultar o banco, reduzindo a carga gerada por tentativas de adivinhação.
+ * O filtro é carregado do banco ao iniciar a aplicação, recebe os cupons gerados nesta instância
+ * e é sincronizado periodicamente com os cupons criados por outras instâncias.
+ * Enquanto a carga inicial não termina, todas as consultas seguem para o banco.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class FiltroCupons {
+
+    private final CupomRepository cupomRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Quantidade de cupons para a qual o filtro é dimensionado.
+     */
+    @Value("${cupons.filtro.capacidade-esperada:10000000}")
+    private long capacidadeEsperada;
+
+    /**
+     * Probabilidade aceitável de um código inexistente ser encaminhado ao banco.
+     */
+    @Value("${cupons.filtro.taxa-falso-positivo:0.01}")
+    private double taxaFalsoPositivo;
+
+    /**
+     * Margem de tempo revisitada a cada sincronização, cobrindo transações ainda não confirmadas na anterior.
+     */
+    @Value("${cupons.filtro.margem-sincronizacao:1m}")
+    private Duration margemSincronizacao;
+
+    private FiltroBloom filtro;
+    private volatile boolean pronto;
+    private volatile LocalDateTime ultimaSincronizacao;
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder recusas = new LongAdder();
+
+    /**
+     * Cria o filtro vazio com o dimensionamento configurado.
+     */
+    @PostConstruct
+    public void inicializar() {
+        filtro = new FiltroBloom(capacidadeEsperada, taxaFalsoPositivo);
+    }
+
+    /**
+     * Carrega os códigos existentes no banco assim que a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarAoIniciar() {
+        Thread carga = new Thread(this::carregar, "filtro-cupons");
+        carga.setDaemon(true);
+        carga.start();
+    }
+
+    /**
+     * Registra a chave de um cupom recém-criado.
+     *
+     * @param chave A chave do cupom.
+     */
+    public void adicionar(long chave) {
+        filtro.adicionar(chave);
+    }
+
+    /**
+     * Verifica se um cupom com a chave informada pode existir.
+     *
+     * @param chave A chave do cupom.
+     * @return false se o cupom certamente não existe; true se ele pode existir.
+     */
+    public boolean podeExistir(long chave) {
+        consultas.increment();
+        if (!pronto || filtro.podeConter(chave)) {
+            return true;
+        }
+        recusas.increment();
+        return false;
+    }
+
+    /**
+     * Adiciona ao filtro os cupons criados por outras instâncias desde a última sincronização.
+     */
+    @Scheduled(fixedDelayString = "${cupons.filtro.intervalo-sincronizacao:5000}")
+    public void sincronizar() {
+        if (!pronto) {
+            return;
+        }
+        LocalDateTime inicio = LocalDateTime.now();
+        LocalDateTime desde = ultimaSincronizacao.minus(margemSincronizacao);
+        cupomRepository.findChavesCriadasDesde(desde).forEach(filtro::adicionar);
+        ultimaSincronizacao = inicio;
+    }
+
+    /**
+     * Retorna os contadores de uso do filtro.
+     *
+     * @return Mapa com a situação da carga e os totais de consultas e de códigos recusados sem acesso ao banco.
+     */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("pronto", pronto);
+        estatisticas.put("consultas", consultas.sum());
+        estatisticas.put("recusas", recusas.sum());
+        return estatisticas;
+    }
+
+    private void carregar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        try {
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            transacao.setReadOnly(true);
+            transacao.executeWithoutResult(status -> {
+                try (Stream<Long> chaves = cupomRepository.streamChaves()) {
+                    chaves.forEach(filtro::adicionar);
+                }
+                try (Stream<String> codigos = cupomRepository.streamCodigosLegados()) {
+                    codigos.filter(CodigoCupom::isLegado).forEach(codigo -> filtro.adicionar(CodigoCupom.chaveLegada(codigo)));
+                }
+            });
+            ultimaSincronizacao = inicio;
+            pronto = true;
+            log.info("Filtro de cupons carregado em {} ms", Duration.between(inicio, LocalDateTime.now()).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao carregar o filtro de cupons; as consultas seguirão para o banco: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.config.CacheConfig;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serviço de importação de catálogos de quadrinhos em massa, a partir de arquivos CSV ou NDJSON.
+ * O arquivo é lido linha a linha, sem ser carregado inteiro em memória, e gravado em blocos:
+ * cada bloco é deduplicado pelo nome e enviado em um único lote JDBC de
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE}, em sua própria transação.
+ * Quadrinhos já existentes (mesmo nome) têm autor e raridade atualizados.
+ */
+@RequiredArgsConstructor
+@Service
+public class ImportacaoQuadrinhosService {
+
+    private static final String INSERIR_OU_ATUALIZAR =
+            "insert into quadrinhos (nome, autor, raridade, data_criacao, data_modificacao) values (?, ?, ?, ?, ?) "
+                    + "on duplicate key update autor = values(autor), raridade = values(raridade), "
+                    + "data_modificacao = values(data_modificacao)";
+    private static final int TAMANHO_MAXIMO_TEXTO = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuadrinhoRepository quadrinhoRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BuscaQuadrinhos buscaQuadrinhos;
+    private final RegistroAlteracoes registroAlteracoes;
+    private final EstatisticasCatalogo estatisticasCatalogo;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Quantidade de quadrinhos gravados em cada bloco (lote JDBC e transação).
+     */
+    @Value("${quadrinhos.importacao.tamanho-bloco:1000}")
+    private int tamanhoBloco;
+
+    /**
+     * Quantidade máxima de erros detalhados no relatório; os demais são apenas contados.
+     */
+    @Value("${quadrinhos.importacao.maximo-erros:1000}")
+    private int maximoErros;
+
+    /**
+     * Formatos de arquivo aceitos na importação.
+     */
+    public enum Formato {
+        /**
+         * CSV separado por vírgulas, com cabeçalho contendo as colunas {@code nome}, {@code autor} e {@code raridade}.
+         */
+        CSV,
+        /**
+         * Um objeto JSON por linha, com os campos {@code nome}, {@code autor} e {@code raridade}.
+         */
+        NDJSON
+    }
+
+    /**
+     * Linha válida do arquivo, pronta para gravação.
+     */
+    private record Linha(long numero, String nome, String autor, Quadrinho.Raridade raridade) {
+    }
+
+    /**
+     * Importa os quadrinhos lidos da entrada.
+     * Linhas inválidas são recusadas individualmente, sem interromper a importação.
+     * Se um bloco falhar no banco, suas linhas são regravadas uma a uma para identificar as que causaram o erro.
+     *
+     * @param entrada Conteúdo do arquivo, em UTF-8.
+     * @param formato Formato do arquivo.
+     * @return Relatório com os totais e os erros por linha.
+     * @throws IOException se não for possível ler a entrada.
+     * @throws ResponseStatusException com status 400 se o cabeçalho do CSV não tiver as colunas obrigatórias.
+     */
+    public RelatorioImportacao importar(InputStream entrada, Formato formato) throws IOException {
+        Progresso progresso = new Progresso();
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        Map<String, Linha> bloco = new LinkedHashMap<>();
+        int[] colunas = null;
+        long numero = 0;
+        String texto;
+        while ((texto = leitor.readLine()) != null) {
+            numero++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            if (formato == Formato.CSV && colunas == null) {
+                colunas = lerCabecalho(texto);
+                continue;
+            }
+            progresso.linhasLidas++;
+            try {
+                Linha linha = formato == Formato.CSV ? lerCsv(numero, texto, colunas) : lerNdjson(numero, texto);
+                if (bloco.put(linha.nome(), linha) != null) {
+                    progresso.duplicadas++;
+                }
+            } catch (IllegalArgumentException e) {
+                progresso.rejeitar(numero, e.getMessage());
+            }
+            if (bloco.size() >= tamanhoBloco) {
+                gravar(bloco.values(), progresso);
+                bloco.clear();
+            }
+        }
+        gravar(bloco.values(), progresso);
+        return progresso.relatorio();
+    }
+
+    private void gravar(Collection<Linha> linhas, Progresso progresso) {
+        if (linhas.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        try {
+            transacao.executeWithoutResult(status -> gravarLote(linhas));
+            progresso.gravadas += linhas.size();
+        } catch (DataAccessException e) {
+            for (Linha linha : linhas) {
+                try {
+                    transacao.executeWithoutResult(status -> gravarLote(List.of(linha)));
+                    progresso.gravadas++;
+                } catch (DataAccessException erro) {
+                    progresso.rejeitar(linha.numero(), erro.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava as linhas em um único lote JDBC, registra-as no feed de alterações e, após o commit,
+     * atualiza o índice de busca, os caches e as estatísticas.
+     * Os quadrinhos já existentes são lidos antes da gravação, para que as estatísticas descontem a raridade
+     * e o autor anteriores.
+     */
+    private void gravarLote(Collection<Linha> linhas) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> parametros = new ArrayList<>(linhas.size());
+        List<String> nomes = new ArrayList<>(linhas.size());
+        for (Linha linha : linhas) {
+            parametros.add(new Object[]{linha.nome(), linha.autor(), linha.raridade().name(), agora, agora});
+            nomes.add(linha.nome());
+        }
+        List<QuadrinhoDTO> anteriores = quadrinhoRepository.listarPorNomes(nomes);
+        jdbcTemplate.batchUpdate(INSERIR_OU_ATUALIZAR, parametros);
+
+        // Os ids não são retornados pelo upsert em lote; os quadrinhos gravados são relidos pelo índice único do nome
+        List<QuadrinhoDTO> gravados = quadrinhoRepository.listarPorNomes(nomes);
+        estatisticasCatalogo.quadrinhosSubstituidos(anteriores, gravados);
+        gravados.forEach(buscaQuadrinhos::indexar);
+        registroAlteracoes.registrarTodos(RegistroAlteracoes.QUADRINHO_IMPORTADO, gravados, QuadrinhoDTO::id);
+        limpar(CacheConfig.QUADRINHOS_POR_ID);
+        limpar(CacheConfig.QUADRINHOS_POR_RARIDADE);
+        limpar(CacheConfig.QUADRINHOS_POR_AUTOR);
+        limparCacheSegundoNivel();
+    }
+
+    /**
+     * Descarta, após o commit, as instâncias e as consultas de quadrinhos guardadas no cache de segundo nível
+     * do Hibernate, que não percebe as escritas feitas direto pelo JDBC.
+     */
+    private void limparCacheSegundoNivel() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+                cache.evictEntityData(Quadrinho.class);
+                cache.evictQueryRegion(QuadrinhoRepository.REGIAO_POR_ID);
+                cache.evictQueryRegion(QuadrinhoRepository.REGIAO_POR_RARIDADE);
+                cache.evictQueryRegion(QuadrinhoRepository.REGIAO_POR_AUTOR);
+            }
+        });
+    }
+
+    private void limpar(String nomeCache) {
+        Cache cache = cacheManager.getCache(nomeCache);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Localiza as colunas obrigatórias no cabeçalho do CSV.
+     *
+     * @return Posições das colunas nome, autor e raridade, nessa ordem.
+     */
+    private static int[] lerCabecalho(String texto) {
+        List<String> campos = camposCsv(texto);
+        int[] colunas = {-1, -1, -1};
+        for (int i = 0; i < campos.size(); i++) {
+            switch (campos.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "nome" -> colunas[0] = i;
+                case "autor" -> colunas[1] = i;
+                case "raridade" -> colunas[2] = i;
+                default -> {
+                }
+            }
+        }
+        if (colunas[0] < 0 || colunas[1] < 0 || colunas[2] < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "O cabeçalho do CSV deve conter as colunas nome, autor e raridade.");
+        }
+        return colunas;
+    }
+
+    private static Linha lerCsv(long numero, String texto, int[] colunas) {
+        List<String> campos = camposCsv(texto);
+        if (campos.size() <= Math.max(colunas[0], Math.max(colunas[1], colunas[2]))) {
+            throw new IllegalArgumentException("Quantidade de colunas menor que a do cabeçalho.");
+        }
+        return validar(numero, campos.get(colunas[0]), campos.get(colunas[1]), campos.get(colunas[2]));
+    }
+
+    private Linha lerNdjson(long numero, String texto) {
+        JsonNode objeto;
+        try {
+            objeto = objectMapper.readTree(texto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+        if (!objeto.isObject()) {
+            throw new IllegalArgumentException("A linha deve conter um objeto JSON.");
+        }
+        return validar(numero, objeto.path("nome").asText(null), objeto.path("autor").asText(null),
+                objeto.path("raridade").asText(null));
+    }
+
+    private static Linha validar(long numero, String nome, String autor, String raridade) {
+        return new Linha(numero, obrigatorio("nome", nome), obrigatorio("autor", autor),
+                raridade(obrigatorio("raridade", raridade)));
+    }
+
+    private static Quadrinho.Raridade raridade(String valor) {
+        for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+            if (raridade.name().equalsIgnoreCase(valor)) {
+                return raridade;
+            }
+        }
+        throw new IllegalArgumentException("Raridade inválida: " + valor + ".");
+    }
+
+    private static String obrigatorio(String campo, String valor) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("Campo " + campo + " é obrigatório.");
+        }
+        valor = valor.trim();
+        if (valor.length() > TAMANHO_MAXIMO_TEXTO) {
+            throw new IllegalArgumentException("Campo " + campo + " excede " + TAMANHO_MAXIMO_TEXTO + " caracteres.");
+        }
+        return valor;
+    }
+
+    /**
+     * Separa os campos de uma linha CSV, aceitando campos entre aspas com vírgulas e aspas duplicadas ({@code ""}).
+     */
+    private static List<String> camposCsv(String texto) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas.");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Totais acumulados durante uma importação.
+     */
+    private class Progresso {
+
+        private long linhasLidas;
+        private long gravadas;
+        private long duplicadas;
+        private long rejeitadas;
+        private final List<RelatorioImportacao.Erro> erros = new ArrayList<>();
+
+        void rejeitar(long linha, String mensagem) {
+            rejeitadas++;
+            if (erros.size() < maximoErros) {
+                erros.add(new RelatorioImportacao.Erro(linha, mensagem));
+            }
+        }
+
+        RelatorioImportacao relatorio() {
+            return new RelatorioImportacao(linhasLidas, gravadas, duplicadas, rejeitadas, List.copyOf(erros));
+        }
+    }
+}
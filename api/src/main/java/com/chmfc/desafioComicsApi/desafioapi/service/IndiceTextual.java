@@ -0,0 +1,324 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre o nome e o autor dos quadrinhos.
+ * Os textos são divididos em termos sem acentos e em minúsculas, mantidos em mapas ordenados;
+ * assim, cada termo da busca é resolvido como um intervalo de prefixo, sem percorrer todos os quadrinhos.
+ * Cada termo aponta para as versões imutáveis dos quadrinhos que o contêm; uma alteração publica uma nova versão
+ * em vez de modificar a anterior, e a busca pontua apenas os quadrinhos que atendem aos termos da consulta.
+ * As leituras não bloqueiam; as escritas são serializadas entre si.
+ */
+class IndiceTextual {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAXIMO_TERMOS_CONSULTA = 8;
+
+    private static final int PESO_NOME_EXATO = 10;
+    private static final int PESO_NOME_PREFIXO = 6;
+    private static final int PESO_AUTOR_EXATO = 5;
+    private static final int PESO_AUTOR_PREFIXO = 3;
+    private static final int BONUS_INICIO_NOME = 2;
+
+    private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<String, Set<Documento>> termosNome = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<Documento>> termosAutor = new ConcurrentSkipListMap<>();
+
+    /**
+     * Versão indexada de um quadrinho, com os termos já extraídos e o nome normalizado usado no desempate.
+     * Cada versão é um objeto distinto: a igualdade é por identidade, para que a versão antiga e a nova
+     * de um mesmo quadrinho convivam nos termos enquanto a alteração é aplicada.
+     */
+    private record Documento(long id, String nome, String autor, Quadrinho.Raridade raridade, LocalDateTime versao,
+                             Set<String> termosNome, Set<String> termosAutor, String nomeNormalizado) {
+
+        Documento(long id, String nome, String autor, Quadrinho.Raridade raridade, LocalDateTime versao,
+                  Set<String> termosNome, Set<String> termosAutor) {
+            this(id, nome, autor, raridade, versao, termosNome, termosAutor, normalizar(nome));
+        }
+
+        String primeiroTermoNome() {
+            return termosNome.isEmpty() ? "" : termosNome.iterator().next();
+        }
+
+        @Override
+        public boolean equals(Object outro) {
+            return this == outro;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    /**
+     * Pontuação parcial de um candidato durante a busca.
+     */
+    private static final class Acumulador {
+        private final Documento documento;
+        private int pontos;
+        private int termosAtendidos;
+        private int melhorDoTermo;
+
+        private Acumulador(Documento documento) {
+            this.documento = documento;
+        }
+    }
+
+    /**
+     * Inclui ou substitui um quadrinho no índice.
+     * A gravação é ignorada se o índice já tiver uma versão mais recente do quadrinho.
+     *
+     * @param id Identificador do quadrinho.
+     * @param nome Nome do quadrinho.
+     * @param autor Autor do quadrinho.
+     * @param raridade Raridade do quadrinho.
+     * @param versao Data da última modificação do quadrinho, ou null se desconhecida.
+     */
+    public synchronized void gravar(long id, String nome, String autor, Quadrinho.Raridade raridade, LocalDateTime versao) {
+        Documento atual = documentos.get(id);
+        if (atual != null && versao != null && atual.versao() != null && versao.isBefore(atual.versao())) {
+            return;
+        }
+        substituir(atual, new Documento(id, nome, autor, raridade, versao, termos(nome), termos(autor)));
+    }
+
+    /**
+     * Altera apenas os campos informados de um quadrinho já indexado; campos nulos são mantidos.
+     * Quadrinhos ausentes do índice são ignorados.
+     *
+     * @param id Identificador do quadrinho.
+     * @param nome Novo nome, ou null para manter o atual.
+     * @param autor Novo autor, ou null para manter o atual.
+     * @param raridade Nova raridade, ou null para manter a atual.
+     * @param versao Data da modificação.
+     */
+    public synchronized void alterar(long id, String nome, String autor, Quadrinho.Raridade raridade, LocalDateTime versao) {
+        Documento atual = documentos.get(id);
+        if (atual == null) {
+            return;
+        }
+        substituir(atual, new Documento(id,
+                nome != null ? nome : atual.nome(),
+                autor != null ? autor : atual.autor(),
+                raridade != null ? raridade : atual.raridade(),
+                versao,
+                nome != null ? termos(nome) : atual.termosNome(),
+                autor != null ? termos(autor) : atual.termosAutor()));
+    }
+
+    /**
+     * Remove um quadrinho do índice.
+     *
+     * @param id Identificador do quadrinho.
+     */
+    public synchronized void remover(long id) {
+        Documento atual = documentos.remove(id);
+        if (atual != null) {
+            desindexar(atual);
+        }
+    }
+
+    /**
+     * Retorna um quadrinho como está no índice, sem bloquear as escritas.
+     *
+     * @param id Identificador do quadrinho.
+     * @return O quadrinho indexado, sem a data de criação, ou null se o índice não o tiver.
+     */
+    public QuadrinhoDTO consultar(long id) {
+        Documento documento = documentos.get(id);
+        return documento == null ? null
+                : new QuadrinhoDTO(documento.id(), documento.nome(), documento.autor(), documento.raridade(), null, documento.versao());
+    }
+
+    /**
+     * Retorna a quantidade de quadrinhos indexados.
+     *
+     * @return Quantidade de quadrinhos no índice.
+     */
+    public int tamanho() {
+        return documentos.size();
+    }
+
+    /**
+     * Busca os quadrinhos cujo nome ou autor contenham termos começando por cada termo da consulta.
+     * Correspondências exatas valem mais que prefixos, e o nome vale mais que o autor.
+     *
+     * @param consulta Texto buscado.
+     * @param pagina Número da página, começando em 0.
+     * @param tamanho Quantidade de itens por página.
+     * @return Página de resultados, ordenada por relevância, nome e id.
+     */
+    public ResultadoBusca buscar(String consulta, int pagina, int tamanho) {
+        List<String> termosConsulta = termos(consulta).stream().limit(MAXIMO_TERMOS_CONSULTA).toList();
+        if (termosConsulta.isEmpty()) {
+            return new ResultadoBusca(List.of(), 0, pagina, tamanho);
+        }
+
+        // Para cada termo, só continuam candidatos os quadrinhos que atenderam a todos os termos anteriores;
+        // os acumuladores existem apenas para os quadrinhos encontrados no primeiro termo
+        Map<Documento, Acumulador> acumuladores = new IdentityHashMap<>();
+        List<Acumulador> candidatos = List.of();
+        for (int i = 0; i < termosConsulta.size(); i++) {
+            String termo = termosConsulta.get(i);
+            List<Acumulador> tocados = new ArrayList<>(i == 0 ? 16 : candidatos.size());
+            for (int campo = 0; campo < 2; campo++) {
+                ConcurrentSkipListMap<String, Set<Documento>> termos = campo == 0 ? termosNome : termosAutor;
+                int pesoExato = campo == 0 ? PESO_NOME_EXATO : PESO_AUTOR_EXATO;
+                int pesoPrefixo = campo == 0 ? PESO_NOME_PREFIXO : PESO_AUTOR_PREFIXO;
+                for (Map.Entry<String, Set<Documento>> entrada : termos.subMap(termo, true, termo + Character.MAX_VALUE, false).entrySet()) {
+                    int peso = entrada.getKey().length() == termo.length() ? pesoExato : pesoPrefixo;
+                    for (Documento documento : entrada.getValue()) {
+                        Acumulador acumulador = i == 0
+                                ? acumuladores.computeIfAbsent(documento, Acumulador::new)
+                                : acumuladores.get(documento);
+                        if (acumulador == null || acumulador.termosAtendidos != i) {
+                            continue;
+                        }
+                        if (acumulador.melhorDoTermo == 0) {
+                            tocados.add(acumulador);
+                        }
+                        acumulador.melhorDoTermo = Math.max(acumulador.melhorDoTermo, peso);
+                    }
+                }
+            }
+            for (Acumulador acumulador : tocados) {
+                acumulador.pontos += acumulador.melhorDoTermo;
+                acumulador.melhorDoTermo = 0;
+                acumulador.termosAtendidos = i + 1;
+            }
+            candidatos = tocados;
+            if (candidatos.isEmpty()) {
+                break;
+            }
+        }
+
+        // Mantém apenas os melhores até o fim da página pedida, com o pior no topo do heap.
+        // Versões substituídas ou removidas durante a busca são descartadas.
+        String primeiroTermo = termosConsulta.get(0);
+        long limite = (long) pagina * tamanho + tamanho;
+        PriorityQueue<Candidato> melhores = new PriorityQueue<>();
+        int total = 0;
+        for (Acumulador acumulador : candidatos) {
+            Documento documento = acumulador.documento;
+            if (documentos.get(documento.id()) != documento) {
+                continue;
+            }
+            total++;
+            int pontuacao = acumulador.pontos;
+            if (documento.primeiroTermoNome().startsWith(primeiroTermo)) {
+                pontuacao += BONUS_INICIO_NOME;
+            }
+            Candidato candidato = new Candidato(documento, pontuacao);
+            if (melhores.size() < limite) {
+                melhores.add(candidato);
+            } else if (candidato.compareTo(melhores.peek()) > 0) {
+                melhores.poll();
+                melhores.add(candidato);
+            }
+        }
+
+        List<Candidato> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(Comparator.reverseOrder());
+        List<ResultadoBusca.Item> itens = ordenados.subList((int) Math.min(ordenados.size(), (long) pagina * tamanho), ordenados.size())
+                .stream()
+                .map(Candidato::item)
+                .toList();
+        return new ResultadoBusca(itens, total, pagina, tamanho);
+    }
+
+    /**
+     * Normaliza um texto para comparação: remove acentos e converte para minúsculas.
+     *
+     * @param texto Texto a normalizar.
+     * @return Texto normalizado.
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Quadrinho candidato a resultado, ordenado do menos para o mais relevante.
+     */
+    private record Candidato(Documento documento, int pontuacao) implements Comparable<Candidato> {
+
+        @Override
+        public int compareTo(Candidato outro) {
+            if (pontuacao != outro.pontuacao) {
+                return Integer.compare(pontuacao, outro.pontuacao);
+            }
+            int nome = outro.documento.nomeNormalizado().compareTo(documento.nomeNormalizado());
+            return nome != 0 ? nome : Long.compare(outro.documento.id(), documento.id());
+        }
+
+        ResultadoBusca.Item item() {
+            return new ResultadoBusca.Item(documento.id(), documento.nome(), documento.autor(), documento.raridade(), pontuacao);
+        }
+    }
+
+    private static Set<String> termos(String texto) {
+        Set<String> termos = new LinkedHashSet<>();
+        for (String termo : SEPARADORES.split(normalizar(texto))) {
+            if (!termo.isEmpty()) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    /**
+     * O banco guarda as datas arredondadas para microssegundos, enquanto a versão registrada localmente
+     * pode ter nanossegundos; diferenças menores que um microssegundo são tratadas como a mesma versão.
+     */
+    /**
+     * Publica a nova versão antes de retirar a anterior dos termos, para que uma busca concorrente
+     * encontre sempre ao menos uma das duas.
+     */
+    private void substituir(Documento atual, Documento novo) {
+        documentos.put(novo.id(), novo);
+        novo.termosNome().forEach(termo -> termosNome.computeIfAbsent(termo, t -> ConcurrentHashMap.newKeySet()).add(novo));
+        novo.termosAutor().forEach(termo -> termosAutor.computeIfAbsent(termo, t -> ConcurrentHashMap.newKeySet()).add(novo));
+        if (atual != null) {
+            desindexar(atual);
+        }
+    }
+
+    private void desindexar(Documento documento) {
+        documento.termosNome().forEach(termo -> retirar(termosNome, termo, documento));
+        documento.termosAutor().forEach(termo -> retirar(termosAutor, termo, documento));
+    }
+
+    private static void retirar(ConcurrentSkipListMap<String, Set<Documento>> termos, String termo, Documento documento) {
+        Set<Documento> documentos = termos.get(termo);
+        if (documentos != null) {
+            documentos.remove(documento);
+            if (documentos.isEmpty()) {
+                termos.remove(termo, documentos);
+            }
+        }
+    }
+}
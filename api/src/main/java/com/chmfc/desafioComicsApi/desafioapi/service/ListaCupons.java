@@ -0,0 +1,628 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.Cursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lista materializada dos cupons válidos de cada raridade, mantida em memória já serializada em JSON e comprimida em gzip.
+ * Os cupons são agrupados, em ordem de id, em blocos de até {@code cupons.lista.tamanho-pagina} cupons; cada bloco é
+ * comprimido como um membro gzip independente, e membros gzip concatenados formam um único fluxo gzip válido. Assim,
+ * uma página (um bloco) ou a lista inteira são servidas apenas concatenando bytes prontos, sem consultar o banco
+ * nem serializar nada na requisição.
+ * <p>
+ * A paginação é por keyset: o cursor de continuação carrega o último id entregue, e a próxima página é o bloco com os
+ * cupons seguintes. Como cada bloco cobre uma faixa de ids, remover blocos esvaziados ou incluir cupons não desloca as
+ * páginas seguintes, e o cursor vale em qualquer instância. Se o bloco seguinte ao cursor passou a conter cupons
+ * anteriores a ele (um cupom incluído depois na mesma faixa), apenas os posteriores são serializados na requisição.
+ * <p>
+ * A lista é carregada do banco ao iniciar a aplicação e mantida incrementalmente: cupons criados ou resgatados
+ * nesta instância marcam apenas o bloco afetado, e a cada ciclo de atualização os cupons expirados são retirados
+ * e somente os blocos alterados são serializados de novo. Cupons sem usos restantes deixam a lista. Cupons criados
+ * por outras instâncias são incorporados pela sincronização periódica; resgates e remoções feitos em outras
+ * instâncias são aplicados pela reconciliação periódica, que compara a lista com o banco primário.
+ * <p>
+ * Cada bloco publicado guarda também a lista imutável dos seus cupons, usada pelas respostas em formatos binários,
+ * que são serializadas na requisição a partir dos mesmos blocos e seguem a mesma paginação.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ListaCupons {
+
+    private static final byte[] ABRE_COLCHETE = comprimir("[".getBytes(StandardCharsets.UTF_8));
+    private static final byte[] VIRGULA = comprimir(",".getBytes(StandardCharsets.UTF_8));
+    private static final byte[] FECHA_COLCHETE = comprimir("]".getBytes(StandardCharsets.UTF_8));
+
+    private final CupomRepository cupomRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Quantidade de cupons em cada bloco, que também é o tamanho de cada página.
+     */
+    @Value("${cupons.lista.tamanho-pagina:1000}")
+    private int tamanhoPagina;
+
+    /**
+     * Margem de tempo revisitada a cada sincronização, cobrindo transações ainda não confirmadas na anterior.
+     */
+    @Value("${cupons.lista.margem-sincronizacao:1m}")
+    private Duration margemSincronizacao;
+
+    private final LongAdder cuponsReconciliados = new LongAdder();
+    private final AtomicBoolean carregando = new AtomicBoolean();
+
+    private final Map<Quadrinho.Raridade, Lista> listas = new EnumMap<>(Quadrinho.Raridade.class);
+    private volatile boolean pronto;
+    private volatile LocalDateTime ultimaSincronizacao;
+
+    {
+        for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+            listas.put(raridade, new Lista());
+        }
+    }
+
+    /**
+     * Conteúdo pronto para envio: membros gzip que, concatenados, formam um array JSON comprimido.
+     *
+     * @param membros Membros gzip, na ordem em que devem ser escritos.
+     * @param proximoCursor Cursor da página seguinte, ou null se a lista inteira ou a última página foi retornada.
+     * @param totalPaginas Quantidade de páginas disponíveis.
+     * @param totalCupons Quantidade de cupons na lista.
+     */
+    public record Conteudo(List<byte[]> membros, String proximoCursor, int totalPaginas, int totalCupons) {
+    }
+
+    /**
+     * Cupons de uma lista, inteira ou de uma página, para serialização em outros formatos.
+     *
+     * @param cupons Cupons, em ordem de id.
+     * @param proximoCursor Cursor da página seguinte, ou null se a lista inteira ou a última página foi retornada.
+     * @param totalPaginas Quantidade de páginas disponíveis.
+     * @param totalCupons Quantidade de cupons na lista.
+     */
+    public record Cupons(List<CupomDTO> cupons, String proximoCursor, int totalPaginas, int totalCupons) {
+    }
+
+    /**
+     * Carrega a lista a partir do banco assim que a aplicação termina de subir.
+     * Se a carga falhar, é repetida a cada sincronização até completar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarAoIniciar() {
+        iniciarCarga();
+    }
+
+    /**
+     * Retorna a lista de cupons válidos de uma raridade, inteira ou apenas uma página.
+     *
+     * @param raridade A raridade dos cupons.
+     * @param cursor Cursor recebido na página anterior, vazio para a primeira página, ou null para a lista inteira.
+     * @return O conteúdo comprimido, com o cursor da página seguinte e os totais de páginas e de cupons.
+     * @throws ResponseStatusException com status 503 se a lista ainda estiver sendo carregada,
+     *                                 ou 400 se o cursor for inválido.
+     */
+    public Conteudo conteudo(Quadrinho.Raridade raridade, String cursor) {
+        Snapshot snapshot = snapshot(raridade);
+        List<byte[]> membros = new ArrayList<>();
+        membros.add(ABRE_COLCHETE);
+        String proximoCursor = null;
+        if (cursor == null) {
+            for (int i = 0; i < snapshot.blocos().size(); i++) {
+                if (i > 0) {
+                    membros.add(VIRGULA);
+                }
+                membros.add(snapshot.blocos().get(i).comprimido());
+            }
+        } else {
+            long aposId = aposId(cursor);
+            int indice = snapshot.proximoBloco(aposId);
+            if (indice < snapshot.blocos().size()) {
+                BlocoPublicado bloco = snapshot.blocos().get(indice);
+                List<CupomDTO> cupons = bloco.posteriores(aposId);
+                membros.add(cupons.size() == bloco.cupons().size() ? bloco.comprimido() : serializar(cupons));
+                proximoCursor = snapshot.cursorApos(indice);
+            }
+        }
+        membros.add(FECHA_COLCHETE);
+        return new Conteudo(membros, proximoCursor, snapshot.blocos().size(), snapshot.totalCupons());
+    }
+
+    /**
+     * Retorna os cupons válidos de uma raridade, inteira ou apenas uma página, sem serialização.
+     *
+     * @param raridade A raridade dos cupons.
+     * @param cursor Cursor recebido na página anterior, vazio para a primeira página, ou null para a lista inteira.
+     * @return Os cupons, com o cursor da página seguinte e os totais de páginas e de cupons.
+     * @throws ResponseStatusException com status 503 se a lista ainda estiver sendo carregada,
+     *                                 ou 400 se o cursor for inválido.
+     */
+    public Cupons cupons(Quadrinho.Raridade raridade, String cursor) {
+        Snapshot snapshot = snapshot(raridade);
+        List<CupomDTO> cupons;
+        String proximoCursor = null;
+        if (cursor == null) {
+            cupons = new ArrayList<>(snapshot.totalCupons());
+            snapshot.blocos().forEach(bloco -> cupons.addAll(bloco.cupons()));
+        } else {
+            long aposId = aposId(cursor);
+            int indice = snapshot.proximoBloco(aposId);
+            if (indice < snapshot.blocos().size()) {
+                cupons = snapshot.blocos().get(indice).posteriores(aposId);
+                proximoCursor = snapshot.cursorApos(indice);
+            } else {
+                cupons = List.of();
+            }
+        }
+        return new Cupons(cupons, proximoCursor, snapshot.blocos().size(), snapshot.totalCupons());
+    }
+
+    /**
+     * Inclui na lista, após o commit da transação corrente, os cupons recém-persistidos.
+     *
+     * @param cupons Os cupons criados.
+     */
+    public void adicionar(Collection<Cupom> cupons) {
+        List<CupomDTO> novos = cupons.stream().map(CupomDTO::de).toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    novos.forEach(cupom -> listas.get(cupom.raridade()).gravar(cupom));
+                }
+            });
+        } else {
+            novos.forEach(cupom -> listas.get(cupom.raridade()).gravar(cupom));
+        }
+    }
+
+    /**
+     * Atualiza na lista o estado de um cupom já existente, como os usos restantes após um resgate.
+     *
+     * @param cupom O cupom atualizado.
+     */
+    public void atualizar(CupomDTO cupom) {
+        listas.get(cupom.raridade()).gravar(cupom);
+    }
+
+    /**
+     * Retira os cupons expirados e serializa de novo os blocos alterados desde o último ciclo.
+     */
+    @Scheduled(fixedDelayString = "${cupons.lista.intervalo-atualizacao:1000}")
+    public void atualizarBlocos() {
+        if (!pronto) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        listas.values().forEach(lista -> lista.publicar(agora));
+    }
+
+    /**
+     * Incorpora à lista os cupons criados por outras instâncias desde a última sincronização.
+     * Enquanto a carga inicial não tiver completado, inicia uma nova tentativa, se nenhuma estiver em andamento.
+     */
+    @Scheduled(fixedDelayString = "${cupons.lista.intervalo-sincronizacao:5000}")
+    public void sincronizar() {
+        if (!pronto) {
+            iniciarCarga();
+            return;
+        }
+        LocalDateTime inicio = LocalDateTime.now();
+        LocalDateTime desde = ultimaSincronizacao.minus(margemSincronizacao);
+        cupomRepository.listarCriadosDesde(desde, inicio).forEach(cupom -> listas.get(cupom.raridade()).incluirSeAusente(cupom));
+        ultimaSincronizacao = inicio;
+    }
+
+    /**
+     * Aplica à lista os resgates e as remoções feitos em outras instâncias: percorre os cupons válidos de cada
+     * raridade no banco primário, em ordem de id, junto com os ids que estavam na lista antes da consulta. Os usos restantes
+     * só diminuem; cupons da lista que não estão mais entre os válidos no banco (esgotados, expirados ou removidos)
+     * são retirados. Cupons ausentes da lista ficam a cargo da sincronização.
+     */
+    @Scheduled(fixedDelayString = "${cupons.lista.intervalo-reconciliacao:60000}")
+    public void reconciliar() {
+        if (!pronto) {
+            return;
+        }
+        // Leitura no primário: em uma réplica atrasada, cupons recém-emitidos ainda não existiriam e seriam retirados
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        listas.forEach((raridade, lista) -> {
+            long[] ids = lista.ids();
+            LocalDateTime agora = LocalDateTime.now();
+            Map<Long, Integer> usosNoBanco = new HashMap<>();
+            List<Long> ausentes = new ArrayList<>();
+            transacao.executeWithoutResult(status -> {
+                try (Stream<CupomRepository.UsosCupom> cupons = cupomRepository.streamUsosRestantes(raridade, agora)) {
+                    int posicao = 0;
+                    Iterator<CupomRepository.UsosCupom> iterador = cupons.iterator();
+                    while (iterador.hasNext()) {
+                        CupomRepository.UsosCupom cupom = iterador.next();
+                        while (posicao < ids.length && ids[posicao] < cupom.getId()) {
+                            ausentes.add(ids[posicao++]);
+                        }
+                        if (posicao < ids.length && ids[posicao] == cupom.getId()) {
+                            usosNoBanco.put(cupom.getId(), cupom.getUsosRestantes());
+                            posicao++;
+                        }
+                    }
+                    while (posicao < ids.length) {
+                        ausentes.add(ids[posicao++]);
+                    }
+                }
+            });
+            cuponsReconciliados.add(lista.reconciliar(usosNoBanco, ausentes));
+        });
+    }
+
+    /**
+     * Retorna os totais de cada lista.
+     *
+     * @return Mapa com a situação da carga, a quantidade de cupons corrigidos pela reconciliação e, por raridade,
+     * as quantidades de cupons e de páginas.
+     */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("pronto", pronto);
+        estatisticas.put("cuponsReconciliados", cuponsReconciliados.sum());
+        listas.forEach((raridade, lista) -> {
+            Snapshot snapshot = lista.snapshot;
+            long bytes = snapshot.blocos().stream().mapToLong(bloco -> bloco.comprimido().length).sum();
+            estatisticas.put(raridade.name(), Map.of(
+                    "cupons", snapshot.totalCupons(),
+                    "paginas", snapshot.blocos().size(),
+                    "bytesComprimidos", bytes));
+        });
+        return estatisticas;
+    }
+
+    private Snapshot snapshot(Quadrinho.Raridade raridade) {
+        if (!pronto) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Lista de cupons em carga; tente novamente.");
+        }
+        return listas.get(raridade).snapshot;
+    }
+
+    private static long aposId(String cursor) {
+        Long ultimoId = Cursor.decodificar(cursor);
+        return ultimoId == null ? Long.MIN_VALUE : ultimoId;
+    }
+
+    private void iniciarCarga() {
+        if (carregando.compareAndSet(false, true)) {
+            Thread carga = new Thread(this::carregar, "lista-cupons");
+            carga.setDaemon(true);
+            carga.start();
+        }
+    }
+
+    private void carregar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        try {
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            transacao.setReadOnly(true);
+            transacao.executeWithoutResult(status -> {
+                try (Stream<CupomDTO> cupons = cupomRepository.streamValidos(inicio)) {
+                    cupons.forEach(cupom -> listas.get(cupom.raridade()).incluirSeAusente(cupom));
+                }
+            });
+            listas.values().forEach(lista -> lista.publicar(inicio));
+            ultimaSincronizacao = inicio;
+            pronto = true;
+            log.info("Lista de cupons carregada em {} ms", Duration.between(inicio, LocalDateTime.now()).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao carregar a lista de cupons; nova tentativa na próxima sincronização: {}", e.getMessage());
+        } finally {
+            carregando.set(false);
+        }
+    }
+
+    private byte[] serializar(Collection<CupomDTO> cupons) {
+        try {
+            ByteArrayOutputStream json = new ByteArrayOutputStream(cupons.size() * 160);
+            Iterator<CupomDTO> iterador = cupons.iterator();
+            while (iterador.hasNext()) {
+                objectMapper.writeValue(json, iterador.next());
+                if (iterador.hasNext()) {
+                    json.write(',');
+                }
+            }
+            return comprimir(json.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] dados) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(Math.max(32, dados.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    /**
+     * Bloco publicado: o membro gzip e a lista imutável dos seus cupons, em ordem de id.
+     */
+    private record BlocoPublicado(byte[] comprimido, List<CupomDTO> cupons) {
+
+        long ultimoId() {
+            return cupons.get(cupons.size() - 1).id();
+        }
+
+        /**
+         * Retorna os cupons com id posterior ao informado; normalmente, o bloco inteiro.
+         */
+        List<CupomDTO> posteriores(long aposId) {
+            if (cupons.get(0).id() > aposId) {
+                return cupons;
+            }
+            int inicio = 0;
+            int fim = cupons.size();
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (cupons.get(meio).id() <= aposId) {
+                    inicio = meio + 1;
+                } else {
+                    fim = meio;
+                }
+            }
+            return cupons.subList(inicio, cupons.size());
+        }
+    }
+
+    /**
+     * Versão publicada de uma lista: os blocos não vazios, em ordem de id.
+     */
+    private record Snapshot(List<BlocoPublicado> blocos, int totalCupons) {
+
+        /**
+         * Retorna a posição do primeiro bloco com cupons de id posterior ao informado, ou a quantidade de blocos se não houver.
+         */
+        int proximoBloco(long aposId) {
+            int inicio = 0;
+            int fim = blocos.size();
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (blocos.get(meio).ultimoId() <= aposId) {
+                    inicio = meio + 1;
+                } else {
+                    fim = meio;
+                }
+            }
+            return inicio;
+        }
+
+        /**
+         * Retorna o cursor para a página seguinte ao bloco informado, ou null se ele for o último.
+         */
+        String cursorApos(int indice) {
+            return indice + 1 < blocos.size() ? Cursor.codificar(blocos.get(indice).ultimoId()) : null;
+        }
+    }
+
+    /**
+     * Bloco de cupons, com a menor validade entre eles para identificar rapidamente se há cupons expirados.
+     */
+    private static final class Bloco {
+
+        private final TreeMap<Long, CupomDTO> cupons = new TreeMap<>();
+        private BlocoPublicado publicado;
+        private LocalDateTime menorValidade;
+    }
+
+    /**
+     * Blocos de cupons de uma raridade, indexados pelo menor id da faixa que cada um cobre: um bloco recebe os cupons
+     * com id a partir da sua chave e anterior à chave do bloco seguinte. Alterações são protegidas pelo monitor
+     * da própria lista; leituras usam apenas o snapshot publicado.
+     */
+    private final class Lista {
+
+        private final TreeMap<Long, Bloco> blocos = new TreeMap<>();
+        private final Map<Long, Long> blocoPorCupom = new HashMap<>();
+        private final Set<Long> blocosAlterados = new HashSet<>();
+        private volatile Snapshot snapshot = new Snapshot(List.of(), 0);
+
+        synchronized void gravar(CupomDTO cupom) {
+            if (cupom.usosRestantes() <= 0) {
+                remover(cupom.id());
+                return;
+            }
+            Long numero = blocoPorCupom.get(cupom.id());
+            if (numero == null) {
+                numero = blocoParaInclusao(cupom.id());
+                blocoPorCupom.put(cupom.id(), numero);
+            }
+            Bloco bloco = blocos.get(numero);
+            bloco.cupons.put(cupom.id(), cupom);
+            if (bloco.menorValidade == null || cupom.validade().isBefore(bloco.menorValidade)) {
+                bloco.menorValidade = cupom.validade();
+            }
+            blocosAlterados.add(numero);
+        }
+
+        synchronized void incluirSeAusente(CupomDTO cupom) {
+            if (!blocoPorCupom.containsKey(cupom.id())) {
+                gravar(cupom);
+            }
+        }
+
+        synchronized long[] ids() {
+            return blocoPorCupom.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        /**
+         * Aplica o resultado da comparação com o banco.
+         *
+         * @return Quantidade de cupons atualizados ou retirados.
+         */
+        synchronized int reconciliar(Map<Long, Integer> usosNoBanco, List<Long> ausentes) {
+            int corrigidos = 0;
+            for (Long id : ausentes) {
+                if (remover(id)) {
+                    corrigidos++;
+                }
+            }
+            for (Map.Entry<Long, Integer> entrada : usosNoBanco.entrySet()) {
+                Long numero = blocoPorCupom.get(entrada.getKey());
+                CupomDTO cupom = numero == null ? null : blocos.get(numero).cupons.get(entrada.getKey());
+                if (cupom != null && entrada.getValue() < cupom.usosRestantes()) {
+                    gravar(new CupomDTO(cupom.id(), cupom.codigo(), cupom.raridade(), cupom.desconto(), cupom.validade(),
+                            entrada.getValue(), cupom.dataCriacao()));
+                    corrigidos++;
+                }
+            }
+            return corrigidos;
+        }
+
+        synchronized void publicar(LocalDateTime agora) {
+            for (Map.Entry<Long, Bloco> entrada : blocos.entrySet()) {
+                Bloco bloco = entrada.getValue();
+                if (bloco.menorValidade != null && !bloco.menorValidade.isAfter(agora)) {
+                    retirarExpirados(entrada.getKey(), bloco, agora);
+                }
+            }
+            if (blocosAlterados.isEmpty()) {
+                return;
+            }
+            for (Long numero : blocosAlterados) {
+                Bloco bloco = blocos.get(numero);
+                if (bloco == null) {
+                    continue;
+                }
+                if (bloco.cupons.isEmpty()) {
+                    blocos.remove(numero);
+                } else {
+                    bloco.publicado = new BlocoPublicado(serializar(bloco.cupons.values()), List.copyOf(bloco.cupons.values()));
+                }
+            }
+            blocosAlterados.clear();
+
+            List<BlocoPublicado> publicados = new ArrayList<>(blocos.size());
+            int total = 0;
+            for (Bloco bloco : blocos.values()) {
+                publicados.add(bloco.publicado);
+                total += bloco.cupons.size();
+            }
+            snapshot = new Snapshot(List.copyOf(publicados), total);
+        }
+
+        private boolean remover(Long id) {
+            Long numero = blocoPorCupom.remove(id);
+            if (numero == null) {
+                return false;
+            }
+            // A menor validade do bloco é mantida: como limite inferior, no máximo antecipa uma verificação de expirados
+            blocos.get(numero).cupons.remove(id);
+            blocosAlterados.add(numero);
+            return true;
+        }
+
+        private void retirarExpirados(long numero, Bloco bloco, LocalDateTime agora) {
+            LocalDateTime menorValidade = null;
+            Iterator<CupomDTO> iterador = bloco.cupons.values().iterator();
+            while (iterador.hasNext()) {
+                CupomDTO cupom = iterador.next();
+                if (!cupom.validade().isAfter(agora)) {
+                    iterador.remove();
+                    blocoPorCupom.remove(cupom.id());
+                } else if (menorValidade == null || cupom.validade().isBefore(menorValidade)) {
+                    menorValidade = cupom.validade();
+                }
+            }
+            bloco.menorValidade = menorValidade;
+            blocosAlterados.add(numero);
+        }
+
+        /**
+         * Retorna o bloco cuja faixa contém o id. Se ele estiver cheio, um cupom posterior a todos os seus abre um novo
+         * bloco a partir do próprio id, como na emissão de novos cupons; nos demais casos, o bloco é dividido ao meio.
+         * Como os cursores carregam ids, e não blocos, a divisão não afeta as paginações em andamento.
+         */
+        private long blocoParaInclusao(long id) {
+            Map.Entry<Long, Bloco> entrada = blocos.floorEntry(id);
+            if (entrada == null) {
+                // Anterior a todas as faixas: a nova faixa vai do início até a primeira existente
+                blocos.put(Long.MIN_VALUE, new Bloco());
+                return Long.MIN_VALUE;
+            }
+            Bloco bloco = entrada.getValue();
+            if (bloco.cupons.size() < tamanhoPagina) {
+                return entrada.getKey();
+            }
+            if (id > bloco.cupons.lastKey()) {
+                blocos.put(id, new Bloco());
+                return id;
+            }
+            long numero = dividir(entrada.getKey(), bloco);
+            return id < numero ? entrada.getKey() : numero;
+        }
+
+        /**
+         * Move a metade superior dos cupons do bloco para um novo bloco, cuja faixa começa no primeiro id movido.
+         *
+         * @return A chave do novo bloco.
+         */
+        private long dividir(long numero, Bloco bloco) {
+            Iterator<Long> ids = bloco.cupons.keySet().iterator();
+            for (int i = 0; i < bloco.cupons.size() / 2; i++) {
+                ids.next();
+            }
+            long novoNumero = ids.next();
+            Map<Long, CupomDTO> metadeSuperior = bloco.cupons.tailMap(novoNumero, true);
+            Bloco novo = new Bloco();
+            novo.cupons.putAll(metadeSuperior);
+            metadeSuperior.clear();
+            for (CupomDTO cupom : novo.cupons.values()) {
+                blocoPorCupom.put(cupom.id(), novoNumero);
+                if (novo.menorValidade == null || cupom.validade().isBefore(novo.menorValidade)) {
+                    novo.menorValidade = cupom.validade();
+                }
+            }
+            blocos.put(novoNumero, novo);
+            blocosAlterados.add(numero);
+            blocosAlterados.add(novoNumero);
+            return novoNumero;
+        }
+    }
+}
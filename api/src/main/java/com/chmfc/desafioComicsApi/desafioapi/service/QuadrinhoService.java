@@ -0,0 +1,392 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.config.CacheConfig;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Serviço para manipulação da entidade Quadrinho.
+ * Provê métodos para operações CRUD, além de buscas específicas.
+ * Toda escrita é registrada, na mesma transação, no feed de alterações ({@link RegistroAlteracoes}),
+ * e refletida nos contadores de {@link EstatisticasCatalogo} após o commit.
+ * <p>
+ * As buscas que alimentam os caches (por id, raridade e autor) não são somente leitura, para serem atendidas
+ * pelo primário: uma réplica pode estar até {@code banco.replicas.atraso-maximo} atrasada, e o resultado lido
+ * dela ficaria nos caches do serviço e de consultas do Hibernate até expirar, mesmo depois da invalidação.
+ */
+@RequiredArgsConstructor
+@Service
+public class QuadrinhoService {
+
+    private final QuadrinhoRepository quadrinhoRepository;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final BuscaQuadrinhos buscaQuadrinhos;
+    private final RegistroAlteracoes registroAlteracoes;
+    private final EstatisticasCatalogo estatisticasCatalogo;
+
+    /**
+     * Tamanho de página usado quando o cliente não informa um.
+     */
+    @Value("${quadrinhos.paginacao.tamanho-padrao:50}")
+    private int tamanhoPadraoPagina;
+
+    /**
+     * Tamanho máximo de página aceito, independentemente do valor solicitado.
+     */
+    @Value("${quadrinhos.paginacao.tamanho-maximo:500}")
+    private int tamanhoMaximoPagina;
+
+    /**
+     * Salva um novo quadrinho ou atualiza um existente.
+     *
+     * @param quadrinho Entidade Quadrinho a ser salva.
+     * @return Quadrinho salvo.
+     */
+    @Transactional
+    public Quadrinho salvar(Quadrinho quadrinho) {
+        Optional<Quadrinho> existente = Optional.empty();
+        if (quadrinho.getId() != null) {
+            existente = quadrinhoRepository.findById(quadrinho.getId());
+            existente.ifPresent(anterior -> invalidarCache(anterior.getId(), anterior.getRaridade(), anterior.getAutor()));
+        }
+        boolean novo = existente.isEmpty();
+        // Lidos antes do save, que copia o estado recebido sobre a entidade gerenciada
+        Quadrinho.Raridade raridadeAnterior = existente.map(Quadrinho::getRaridade).orElse(null);
+        String autorAnterior = existente.map(Quadrinho::getAutor).orElse(null);
+        Quadrinho salvo = quadrinhoRepository.save(quadrinho);
+        invalidarCache(salvo.getId(), salvo.getRaridade(), salvo.getAutor());
+        if (novo) {
+            estatisticasCatalogo.quadrinhoCriado(salvo.getRaridade(), salvo.getAutor());
+        } else {
+            estatisticasCatalogo.quadrinhoAlterado(raridadeAnterior, autorAnterior, salvo.getRaridade(), salvo.getAutor());
+        }
+        buscaQuadrinhos.indexar(salvo);
+        registrarAlteracao(novo ? RegistroAlteracoes.QUADRINHO_CRIADO : RegistroAlteracoes.QUADRINHO_ATUALIZADO, salvo);
+        return salvo;
+    }
+
+    /**
+     * Deleta um quadrinho pelo id, com um único comando DELETE, sem carregá-lo antes.
+     * A raridade e o autor descontados das estatísticas são lidos, com a linha travada, na mesma transação.
+     *
+     * @param id Identificador do quadrinho a ser deletado.
+     * @return Quantidade de quadrinhos deletados (0 se o quadrinho não existir).
+     */
+    @Transactional
+    public int deletar(Long id) {
+        Optional<QuadrinhoRepository.ClassificacaoQuadrinho> anterior = quadrinhoRepository.travarClassificacao(id);
+        if (anterior.isEmpty()) {
+            return 0;
+        }
+        int removidos = quadrinhoRepository.removerPorId(id);
+        if (removidos > 0) {
+            estatisticasCatalogo.quadrinhoRemovido(anterior.get().getRaridade(), anterior.get().getAutor());
+            invalidarCache(id, anterior.get().getRaridade(), anterior.get().getAutor());
+            buscaQuadrinhos.remover(id);
+            registroAlteracoes.registrar(RegistroAlteracoes.QUADRINHO_REMOVIDO, id, Map.of("id", id));
+        }
+        return removidos;
+    }
+
+    /**
+     * Busca um quadrinho pelo id.
+     * Buscas simultâneas pelo mesmo id, com o cache vazio, fazem uma única consulta ao banco;
+     * as demais aguardam e recebem o mesmo resultado.
+     *
+     * @param id Identificador do quadrinho a ser buscado.
+     * @return Quadrinho encontrado.
+     * @throws RuntimeException se não encontrar o quadrinho.
+     */
+    @Cacheable(cacheNames = CacheConfig.QUADRINHOS_POR_ID, sync = true)
+    @Transactional
+    public QuadrinhoDTO buscarPorId(Long id) {
+        return quadrinhoRepository.buscarDtoPorId(id).orElseThrow(
+                () -> new RuntimeException("Quadrinho não encontrado.")
+        );
+    }
+
+    /**
+     * Busca quadrinhos pela raridade.
+     *
+     * @param raridade Raridade dos quadrinhos desejados.
+     * @return Lista de quadrinhos com a raridade especificada.
+     */
+    @Cacheable(cacheNames = CacheConfig.QUADRINHOS_POR_RARIDADE, sync = true)
+    @Transactional
+    public List<QuadrinhoDTO> getQuadrinhosPorRaridade(Quadrinho.Raridade raridade) {
+        return quadrinhoRepository.listarPorRaridade(raridade);
+    }
+
+    /**
+     * Busca quadrinhos pelo autor.
+     *
+     * @param autor Nome do autor dos quadrinhos desejados.
+     * @return Lista de quadrinhos do autor especificado.
+     */
+    @Cacheable(cacheNames = CacheConfig.QUADRINHOS_POR_AUTOR, sync = true)
+    @Transactional
+    public List<QuadrinhoDTO> getQuadrinhosPorAutor(String autor) {
+        return quadrinhoRepository.listarPorAutor(autor);
+    }
+
+    /**
+     * Atualiza um quadrinho existente.
+     *
+     * @param id Identificador do quadrinho a ser atualizado.
+     * @param quadrinhoAtualizado Entidade Quadrinho com os dados atualizados.
+     * @return Quadrinho atualizado.
+     * @throws RuntimeException se não encontrar o quadrinho.
+     */
+    @Transactional
+    public Quadrinho atualizarQuadrinho(Long id, Quadrinho quadrinhoAtualizado) {
+        Quadrinho quadrinhoExistente = quadrinhoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Quadrinho não encontrado"));
+        invalidarCache(id, quadrinhoExistente.getRaridade(), quadrinhoExistente.getAutor());
+        estatisticasCatalogo.quadrinhoAlterado(quadrinhoExistente.getRaridade(), quadrinhoExistente.getAutor(),
+                quadrinhoAtualizado.getRaridade(), quadrinhoAtualizado.getAutor());
+
+        // Atualiza os campos
+        quadrinhoExistente.setNome(quadrinhoAtualizado.getNome());
+        quadrinhoExistente.setAutor(quadrinhoAtualizado.getAutor());
+        quadrinhoExistente.setRaridade(quadrinhoAtualizado.getRaridade());
+        quadrinhoExistente.setDataModificacao(LocalDateTime.now());
+        invalidarCache(id, quadrinhoExistente.getRaridade(), quadrinhoExistente.getAutor());
+        buscaQuadrinhos.indexar(quadrinhoExistente);
+        registrarAlteracao(RegistroAlteracoes.QUADRINHO_ATUALIZADO, quadrinhoExistente);
+
+        // A entidade já está gerenciada; as alterações são gravadas no commit
+        return quadrinhoExistente;
+    }
+
+    /**
+     * Atualiza a raridade de um quadrinho existente e retorna o quadrinho atualizado.
+     *
+     * @param id Identificador do quadrinho a ser atualizado.
+     * @param novaRaridade Nova raridade do quadrinho.
+     * @return Quadrinho com a raridade atualizada.
+     * @throws Exception se não encontrar o quadrinho.
+     */
+    @Transactional
+    public Quadrinho updateRaridade(Long id, Quadrinho.Raridade novaRaridade) throws Exception {
+        Optional<Quadrinho> quadrinhoOptional = quadrinhoRepository.findById(id);
+
+        if (quadrinhoOptional.isPresent()) {
+            Quadrinho quadrinho = quadrinhoOptional.get();
+            invalidarCache(id, quadrinho.getRaridade(), quadrinho.getAutor());
+            estatisticasCatalogo.quadrinhoAlterado(quadrinho.getRaridade(), quadrinho.getAutor(), novaRaridade, quadrinho.getAutor());
+            quadrinho.setRaridade(novaRaridade);  // Atualiza a raridade
+            invalidarCache(id, novaRaridade, quadrinho.getAutor());
+            buscaQuadrinhos.indexar(quadrinho);
+            registrarAlteracao(RegistroAlteracoes.QUADRINHO_ATUALIZADO, quadrinho);
+            return quadrinho;  // A entidade já está gerenciada; a mudança é gravada no commit
+        } else {
+            throw new Exception("Quadrinho não encontrado.");
+        }
+    }
+
+    /**
+     * Atualiza a raridade de um quadrinho existente.
+     *
+     * @param id Identificador do quadrinho a ser editado.
+     * @param raridade Nova raridade do quadrinho.
+     * @return Quadrinho com a raridade atualizada.
+     */
+    @Transactional
+    public Quadrinho editarRaridade(Long id, Quadrinho.Raridade raridade) {
+        Quadrinho quadrinho = quadrinhoRepository.findById(id).orElseThrow(
+                () -> new RuntimeException("Quadrinho não encontrado.")
+        );
+        invalidarCache(id, quadrinho.getRaridade(), quadrinho.getAutor());
+        estatisticasCatalogo.quadrinhoAlterado(quadrinho.getRaridade(), quadrinho.getAutor(), raridade, quadrinho.getAutor());
+        quadrinho.setRaridade(raridade);
+        invalidarCache(id, raridade, quadrinho.getAutor());
+        buscaQuadrinhos.indexar(quadrinho);
+        registrarAlteracao(RegistroAlteracoes.QUADRINHO_ATUALIZADO, quadrinho);
+        return quadrinho;
+    }
+
+    /**
+     * Altera a raridade de um quadrinho com um único comando UPDATE, sem carregá-lo antes.
+     * A raridade e o autor anteriores são lidos, com a linha travada, na mesma transação.
+     *
+     * @param id Identificador do quadrinho.
+     * @param raridade Nova raridade do quadrinho.
+     * @return Quantidade de quadrinhos alterados (0 se o quadrinho não existir).
+     */
+    @Transactional
+    public int alterarRaridade(Long id, Quadrinho.Raridade raridade) {
+        Optional<QuadrinhoRepository.ClassificacaoQuadrinho> anterior = quadrinhoRepository.travarClassificacao(id);
+        if (anterior.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        int alterados = quadrinhoRepository.atualizarRaridade(id, raridade, agora);
+        if (alterados > 0) {
+            aplicarAlteracaoSemCarga(id, anterior.get(), raridade, null);
+            buscaQuadrinhos.alterar(id, null, null, raridade, agora);
+            registrarAlteracaoParcial(id, null, null, raridade, agora);
+        }
+        return alterados;
+    }
+
+    /**
+     * Altera apenas os campos informados de um quadrinho, com um único comando UPDATE, sem carregá-lo antes.
+     * Campos nulos em {@code alteracoes} são mantidos como estão.
+     * A raridade e o autor anteriores são lidos, com a linha travada, na mesma transação.
+     *
+     * @param id Identificador do quadrinho.
+     * @param alteracoes Quadrinho contendo apenas os campos a alterar.
+     * @return Quantidade de quadrinhos alterados (0 se o quadrinho não existir).
+     */
+    @Transactional
+    public int atualizarParcialmente(Long id, Quadrinho alteracoes) {
+        Optional<QuadrinhoRepository.ClassificacaoQuadrinho> anterior = quadrinhoRepository.travarClassificacao(id);
+        if (anterior.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Quadrinho> update = cb.createCriteriaUpdate(Quadrinho.class);
+        Root<Quadrinho> quadrinho = update.from(Quadrinho.class);
+        if (alteracoes.getNome() != null) {
+            update.set(quadrinho.get("nome"), alteracoes.getNome());
+        }
+        if (alteracoes.getAutor() != null) {
+            update.set(quadrinho.get("autor"), alteracoes.getAutor());
+        }
+        if (alteracoes.getRaridade() != null) {
+            update.set(quadrinho.get("raridade"), alteracoes.getRaridade());
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        update.set(quadrinho.get("dataModificacao"), agora);
+        update.where(cb.equal(quadrinho.get("id"), id));
+
+        int alterados = entityManager.createQuery(update).executeUpdate();
+        if (alterados > 0) {
+            aplicarAlteracaoSemCarga(id, anterior.get(), alteracoes.getRaridade(), alteracoes.getAutor());
+            buscaQuadrinhos.alterar(id, alteracoes.getNome(), alteracoes.getAutor(), alteracoes.getRaridade(), agora);
+            registrarAlteracaoParcial(id, alteracoes.getNome(), alteracoes.getAutor(), alteracoes.getRaridade(), agora);
+        }
+        return alterados;
+    }
+
+    /**
+     * Busca uma página de quadrinhos por keyset sobre o id.
+     *
+     * @param aposId Último id retornado na página anterior, ou null para começar do início.
+     * @param tamanho Quantidade de quadrinhos desejada, ou null para usar o tamanho padrão.
+     * @return Lista de quadrinhos da página, em ordem crescente de id.
+     */
+    @Transactional(readOnly = true)
+    public List<QuadrinhoDTO> buscarPagina(Long aposId, Integer tamanho) {
+        int limite = tamanho == null ? tamanhoPadraoPagina : Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+        return quadrinhoRepository.listarPagina(aposId == null ? 0L : aposId, Limit.of(limite));
+    }
+
+    /**
+     * Percorre todos os quadrinhos cadastrados, entregando um a um ao consumidor.
+     * As linhas são lidas como {@link QuadrinhoDTO}, fora do contexto de persistência,
+     * de modo que o uso de memória não cresce com o tamanho da tabela.
+     * A leitura é feita no primário, como a das versões do catálogo usadas no ETag da resposta:
+     * com uma réplica atrasada, um corpo antigo sairia com o ETag da versão nova.
+     *
+     * @param consumidor Função que recebe cada quadrinho lido.
+     */
+    @Transactional
+    public void transmitirTodos(Consumer<QuadrinhoDTO> consumidor) {
+        try (Stream<QuadrinhoDTO> quadrinhos = quadrinhoRepository.streamTodos()) {
+            quadrinhos.forEach(consumidor);
+        }
+    }
+
+    /**
+     * Remove do cache as entradas afetadas por uma alteração no quadrinho:
+     * o próprio quadrinho e as listas da sua raridade e do seu autor.
+     * Deve ser chamado com os valores anteriores e posteriores à alteração,
+     * para que um quadrinho que mudou de raridade ou de autor saia das duas listas.
+     *
+     * @param id Identificador do quadrinho alterado.
+     * @param raridade Raridade do quadrinho.
+     * @param autor Autor do quadrinho.
+     */
+    private void invalidarCache(Long id, Quadrinho.Raridade raridade, String autor) {
+        if (id != null) {
+            evict(CacheConfig.QUADRINHOS_POR_ID, id);
+        }
+        if (raridade != null) {
+            evict(CacheConfig.QUADRINHOS_POR_RARIDADE, raridade);
+        }
+        if (autor != null) {
+            evict(CacheConfig.QUADRINHOS_POR_AUTOR, autor);
+        }
+    }
+
+    /**
+     * Registra no feed de alterações o estado de um quadrinho gerenciado.
+     * As alterações pendentes são gravadas antes, para que o registro leve a data de modificação definitiva.
+     */
+    private void registrarAlteracao(String tipo, Quadrinho quadrinho) {
+        entityManager.flush();
+        registroAlteracoes.registrar(tipo, quadrinho.getId(), QuadrinhoDTO.de(quadrinho));
+    }
+
+    /**
+     * Move nas estatísticas e remove do cache um quadrinho alterado sem ser carregado, a partir do estado anterior
+     * lido na mesma transação. Campos nulos não foram alterados.
+     */
+    private void aplicarAlteracaoSemCarga(Long id, QuadrinhoRepository.ClassificacaoQuadrinho anterior,
+                                          Quadrinho.Raridade raridade, String autor) {
+        Quadrinho.Raridade novaRaridade = raridade != null ? raridade : anterior.getRaridade();
+        String novoAutor = autor != null ? autor : anterior.getAutor();
+        estatisticasCatalogo.quadrinhoAlterado(anterior.getRaridade(), anterior.getAutor(), novaRaridade, novoAutor);
+        invalidarCache(id, anterior.getRaridade(), anterior.getAutor());
+        invalidarCache(id, novaRaridade, novoAutor);
+    }
+
+    /**
+     * Registra no feed de alterações uma alteração feita sem carregar o quadrinho, apenas com os campos alterados.
+     */
+    private void registrarAlteracaoParcial(Long id, String nome, String autor, Quadrinho.Raridade raridade, LocalDateTime agora) {
+        Map<String, Object> dados = new LinkedHashMap<>();
+        dados.put("id", id);
+        if (nome != null) {
+            dados.put("nome", nome);
+        }
+        if (autor != null) {
+            dados.put("autor", autor);
+        }
+        if (raridade != null) {
+            dados.put("raridade", raridade);
+        }
+        dados.put("dataModificacao", agora);
+        registroAlteracoes.registrar(RegistroAlteracoes.QUADRINHO_ATUALIZADO, id, dados);
+    }
+
+    private void evict(String nomeCache, Object chave) {
+        Cache cache = cacheManager.getCache(nomeCache);
+        if (cache != null) {
+            cache.evict(chave);
+        }
+    }
+}
\ No newline at end of file
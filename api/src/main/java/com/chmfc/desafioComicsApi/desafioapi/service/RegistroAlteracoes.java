@@ -0,0 +1,211 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.EventoAlteracao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Grava as alterações do catálogo e dos cupons na tabela {@code eventos_alteracao} (outbox).
+ * A gravação usa a conexão da transação corrente, de modo que a alteração e o seu registro
+ * são confirmados ou desfeitos juntos. Os registros são lidos por {@link FeedAlteracoes}
+ * e removidos periodicamente após o período de retenção.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class RegistroAlteracoes {
+
+    /**
+     * Quadrinho cadastrado.
+     */
+    public static final String QUADRINHO_CRIADO = "quadrinho.criado";
+
+    /**
+     * Quadrinho alterado; nas alterações parciais, os dados trazem apenas o id e os campos alterados.
+     */
+    public static final String QUADRINHO_ATUALIZADO = "quadrinho.atualizado";
+
+    /**
+     * Quadrinho gravado pela importação em massa, que não distingue inclusões de atualizações; os dados trazem o estado completo.
+     */
+    public static final String QUADRINHO_IMPORTADO = "quadrinho.importado";
+
+    /**
+     * Quadrinho removido; os dados trazem apenas o id.
+     */
+    public static final String QUADRINHO_REMOVIDO = "quadrinho.removido";
+
+    /**
+     * Cupom emitido para um cliente.
+     */
+    public static final String CUPOM_EMITIDO = "cupom.emitido";
+
+    private static final String INSERIR =
+            "insert into eventos_alteracao (tipo, agregado_id, dados, data_criacao) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final FeedAlteracoes feedAlteracoes;
+
+    /**
+     * Tempo durante o qual as alterações ficam disponíveis no feed.
+     */
+    @Value("${eventos.retencao:7d}")
+    private Duration retencao;
+
+    /**
+     * Quantidade máxima de registros removidos em cada comando da limpeza.
+     */
+    @Value("${eventos.expurgo.tamanho-bloco:1000}")
+    private int tamanhoBlocoExpurgo;
+
+    /**
+     * Registra uma alteração.
+     *
+     * @param tipo Tipo da alteração.
+     * @param agregadoId Identificador do quadrinho ou do cupom alterado.
+     * @param dados Estado gravado, serializado em JSON.
+     */
+    public void registrar(String tipo, long agregadoId, Object dados) {
+        String json = json(dados);
+        LocalDateTime agora = LocalDateTime.now();
+        KeyHolder chaves = new GeneratedKeyHolder();
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement comando = conexao.prepareStatement(INSERIR, Statement.RETURN_GENERATED_KEYS);
+            preencher(comando, tipo, agregadoId, json, agora);
+            return comando;
+        }, chaves);
+        confirmarAposCommit(List.of(new EventoAlteracao(sequencia(chaves.getKeys()), tipo, agregadoId, json, agora)));
+    }
+
+    /**
+     * Registra várias alterações do mesmo tipo em um único lote JDBC.
+     *
+     * @param tipo Tipo das alterações.
+     * @param dados Estados gravados, serializados em JSON.
+     * @param agregadoId Função que extrai o identificador de cada estado.
+     * @param <T> Tipo dos estados.
+     */
+    public <T> void registrarTodos(String tipo, Collection<T> dados, Function<T, Long> agregadoId) {
+        if (dados.isEmpty()) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        List<T> itens = List.copyOf(dados);
+        List<String> jsons = itens.stream().map(this::json).toList();
+        KeyHolder chaves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(conexao -> conexao.prepareStatement(INSERIR, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement comando, int i) throws SQLException {
+                        preencher(comando, tipo, agregadoId.apply(itens.get(i)), jsons.get(i), agora);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return itens.size();
+                    }
+                }, chaves);
+        List<Map<String, Object>> geradas = chaves.getKeyList();
+        List<EventoAlteracao> eventos = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            eventos.add(new EventoAlteracao(sequencia(geradas.get(i)), tipo, agregadoId.apply(itens.get(i)), jsons.get(i), agora));
+        }
+        confirmarAposCommit(eventos);
+    }
+
+    /**
+     * Remove os registros mais antigos que o período de retenção, em blocos limitados pela sequência.
+     *
+     * @return Quantidade de registros removidos.
+     */
+    @Scheduled(cron = "${eventos.expurgo.cron:0 15 * * * *}")
+    public long expurgar() {
+        Timestamp limite = Timestamp.valueOf(LocalDateTime.now().minus(retencao));
+        long removidos = 0;
+        int bloco;
+        do {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "select id from eventos_alteracao where data_criacao < ? order by data_criacao limit ?",
+                    Long.class, limite, tamanhoBlocoExpurgo);
+            if (ids.isEmpty()) {
+                break;
+            }
+            bloco = jdbcTemplate.update("delete from eventos_alteracao where id <= ? and data_criacao < ?",
+                    Collections.max(ids), limite);
+            removidos += bloco;
+        } while (bloco >= tamanhoBlocoExpurgo);
+        if (removidos > 0) {
+            log.info("Expurgo do feed de alterações: {} registros removidos", removidos);
+        }
+        return removidos;
+    }
+
+    /**
+     * Entrega ao feed as alterações registradas assim que a transação corrente for confirmada,
+     * o que também antecipa a leitura do banco.
+     */
+    private void confirmarAposCommit(List<EventoAlteracao> eventos) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    feedAlteracoes.confirmadas(eventos);
+                }
+            });
+        } else {
+            feedAlteracoes.confirmadas(eventos);
+        }
+    }
+
+    private static void preencher(PreparedStatement comando, String tipo, long agregadoId, String json,
+                                  LocalDateTime agora) throws SQLException {
+        comando.setString(1, tipo);
+        comando.setLong(2, agregadoId);
+        comando.setString(3, json);
+        comando.setTimestamp(4, Timestamp.valueOf(agora));
+    }
+
+    /**
+     * Extrai a sequência gerada para um registro; o nome da coluna retornada varia conforme o driver.
+     */
+    private static long sequencia(Map<String, Object> chaves) {
+        if (chaves == null || chaves.size() != 1) {
+            throw new IllegalStateException("Sequência do registro de alteração não retornada pelo banco: " + chaves);
+        }
+        return ((Number) chaves.values().iterator().next()).longValue();
+    }
+
+    private String json(Object dados) {
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Registro das requisições de escrita enviadas com o cabeçalho {@value #CABECALHO}.
+ * A primeira requisição com uma chave executa a operação; as repetições com a mesma chave recebem a mesma resposta,
+ * marcada com o cabeçalho {@value #CABECALHO_REPETICAO}, sem executar a operação de novo. Repetições que chegam
+ * enquanto a primeira ainda executa aguardam o seu resultado. Uma chave reaproveitada com outro corpo é recusada com 422.
+ * <p>
+ * As respostas ficam em memória, limitadas por quantidade e por tempo de vida; as execuções em andamento não contam
+ * para o limite de quantidade e só podem ser descartadas depois de concluídas.
+ * <p>
+ * Com {@code idempotencia.persistir=true}, a chave também é reservada na tabela {@code chaves_idempotencia} antes de
+ * a operação executar: uma linha pendente, sem status, cuja chave primária impede que outra instância execute a mesma
+ * operação. A instância que encontra a linha pendente aguarda a resposta gravada por até {@code idempotencia.espera-maxima}
+ * e responde 409 se ela não chegar. Ao final, a linha recebe a resposta; se a operação falhar (exceção ou status 5xx),
+ * a linha é removida e uma nova repetição executa a operação outra vez. Uma reserva que não é concluída em
+ * {@code idempotencia.reserva-maxima} (a instância parou durante a operação) é considerada abandonada e pode ser
+ * tomada por outra requisição.
+ */
+@Slf4j
+@Component
+public class RegistroIdempotencia {
+
+    /**
+     * Cabeçalho com a chave de idempotência escolhida pelo cliente.
+     */
+    public static final String CABECALHO = "Idempotency-Key";
+
+    /**
+     * Cabeçalho presente nas respostas repetidas a partir do registro.
+     */
+    public static final String CABECALHO_REPETICAO = "Idempotent-Replayed";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+    private static final long INTERVALO_CONSULTA_PENDENTE_MS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Execucao> execucoes;
+    private final Duration ttl;
+    private final Duration esperaMaxima;
+    private final Duration reservaMaxima;
+    private final boolean persistir;
+    private final LongAdder execucoesRealizadas = new LongAdder();
+    private final LongAdder repeticoes = new LongAdder();
+    private final LongAdder recusas = new LongAdder();
+
+    /**
+     * Cria o registro.
+     *
+     * @param jdbcTemplate Acesso à tabela {@code chaves_idempotencia}.
+     * @param objectMapper Serializa as requisições, para a impressão digital, e as respostas persistidas.
+     * @param tamanhoMaximo Quantidade máxima de chaves mantidas em memória.
+     * @param ttl Tempo durante o qual uma chave repete a resposta registrada.
+     * @param esperaMaxima Tempo máximo que uma repetição aguarda a execução da primeira requisição.
+     * @param reservaMaxima Tempo após o qual uma reserva persistida sem resposta é considerada abandonada.
+     * @param persistir Se as chaves também são reservadas e as respostas gravadas no banco.
+     */
+    public RegistroIdempotencia(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                @Value("${idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                                @Value("${idempotencia.ttl:24h}") Duration ttl,
+                                @Value("${idempotencia.espera-maxima:10s}") Duration esperaMaxima,
+                                @Value("${idempotencia.reserva-maxima:5m}") Duration reservaMaxima,
+                                @Value("${idempotencia.persistir:false}") boolean persistir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.esperaMaxima = esperaMaxima;
+        this.reservaMaxima = reservaMaxima;
+        this.persistir = persistir;
+        this.execucoes = Caffeine.newBuilder()
+                .maximumWeight(tamanhoMaximo)
+                .weigher((String identificador, Execucao execucao) -> execucao.resultado.isDone() ? 1 : 0)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Executa a operação uma única vez por chave, repetindo a resposta registrada nas requisições seguintes.
+     *
+     * @param chave Valor do cabeçalho {@value #CABECALHO}; se null, a operação é executada sem registro.
+     * @param operacao Método e caminho da requisição; a mesma chave pode ser usada em operações diferentes.
+     * @param requisicao Corpo da requisição, comparado entre as repetições; null se não houver.
+     * @param tipo Tipo do corpo da resposta, usado para ler as respostas persistidas.
+     * @param acao Operação a executar.
+     * @param <T> Tipo do corpo da resposta.
+     * @return A resposta da operação ou a resposta registrada para a chave.
+     * @throws ResponseStatusException com status 400 se a chave for inválida, 422 se a chave já foi usada
+     *                                 com outro corpo ou 409 se a primeira requisição, nesta ou em outra instância,
+     *                                 não terminar dentro da espera máxima.
+     */
+    public <T> ResponseEntity<T> executar(String chave, String operacao, Object requisicao, Class<T> tipo,
+                                          Supplier<ResponseEntity<T>> acao) {
+        if (chave == null) {
+            return acao.get();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "O cabeçalho " + CABECALHO + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+        String identificador = operacao + " " + chave;
+        Execucao nova = new Execucao(impressao(operacao, requisicao));
+        Execucao existente = execucoes.asMap().putIfAbsent(identificador, nova);
+        if (existente != null) {
+            return repetir(existente, nova.impressao, tipo);
+        }
+
+        Resposta resposta;
+        try {
+            resposta = persistir ? reservar(identificador, nova.impressao, tipo) : null;
+            if (resposta != null) {
+                concluir(identificador, nova, resposta);
+                return repetir(nova, nova.impressao, tipo);
+            }
+        } catch (RuntimeException e) {
+            execucoes.asMap().remove(identificador, nova);
+            nova.resultado.completeExceptionally(e);
+            throw e;
+        }
+        try {
+            ResponseEntity<T> resultado = acao.get();
+            execucoesRealizadas.increment();
+            resposta = new Resposta(resultado.getStatusCode().value(), resultado.getBody());
+        } catch (RuntimeException e) {
+            liberar(identificador);
+            execucoes.asMap().remove(identificador, nova);
+            nova.resultado.completeExceptionally(e);
+            throw e;
+        }
+        if (HttpStatus.valueOf(resposta.status()).is5xxServerError()) {
+            liberar(identificador);
+            execucoes.asMap().remove(identificador, nova);
+            nova.resultado.complete(resposta);
+        } else {
+            if (persistir) {
+                gravar(identificador, resposta);
+            }
+            concluir(identificador, nova, resposta);
+        }
+        return ResponseEntity.status(resposta.status()).body(tipo.cast(resposta.corpo()));
+    }
+
+    /**
+     * Remove do banco as respostas com tempo de vida esgotado.
+     * As entradas em memória expiram sozinhas.
+     *
+     * @return Quantidade de registros removidos.
+     */
+    @Scheduled(fixedDelayString = "${idempotencia.intervalo-expurgo:600000}")
+    public int expurgar() {
+        if (!persistir) {
+            return 0;
+        }
+        return jdbcTemplate.update("delete from chaves_idempotencia where expira_em <= ?", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Descarta as respostas mantidas em memória; as persistidas continuam disponíveis.
+     */
+    public void limparMemoria() {
+        execucoes.invalidateAll();
+    }
+
+    /**
+     * Retorna os contadores do registro.
+     *
+     * @return Mapa com as chaves em memória, as operações executadas, as respostas repetidas e as chaves recusadas.
+     */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("persistir", persistir);
+        estatisticas.put("chavesEmMemoria", execucoes.estimatedSize());
+        estatisticas.put("execucoes", execucoesRealizadas.sum());
+        estatisticas.put("repeticoes", repeticoes.sum());
+        estatisticas.put("recusas", recusas.sum());
+        return estatisticas;
+    }
+
+    /**
+     * Aguarda a execução registrada para a chave e repete a sua resposta.
+     */
+    private <T> ResponseEntity<T> repetir(Execucao execucao, String impressao, Class<T> tipo) {
+        if (!execucao.impressao.equals(impressao)) {
+            recusas.increment();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "A chave " + CABECALHO + " já foi usada com outra requisição.");
+        }
+        Resposta resposta;
+        try {
+            resposta = execucao.resultado.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A requisição com esta chave ainda está em execução.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Requisição interrompida.");
+        }
+        repeticoes.increment();
+        return ResponseEntity.status(resposta.status())
+                .header(CABECALHO_REPETICAO, "true")
+                .body(tipo.cast(resposta.corpo()));
+    }
+
+    /**
+     * Marca a execução como concluída e a substitui por ela mesma no cache, para que o seu peso seja recalculado
+     * e ela passe a contar para o limite de quantidade.
+     */
+    private void concluir(String identificador, Execucao execucao, Resposta resposta) {
+        execucao.resultado.complete(resposta);
+        execucoes.asMap().replace(identificador, execucao, execucao);
+    }
+
+    /**
+     * Reserva a chave no banco com uma linha pendente. Se a chave já estiver reservada, devolve a resposta gravada,
+     * aguardando-a enquanto a reserva estiver pendente; reservas abandonadas são removidas e a reserva é refeita.
+     *
+     * @return null se a chave foi reservada e a operação deve executar; a resposta gravada, caso contrário.
+     */
+    private Resposta reservar(String identificador, String impressao, Class<?> tipo) {
+        long limite = System.nanoTime() + esperaMaxima.toNanos();
+        while (true) {
+            LocalDateTime agora = LocalDateTime.now();
+            try {
+                jdbcTemplate.update("insert into chaves_idempotencia (chave, impressao, status, corpo, criado_em, expira_em) values (?, ?, null, null, ?, ?)",
+                        identificador, impressao, Timestamp.valueOf(agora), Timestamp.valueOf(agora.plus(reservaMaxima)));
+                return null;
+            } catch (DuplicateKeyException e) {
+                // Reservada por outra requisição: segue para a leitura da linha existente
+            }
+            List<Map<String, Object>> linhas = jdbcTemplate.queryForList(
+                    "select impressao, status, corpo, case when expira_em > ? then 1 else 0 end as vigente from chaves_idempotencia where chave = ?",
+                    Timestamp.valueOf(agora), identificador);
+            if (linhas.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> linha = linhas.get(0);
+            if (((Number) linha.get("vigente")).intValue() == 0) {
+                jdbcTemplate.update("delete from chaves_idempotencia where chave = ? and expira_em <= ?", identificador, Timestamp.valueOf(agora));
+                continue;
+            }
+            if (!impressao.equals(linha.get("impressao"))) {
+                recusas.increment();
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "A chave " + CABECALHO + " já foi usada com outra requisição.");
+            }
+            if (linha.get("status") != null) {
+                String corpo = (String) linha.get("corpo");
+                try {
+                    return new Resposta(((Number) linha.get("status")).intValue(), corpo == null ? null : objectMapper.readValue(corpo, tipo));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (System.nanoTime() >= limite) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "A requisição com esta chave ainda está em execução.");
+            }
+            try {
+                Thread.sleep(INTERVALO_CONSULTA_PENDENTE_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Requisição interrompida.");
+            }
+        }
+    }
+
+    /**
+     * Grava a resposta na reserva da chave. Uma falha é apenas registrada no log: a resposta continua em memória,
+     * e a reserva pendente expira após {@code idempotencia.reserva-maxima}.
+     */
+    private void gravar(String identificador, Resposta resposta) {
+        try {
+            jdbcTemplate.update("update chaves_idempotencia set status = ?, corpo = ?, expira_em = ? where chave = ?",
+                    resposta.status(), resposta.corpo() == null ? null : objectMapper.writeValueAsString(resposta.corpo()),
+                    Timestamp.valueOf(LocalDateTime.now().plus(ttl)), identificador);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Falha ao persistir a chave de idempotência {}: {}", identificador, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove a reserva da chave após uma falha da operação, para que uma repetição possa executá-la de novo.
+     */
+    private void liberar(String identificador) {
+        if (!persistir) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("delete from chaves_idempotencia where chave = ? and status is null", identificador);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao liberar a chave de idempotência {}: {}", identificador, e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula a impressão digital (SHA-256) da operação e do corpo da requisição.
+     */
+    private String impressao(String operacao, Object requisicao) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operacao.getBytes(StandardCharsets.UTF_8));
+            if (requisicao != null) {
+                digest.update(objectMapper.writeValueAsBytes(requisicao));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Resposta registrada para uma chave.
+     *
+     * @param status Status HTTP da resposta.
+     * @param corpo Corpo da resposta.
+     */
+    private record Resposta(int status, Object corpo) {
+    }
+
+    /**
+     * Execução de uma chave: a impressão da requisição original e o resultado, quando concluída.
+     */
+    private static final class Execucao {
+
+        private final String impressao;
+        private final CompletableFuture<Resposta> resultado = new CompletableFuture<>();
+
+        private Execucao(String impressao) {
+            this.impressao = impressao;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação de quadrinhos em massa.
+ *
+ * @param linhasLidas Quantidade de linhas de dados lidas do arquivo (sem contar o cabeçalho e linhas em branco).
+ * @param gravadas Quantidade de quadrinhos inseridos ou atualizados.
+ * @param duplicadas Quantidade de linhas descartadas por repetirem o nome de uma linha posterior do mesmo bloco.
+ * @param rejeitadas Quantidade de linhas recusadas por erro de formato, validação ou gravação.
+ * @param erros Detalhe dos erros, limitado à quantidade máxima configurada.
+ */
+public record RelatorioImportacao(long linhasLidas, long gravadas, long duplicadas, long rejeitadas, List<Erro> erros) {
+
+    /**
+     * Erro em uma linha do arquivo importado.
+     *
+     * @param linha Número da linha no arquivo, começando em 1.
+     * @param mensagem Descrição do erro.
+     */
+    public record Erro(long linha, String mensagem) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+
+import java.util.List;
+
+/**
+ * Página de resultados de uma busca textual por quadrinhos, ordenada por relevância.
+ *
+ * @param itens Quadrinhos encontrados na página atual.
+ * @param total Quantidade total de quadrinhos que atendem à busca.
+ * @param pagina Número da página atual, começando em 0.
+ * @param tamanho Quantidade máxima de itens por página.
+ */
+public record ResultadoBusca(List<Item> itens, int total, int pagina, int tamanho) {
+
+    /**
+     * Quadrinho encontrado na busca.
+     *
+     * @param id Identificador do quadrinho.
+     * @param nome Nome do quadrinho.
+     * @param autor Autor do quadrinho.
+     * @param raridade Raridade do quadrinho.
+     * @param pontuacao Relevância do quadrinho para a busca; maior é mais relevante.
+     */
+    public record Item(Long id, String nome, String autor, Quadrinho.Raridade raridade, int pontuacao) {
+    }
+}
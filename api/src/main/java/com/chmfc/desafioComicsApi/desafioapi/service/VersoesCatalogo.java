@@ -0,0 +1,216 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.EventoAlteracao;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.LoteAlteracoes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versões das coleções do catálogo de quadrinhos, usadas nas requisições condicionais (ETag / Last-Modified).
+ * A versão de cada coleção (o catálogo inteiro e cada raridade) é a sequência, no feed de alterações, da última
+ * alteração que a afetou. As versões são mantidas em memória a partir das alterações publicadas por
+ * {@link FeedAlteracoes}, que todas as instâncias recebem na mesma ordem; a consulta de uma versão não acessa o banco.
+ * <p>
+ * Só a inclusão identifica a raridade afetada; as demais alterações, que podem ter tirado o quadrinho de outra
+ * raridade, avançam todas as coleções. As alterações confirmadas nesta instância mudam a versão logo após o commit:
+ * até serem publicadas pelo feed, a versão das coleções afetadas leva também a sequência da alteração local.
+ * Na inicialização, as coleções partem da sequência em que o feed começa a leitura; instâncias iniciadas em momentos
+ * diferentes podem ter versões diferentes para a mesma coleção até a próxima alteração dela, o que custa uma resposta
+ * completa, mas nunca um 304 indevido.
+ */
+@Component
+@RequiredArgsConstructor
+public class VersoesCatalogo implements FeedAlteracoes.Ouvinte {
+
+    private static final String TODOS = "todos";
+    private static final String PREFIXO_QUADRINHO = "quadrinho.";
+    private static final List<String> COLECOES = colecoes();
+
+    private final FeedAlteracoes feedAlteracoes;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Sequências de cada coleção, alteradas apenas sob o monitor deste objeto; vazio até o início do feed.
+     */
+    private final Map<String, Sequencias> sequencias = new HashMap<>();
+
+    /**
+     * Última sequência publicada pelo feed.
+     */
+    private long publicada;
+
+    private volatile Map<String, Versao> versoes = Map.of();
+
+    /**
+     * Versão de uma coleção.
+     *
+     * @param valor Identificador da versão, igual em todas as instâncias para o mesmo conteúdo da coleção.
+     * @param ultimaModificacao Instante da última alteração conhecida, em milissegundos desde a época.
+     */
+    public record Versao(String valor, long ultimaModificacao) {
+
+        /**
+         * Retorna o valor do cabeçalho ETag para uma representação da coleção.
+         * O ETag é fraco porque a mesma representação pode ser enviada com ou sem compressão,
+         * e o servidor não comprime respostas com ETag forte.
+         *
+         * @param representacao Nome da representação (por exemplo, o formato da resposta).
+         * @return ETag fraco, com o prefixo W/.
+         */
+        public String etag(String representacao) {
+            return "W/\"" + valor + "-" + representacao + "\"";
+        }
+    }
+
+    @PostConstruct
+    void acompanharFeed() {
+        feedAlteracoes.acompanhar(this);
+    }
+
+    /**
+     * Retorna a versão atual do catálogo completo.
+     *
+     * @return Versão do catálogo.
+     */
+    public Versao versaoTodos() {
+        return atual(TODOS);
+    }
+
+    /**
+     * Retorna a versão atual da lista de quadrinhos de uma raridade.
+     *
+     * @param raridade Raridade da lista.
+     * @return Versão da lista.
+     */
+    public Versao versaoRaridade(Quadrinho.Raridade raridade) {
+        return atual(raridade.name());
+    }
+
+    /**
+     * Avança as coleções afetadas pelas alterações publicadas e descarta as sequências locais que o feed já alcançou.
+     */
+    @Override
+    public synchronized void publicadas(LoteAlteracoes lote) {
+        if (sequencias.isEmpty()) {
+            COLECOES.forEach(colecao -> sequencias.put(colecao, new Sequencias(lote.proxima())));
+        }
+        for (EventoAlteracao evento : lote.eventos()) {
+            afetadas(evento).forEach(colecao -> sequencias.get(colecao).publicada = evento.sequencia());
+        }
+        publicada = lote.proxima();
+        for (Sequencias colecao : sequencias.values()) {
+            if (colecao.local <= publicada) {
+                colecao.local = 0;
+            }
+        }
+        publicarVersoes();
+    }
+
+    /**
+     * Muda a versão das coleções afetadas por alterações desta instância que o feed ainda não publicou.
+     */
+    @Override
+    public synchronized void confirmadas(List<EventoAlteracao> eventos) {
+        if (sequencias.isEmpty()) {
+            return;
+        }
+        for (EventoAlteracao evento : eventos) {
+            if (evento.sequencia() > publicada) {
+                afetadas(evento).forEach(colecao -> {
+                    Sequencias atual = sequencias.get(colecao);
+                    atual.local = Math.max(atual.local, evento.sequencia());
+                });
+            }
+        }
+        publicarVersoes();
+    }
+
+    private Versao atual(String colecao) {
+        Versao versao = versoes.get(colecao);
+        if (versao == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Versões do catálogo em inicialização; tente novamente.");
+        }
+        return versao;
+    }
+
+    /**
+     * Publica as novas versões.
+     * Quando a versão de uma coleção muda, o Last-Modified passa a ser o instante em que a mudança foi percebida
+     * (na primeira carga, o instante da carga), sempre num segundo posterior ao do Last-Modified anterior,
+     * já que o cabeçalho tem precisão de segundos.
+     */
+    private void publicarVersoes() {
+        long agora = System.currentTimeMillis();
+        Map<String, Versao> novas = new HashMap<>();
+        sequencias.forEach((colecao, atual) -> {
+            String valor = colecao + "-" + Long.toString(atual.publicada, 36)
+                    + (atual.local > 0 ? "." + Long.toString(atual.local, 36) : "");
+            Versao anterior = versoes.get(colecao);
+            if (anterior != null && anterior.valor().equals(valor)) {
+                novas.put(colecao, anterior);
+            } else {
+                long ultimaModificacao = anterior == null ? agora
+                        : Math.max(agora, anterior.ultimaModificacao() / 1000 * 1000 + 1000);
+                novas.put(colecao, new Versao(valor, ultimaModificacao));
+            }
+        });
+        versoes = Map.copyOf(novas);
+    }
+
+    private List<String> afetadas(EventoAlteracao evento) {
+        if (!evento.tipo().startsWith(PREFIXO_QUADRINHO)) {
+            return List.of();
+        }
+        if (RegistroAlteracoes.QUADRINHO_CRIADO.equals(evento.tipo())) {
+            Quadrinho.Raridade raridade = raridade(evento.dados());
+            if (raridade != null) {
+                return List.of(TODOS, raridade.name());
+            }
+        }
+        return COLECOES;
+    }
+
+    private Quadrinho.Raridade raridade(String dados) {
+        try {
+            JsonNode raridade = objectMapper.readTree(dados).path("raridade");
+            return raridade.isTextual() ? Quadrinho.Raridade.valueOf(raridade.asText()) : null;
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static List<String> colecoes() {
+        List<String> colecoes = new ArrayList<>();
+        colecoes.add(TODOS);
+        for (Quadrinho.Raridade raridade : Quadrinho.Raridade.values()) {
+            colecoes.add(raridade.name());
+        }
+        return List.copyOf(colecoes);
+    }
+
+    /**
+     * Sequência da última alteração publicada que afetou a coleção e a da última alteração local ainda não publicada
+     * (0 se não houver).
+     */
+    private static final class Sequencias {
+
+        private long publicada;
+        private long local;
+
+        private Sequencias(long publicada) {
+            this.publicada = publicada;
+        }
+    }
+}
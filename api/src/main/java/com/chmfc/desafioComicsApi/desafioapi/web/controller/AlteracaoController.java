@@ -0,0 +1,79 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.service.FeedAlteracoes;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.LoteAlteracoes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Controlador REST do feed de alterações do catálogo e dos cupons.
+ * Permite que consumidores recebam apenas o que mudou desde a última sequência recebida,
+ * em vez de reler o catálogo inteiro.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/alteracoes")
+public class AlteracaoController {
+
+    private final FeedAlteracoes feedAlteracoes;
+
+    /**
+     * Endpoint de long-poll: retorna as alterações posteriores à sequência informada,
+     * esperando pela próxima alteração se ainda não houver nenhuma.
+     *
+     * @param desde Sequência da última alteração recebida; 0 para começar do início.
+     * @param limite Quantidade máxima de alterações na resposta.
+     * @param espera Tempo máximo de espera, em segundos; 0 para responder imediatamente.
+     * @return Lote de alterações e a sequência a informar na próxima consulta.
+     */
+    @GetMapping
+    public DeferredResult<LoteAlteracoes> getAlteracoes(@RequestParam(defaultValue = "0") long desde,
+                                                        @RequestParam(defaultValue = "500") int limite,
+                                                        @RequestParam(defaultValue = "0") int espera) {
+        return feedAlteracoes.aguardar(desde, limite, Duration.ofSeconds(espera));
+    }
+
+    /**
+     * Endpoint de server-sent events: envia cada alteração posterior à sequência informada à medida que é registrada.
+     * Na reconexão, o cabeçalho Last-Event-ID enviado pelo navegador tem precedência sobre o parâmetro.
+     *
+     * @param desde Sequência da última alteração recebida; se ausente, apenas as próximas alterações são enviadas.
+     * @param ultimoEvento Id do último evento recebido, enviado automaticamente pelos clientes na reconexão.
+     * @return Conexão de eventos.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlteracoes(@RequestParam(required = false) Long desde,
+                                       @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento) {
+        if (ultimoEvento != null) {
+            try {
+                desde = Long.valueOf(ultimoEvento.trim());
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Last-Event-ID inválido.");
+            }
+        }
+        return feedAlteracoes.assinar(desde);
+    }
+
+    /**
+     * Endpoint para recuperar a situação do feed de alterações.
+     *
+     * @return {@link ResponseEntity} contendo a última sequência lida e a quantidade de consumidores conectados.
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<Map<String, Object>> getEstatisticas() {
+        return ResponseEntity.ok(feedAlteracoes.estatisticas());
+    }
+}
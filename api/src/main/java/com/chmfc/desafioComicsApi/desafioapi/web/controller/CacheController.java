@@ -0,0 +1,61 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.service.RegistroIdempotencia;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST para inspeção do cache em memória.
+ * Fornece os contadores de acertos, falhas e remoções de cada cache e do registro de chaves de idempotência.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/cache")
+public class CacheController {
+
+    private final CacheManager cacheManager;
+    private final RegistroIdempotencia registroIdempotencia;
+
+    /**
+     * Endpoint para recuperar as estatísticas de todos os caches.
+     *
+     * @return {@link ResponseEntity} contendo, para cada cache, o tamanho estimado e os contadores de uso.
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<Map<String, Map<String, Object>>> getEstatisticas() {
+        Map<String, Map<String, Object>> estatisticas = new LinkedHashMap<>();
+        for (String nome : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats stats = caffeine.stats();
+                Map<String, Object> valores = new LinkedHashMap<>();
+                valores.put("tamanho", caffeine.estimatedSize());
+                valores.put("acertos", stats.hitCount());
+                valores.put("falhas", stats.missCount());
+                valores.put("remocoes", stats.evictionCount());
+                valores.put("taxaAcerto", stats.hitRate());
+                estatisticas.put(nome, valores);
+            }
+        }
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    /**
+     * Endpoint para recuperar as estatísticas do registro de chaves de idempotência.
+     *
+     * @return {@link ResponseEntity} contendo as chaves em memória e os contadores de execuções, repetições e recusas.
+     */
+    @GetMapping("/idempotencia/estatisticas")
+    public ResponseEntity<Map<String, Object>> getEstatisticasIdempotencia() {
+        return ResponseEntity.ok(registroIdempotencia.estatisticas());
+    }
+}
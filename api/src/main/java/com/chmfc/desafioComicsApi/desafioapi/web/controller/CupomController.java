@@ -0,0 +1,197 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.config.FormatosBinariosConfig;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.service.CupomExpurgoService;
+import com.chmfc.desafioComicsApi.desafioapi.service.CupomPool;
+import com.chmfc.desafioComicsApi.desafioapi.service.CupomService;
+import com.chmfc.desafioComicsApi.desafioapi.service.FiltroCupons;
+import com.chmfc.desafioComicsApi.desafioapi.service.ListaCupons;
+import com.chmfc.desafioComicsApi.desafioapi.service.RegistroIdempotencia;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para gerenciar cupons.
+ * Fornece endpoints para gerar cupons e recuperar cupons por raridade.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/cupons")
+public class CupomController {
+
+    private final CupomService cupomService;
+    private final CupomPool cupomPool;
+    private final FiltroCupons filtroCupons;
+    private final CupomExpurgoService cupomExpurgoService;
+    private final ListaCupons listaCupons;
+    private final RegistroIdempotencia registroIdempotencia;
+
+    /**
+     * Quantidade máxima de cupons aceita em uma única requisição de emissão em massa.
+     */
+    @Value("${cupons.lote.quantidade-maxima:100000}")
+    private int quantidadeMaxima;
+
+    /**
+     * Endpoint para gerar um novo cupom com base na raridade do quadrinho.
+     *
+     * Com o cabeçalho Idempotency-Key, reenvios da mesma requisição recebem o mesmo cupom, sem emitir outro.
+     *
+     * @param raridade A raridade do quadrinho para o qual o cupom será gerado.
+     * @param chaveIdempotencia Chave de idempotência escolhida pelo cliente, opcional.
+     * @return {@link ResponseEntity} contendo o cupom recém-criado.
+     */
+    @PostMapping("/gerar/{raridade}")
+    public ResponseEntity<CupomDTO> gerarCupom(@PathVariable Quadrinho.Raridade raridade,
+                                               @RequestHeader(value = RegistroIdempotencia.CABECALHO, required = false) String chaveIdempotencia) {
+        return registroIdempotencia.executar(chaveIdempotencia, "POST /cupons/gerar/" + raridade, null, CupomDTO.class, () -> {
+            Cupom cupom = cupomService.gerarCupom(raridade);
+            return ResponseEntity.ok(CupomDTO.de(cupom));
+        });
+    }
+
+    /**
+     * Endpoint para gerar vários cupons de uma vez com base na raridade do quadrinho.
+     * Os códigos são transmitidos em texto, um por linha, à medida que cada bloco é persistido.
+     *
+     * @param raridade   A raridade do quadrinho para o qual os cupons serão gerados.
+     * @param quantidade A quantidade de cupons a gerar.
+     * @return {@link ResponseEntity} contendo os códigos dos cupons gerados.
+     */
+    @PostMapping(value = "/gerar/{raridade}", params = "quantidade")
+    public ResponseEntity<StreamingResponseBody> gerarCupons(@PathVariable Quadrinho.Raridade raridade,
+                                                             @RequestParam int quantidade) {
+        if (quantidade < 1 || quantidade > quantidadeMaxima) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A quantidade deve estar entre 1 e " + quantidadeMaxima + ".");
+        }
+        StreamingResponseBody corpo = saida -> {
+            BufferedWriter escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            cupomService.gerarCupons(raridade, quantidade, cupom -> {
+                try {
+                    escritor.write(cupom.getCodigo());
+                    escritor.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(corpo);
+    }
+
+    /**
+     * Endpoint para recuperar uma lista de cupons válidos com base na raridade do quadrinho.
+     * A lista é servida já serializada e comprimida a partir de {@link ListaCupons}, inteira ou em páginas;
+     * os totais de páginas e de cupons são informados nos cabeçalhos X-Total-Paginas e X-Total-Cupons.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param cursor Cursor da página, do cabeçalho X-Proximo-Cursor da anterior; vazio para a primeira página;
+     *               se ausente, retorna todos os cupons.
+     * @param aceitaCodificacao Cabeçalho Accept-Encoding; com gzip, a resposta é enviada comprimida.
+     * @return {@link ResponseEntity} contendo uma lista de cupons válidos que correspondem à raridade fornecida.
+     */
+    @GetMapping("/raridade/{raridade}")
+    public ResponseEntity<StreamingResponseBody> getCuponsByRaridade(@PathVariable Quadrinho.Raridade raridade,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceitaCodificacao) {
+        return RespostaListaCupons.responder(listaCupons.conteudo(raridade, cursor), aceitaCodificacao);
+    }
+
+    /**
+     * Endpoint para recuperar a lista de cupons válidos de uma raridade em CBOR ou Smile.
+     * Os cupons vêm dos mesmos blocos de {@link ListaCupons}, com a mesma paginação,
+     * mas são serializados na requisição pelo conversor do formato negociado.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param cursor Cursor da página, do cabeçalho X-Proximo-Cursor da anterior; vazio para a primeira página;
+     *               se ausente, retorna todos os cupons.
+     * @return {@link ResponseEntity} contendo uma lista de cupons válidos que correspondem à raridade fornecida.
+     */
+    @GetMapping(value = "/raridade/{raridade}", produces = {MediaType.APPLICATION_CBOR_VALUE, FormatosBinariosConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<CupomDTO>> getCuponsByRaridadeBinario(@PathVariable Quadrinho.Raridade raridade,
+                                                                     @RequestParam(required = false) String cursor) {
+        return RespostaListaCupons.responder(listaCupons.cupons(raridade, cursor));
+    }
+
+    /**
+     * Endpoint para recuperar os totais da lista pré-serializada de cupons.
+     *
+     * @return {@link ResponseEntity} contendo, por raridade, as quantidades de cupons, páginas e bytes comprimidos.
+     */
+    @GetMapping("/lista/estatisticas")
+    public ResponseEntity<Map<String, Object>> getEstatisticasLista() {
+        return ResponseEntity.ok(listaCupons.estatisticas());
+    }
+
+    /**
+     * Endpoint para recuperar o estado da reserva de cupons pré-gerados.
+     *
+     * @return {@link ResponseEntity} contendo os cupons disponíveis por raridade e os contadores da reserva.
+     */
+    @GetMapping("/pool/estatisticas")
+    public ResponseEntity<Map<String, Object>> getEstatisticasPool() {
+        return ResponseEntity.ok(cupomPool.estatisticas());
+    }
+
+    /**
+     * Endpoint para validar um cupom pelo seu código.
+     *
+     * @param codigo O código do cupom.
+     * @return {@link ResponseEntity} contendo o cupom encontrado, ou status HTTP 404 (Not Found) se o código não existir.
+     */
+    @GetMapping("/validar/{codigo}")
+    public ResponseEntity<CupomDTO> validarCupom(@PathVariable String codigo) {
+        return ResponseEntity.of(cupomService.buscarPorCodigo(codigo).map(CupomDTO::de));
+    }
+
+    /**
+     * Endpoint para resgatar um uso de um cupom.
+     *
+     * @param codigo O código do cupom.
+     * @return {@link ResponseEntity} contendo o cupom resgatado, com os usos restantes atualizados.
+     */
+    @PostMapping("/resgatar/{codigo}")
+    public ResponseEntity<CupomDTO> resgatarCupom(@PathVariable String codigo) {
+        return ResponseEntity.ok(CupomDTO.de(cupomService.resgatar(codigo)));
+    }
+
+    /**
+     * Endpoint para recuperar os contadores do filtro de códigos de cupom.
+     *
+     * @return {@link ResponseEntity} contendo a situação do filtro e os totais de consultas e recusas.
+     */
+    @GetMapping("/filtro/estatisticas")
+    public ResponseEntity<Map<String, Object>> getEstatisticasFiltro() {
+        return ResponseEntity.ok(filtroCupons.estatisticas());
+    }
+
+    /**
+     * Endpoint para recuperar o resultado da última remoção de cupons expirados.
+     *
+     * @return {@link ResponseEntity} contendo a quantidade de cupons removidos e a duração da última execução.
+     */
+    @GetMapping("/expurgo/estatisticas")
+    public ResponseEntity<Map<String, Object>> getEstatisticasExpurgo() {
+        return ResponseEntity.ok(cupomExpurgoService.estatisticas());
+    }
+
+}
\ No newline at end of file
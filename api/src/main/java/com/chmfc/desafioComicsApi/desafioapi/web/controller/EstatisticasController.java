@@ -0,0 +1,55 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.service.EstatisticasCatalogo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controlador REST das estatísticas agregadas do catálogo.
+ * As respostas vêm dos contadores em memória de {@link EstatisticasCatalogo}, sem consultar o banco.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/estatisticas")
+public class EstatisticasController {
+
+    private final EstatisticasCatalogo estatisticasCatalogo;
+
+    /**
+     * Endpoint para recuperar o resumo do catálogo.
+     *
+     * @return {@link ResponseEntity} contendo os quadrinhos por raridade, a quantidade de autores,
+     * os cupons válidos e o desconto médio por raridade, e o resultado da última reconciliação.
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getResumo() {
+        return ResponseEntity.ok(estatisticasCatalogo.resumo());
+    }
+
+    /**
+     * Endpoint para recuperar a quantidade de quadrinhos de cada autor.
+     *
+     * @return {@link ResponseEntity} contendo, para cada autor, a quantidade de quadrinhos, em ordem alfabética.
+     */
+    @GetMapping("/quadrinhos/autores")
+    public ResponseEntity<Map<String, Long>> getQuadrinhosPorAutor() {
+        return ResponseEntity.ok(estatisticasCatalogo.quadrinhosPorAutor());
+    }
+
+    /**
+     * Endpoint para recuperar a quantidade de quadrinhos de um autor.
+     *
+     * @param autor Nome do autor.
+     * @return {@link ResponseEntity} contendo o autor e a quantidade de quadrinhos (0 se não houver nenhum).
+     */
+    @GetMapping("/quadrinhos/autores/{autor}")
+    public ResponseEntity<Map<String, Object>> getQuadrinhosDoAutor(@PathVariable String autor) {
+        return ResponseEntity.ok(Map.of("autor", autor, "quadrinhos", estatisticasCatalogo.quadrinhosDoAutor(autor)));
+    }
+}
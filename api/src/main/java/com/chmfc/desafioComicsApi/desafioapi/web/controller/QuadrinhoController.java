@@ -0,0 +1,405 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.config.FormatosBinariosConfig;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.service.BuscaQuadrinhos;
+import com.chmfc.desafioComicsApi.desafioapi.service.ImportacaoQuadrinhosService;
+import com.chmfc.desafioComicsApi.desafioapi.service.ListaCupons;
+import com.chmfc.desafioComicsApi.desafioapi.service.QuadrinhoService;
+import com.chmfc.desafioComicsApi.desafioapi.service.RegistroIdempotencia;
+import com.chmfc.desafioComicsApi.desafioapi.service.RelatorioImportacao;
+import com.chmfc.desafioComicsApi.desafioapi.service.ResultadoBusca;
+import com.chmfc.desafioComicsApi.desafioapi.service.VersoesCatalogo;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.Cursor;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.Pagina;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Controlador REST para manipulação da entidade Quadrinho.
+ * Provê endpoints para operações CRUD e buscas específicas.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/quadrinhos")
+public class QuadrinhoController {
+
+    private final QuadrinhoService quadrinhoService;
+    private final BuscaQuadrinhos buscaQuadrinhos;
+    private final ImportacaoQuadrinhosService importacaoQuadrinhosService;
+    private final VersoesCatalogo versoesCatalogo;
+    private final ListaCupons listaCupons;
+    private final RegistroIdempotencia registroIdempotencia;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2CborHttpMessageConverter cborConverter;
+    private final MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    /**
+     * Endpoint para criação de um novo quadrinho.
+     * Com o cabeçalho Idempotency-Key, reenvios da mesma requisição recebem a resposta da primeira,
+     * sem gravar o quadrinho de novo.
+     *
+     * @param quadrinho Entidade Quadrinho a ser criada.
+     * @param chaveIdempotencia Chave de idempotência escolhida pelo cliente, opcional.
+     * @return Resposta contendo o quadrinho criado e o status HTTP 201 (Created).
+     */
+    @PostMapping("cadastrar")
+    public ResponseEntity<QuadrinhoDTO> create(@RequestBody Quadrinho quadrinho,
+                                               @RequestHeader(value = RegistroIdempotencia.CABECALHO, required = false) String chaveIdempotencia) {
+        return registroIdempotencia.executar(chaveIdempotencia, "POST /quadrinhos/cadastrar", quadrinho, QuadrinhoDTO.class, () -> {
+            Quadrinho nome = quadrinhoService.salvar(quadrinho);
+            return ResponseEntity.status(HttpStatus.CREATED).body(QuadrinhoDTO.de(nome));
+        });
+    }
+
+    /**
+     * Endpoint para importar quadrinhos em massa a partir de um arquivo CSV.
+     * O arquivo é lido à medida que chega; quadrinhos com nome já cadastrado têm autor e raridade atualizados.
+     *
+     * @param corpo Conteúdo do arquivo, com cabeçalho contendo as colunas nome, autor e raridade.
+     * @return Resposta contendo o relatório da importação, com os erros por linha.
+     * @throws IOException se não for possível ler o corpo da requisição.
+     */
+    @PostMapping(value = "/importar", consumes = "text/csv")
+    public ResponseEntity<RelatorioImportacao> importarCsv(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(importacaoQuadrinhosService.importar(corpo, ImportacaoQuadrinhosService.Formato.CSV));
+    }
+
+    /**
+     * Endpoint para importar quadrinhos em massa a partir de um arquivo NDJSON, com um quadrinho por linha.
+     * O arquivo é lido à medida que chega; quadrinhos com nome já cadastrado têm autor e raridade atualizados.
+     *
+     * @param corpo Conteúdo do arquivo.
+     * @return Resposta contendo o relatório da importação, com os erros por linha.
+     * @throws IOException se não for possível ler o corpo da requisição.
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<RelatorioImportacao> importarNdjson(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(importacaoQuadrinhosService.importar(corpo, ImportacaoQuadrinhosService.Formato.NDJSON));
+    }
+
+    /**
+     * Endpoint para atualização de um quadrinho existente.
+     *
+     * @param id                  Identificador do quadrinho a ser atualizado.
+     * @param quadrinhoAtualizado Entidade Quadrinho com os dados atualizados.
+     * @return Resposta contendo o quadrinho atualizado e o status HTTP 200 (OK).
+     */
+    @PutMapping("/atualizar/{id}")
+    public ResponseEntity<QuadrinhoDTO> atualizarQuadrinho(@PathVariable Long id, @RequestBody Quadrinho quadrinhoAtualizado) {
+        Quadrinho quadrinho = quadrinhoService.atualizarQuadrinho(id, quadrinhoAtualizado);
+        return ResponseEntity.ok(QuadrinhoDTO.de(quadrinho));
+    }
+
+    /**
+     * Endpoint para atualizar a raridade de um quadrinho pelo seu identificador.
+     *
+     * @param id Identificador do quadrinho cuja raridade será atualizada.
+     * @param novaRaridade Nova raridade a ser atribuída ao quadrinho.
+     * @return Resposta HTTP 200 (OK) com o quadrinho atualizado ou HTTP 400 (Bad Request) em caso de erro.
+     */
+    @PutMapping("/{id}/raridade")
+    public ResponseEntity<?> updateRaridade(@PathVariable Long id, @RequestBody Quadrinho.Raridade novaRaridade) {
+        try {
+            Quadrinho quadrinhoAtualizado = quadrinhoService.updateRaridade(id, novaRaridade);
+            return ResponseEntity.ok(QuadrinhoDTO.de(quadrinhoAtualizado));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Erro ao atualizar a raridade: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint para alterar apenas os campos informados de um quadrinho.
+     * Campos ausentes no corpo da requisição são mantidos como estão.
+     *
+     * @param id         Identificador do quadrinho a ser alterado.
+     * @param alteracoes Quadrinho contendo apenas os campos a alterar.
+     * @return Resposta HTTP 204 (No Content) se o quadrinho foi alterado ou HTTP 404 (Not Found) se ele não existir.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> atualizarParcialmente(@PathVariable Long id, @RequestBody Quadrinho alteracoes) {
+        if (quadrinhoService.atualizarParcialmente(id, alteracoes) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint para alterar apenas a raridade de um quadrinho.
+     *
+     * @param id           Identificador do quadrinho cuja raridade será alterada.
+     * @param novaRaridade Nova raridade a ser atribuída ao quadrinho.
+     * @return Resposta HTTP 204 (No Content) se o quadrinho foi alterado ou HTTP 404 (Not Found) se ele não existir.
+     */
+    @PatchMapping("/{id}/raridade")
+    public ResponseEntity<Void> alterarRaridade(@PathVariable Long id, @RequestBody Quadrinho.Raridade novaRaridade) {
+        if (quadrinhoService.alterarRaridade(id, novaRaridade) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint para deletar um quadrinho pelo id.
+     *
+     * @param id Identificador do quadrinho a ser deletado.
+     * @return Resposta contendo o status HTTP 204 (No Content) se a exclusão for bem-sucedida,
+     * ou HTTP 404 (Not Found) se o quadrinho não existir.
+     */
+    @DeleteMapping("/deletar/{id}")
+    public ResponseEntity<Void> deletarQuadrinho(@PathVariable Long id) {
+        if (quadrinhoService.deletar(id) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();  // Retorna status 204 se a exclusão for bem-sucedida
+    }
+
+    /**
+     * Endpoint para buscar todos os quadrinhos cadastrados.
+     * A resposta é escrita como um array JSON à medida que as linhas são lidas do banco,
+     * sem carregar a tabela inteira em memória.
+     * Requisições condicionais cujo ETag ou data ainda correspondem à versão do catálogo
+     * recebem 304 sem que a lista seja lida do banco.
+     *
+     * @param request Requisição atual, usada na validação condicional.
+     * @return Resposta contendo a lista de todos os quadrinhos e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se o catálogo não mudou.
+     */
+    @GetMapping("/buscar/todos")
+    public ResponseEntity<StreamingResponseBody> getAll(WebRequest request) {
+        return transmitirTodos(request, objectMapper, MediaType.APPLICATION_JSON, "json");
+    }
+
+    /**
+     * Endpoint para buscar todos os quadrinhos cadastrados em CBOR, escritos à medida que são lidos do banco.
+     *
+     * @param request Requisição atual, usada na validação condicional.
+     * @return Resposta contendo a lista de todos os quadrinhos e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se o catálogo não mudou.
+     */
+    @GetMapping(value = "/buscar/todos", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllCbor(WebRequest request) {
+        return transmitirTodos(request, cborConverter.getObjectMapper(), MediaType.APPLICATION_CBOR, "cbor");
+    }
+
+    /**
+     * Endpoint para buscar todos os quadrinhos cadastrados em Smile, escritos à medida que são lidos do banco.
+     *
+     * @param request Requisição atual, usada na validação condicional.
+     * @return Resposta contendo a lista de todos os quadrinhos e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se o catálogo não mudou.
+     */
+    @GetMapping(value = "/buscar/todos", produces = FormatosBinariosConfig.APPLICATION_SMILE_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllSmile(WebRequest request) {
+        return transmitirTodos(request, smileConverter.getObjectMapper(), MediaType.parseMediaType(FormatosBinariosConfig.APPLICATION_SMILE_VALUE), "smile");
+    }
+
+    /**
+     * Endpoint para buscar todos os quadrinhos cadastrados em formato NDJSON.
+     * Cada quadrinho é escrito em uma linha assim que é lido do banco.
+     *
+     * @param request Requisição atual, usada na validação condicional.
+     * @return Resposta contendo um quadrinho por linha e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se o catálogo não mudou.
+     */
+    @GetMapping(value = "/buscar/todos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllNdjson(WebRequest request) {
+        VersoesCatalogo.Versao versao = versoesCatalogo.versaoTodos();
+        if (request.checkNotModified(versao.etag("ndjson"), versao.ultimaModificacao())) {
+            return null;
+        }
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.createGenerator(saida)) {
+                gerador.setRootValueSeparator(null);
+                quadrinhoService.transmitirTodos(quadrinho -> {
+                    escrever(gerador, quadrinho);
+                    try {
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    /**
+     * Endpoint para buscar os quadrinhos em páginas, usando um cursor opaco de continuação.
+     *
+     * @param cursor  Token retornado na página anterior, ou ausente para a primeira página.
+     * @param tamanho Quantidade de quadrinhos por página; limitada pelo tamanho máximo configurado.
+     * @return Resposta contendo a página de quadrinhos e o cursor da próxima página.
+     */
+    @GetMapping("/buscar/pagina")
+    public ResponseEntity<Pagina<QuadrinhoDTO>> getPagina(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer tamanho) {
+        List<QuadrinhoDTO> quadrinhos = quadrinhoService.buscarPagina(Cursor.decodificar(cursor), tamanho);
+        String proximoCursor = quadrinhos.isEmpty() ? null : Cursor.codificar(quadrinhos.get(quadrinhos.size() - 1).id());
+        return ResponseEntity.ok(new Pagina<>(quadrinhos, proximoCursor));
+    }
+
+    /**
+     * Endpoint para buscar quadrinhos por texto no nome ou no autor.
+     * Cada palavra da consulta deve iniciar alguma palavra do nome ou do autor, sem diferenciar maiúsculas e acentos.
+     *
+     * @param consulta Texto buscado.
+     * @param pagina   Número da página, começando em 0.
+     * @param tamanho  Quantidade de quadrinhos por página; limitada pelo tamanho máximo configurado.
+     * @return Resposta contendo a página de quadrinhos encontrados, ordenados por relevância.
+     */
+    @GetMapping("/buscar/texto")
+    public ResponseEntity<ResultadoBusca> buscarPorTexto(@RequestParam("q") String consulta,
+                                                         @RequestParam(required = false) Integer pagina,
+                                                         @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(buscaQuadrinhos.buscar(consulta, pagina, tamanho));
+    }
+
+    /**
+     * Endpoint para buscar um quadrinho pelo id.
+     * O ETag e a data de modificação vêm da versão do quadrinho em cache;
+     * requisições condicionais que ainda correspondem a ela recebem 304 sem serializar o corpo.
+     *
+     * @param id      Identificador do quadrinho a ser buscado.
+     * @param request Requisição atual, usada na validação condicional.
+     * @return Resposta contendo o quadrinho encontrado e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se o quadrinho não mudou.
+     */
+    @GetMapping("/buscar/id/{id}")
+    public ResponseEntity<QuadrinhoDTO> getById(@PathVariable Long id, WebRequest request) {
+        QuadrinhoDTO nome = quadrinhoService.buscarPorId(id);
+        LocalDateTime versao = nome.dataModificacao() != null ? nome.dataModificacao() : nome.dataCriacao();
+        if (versao != null && request.checkNotModified(etag(id, versao), versao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(nome);
+    }
+
+    /**
+     * Endpoint para buscar quadrinhos pela raridade.
+     * Requisições condicionais cujo ETag ou data ainda correspondem à versão da lista
+     * recebem 304 sem que a lista seja lida do banco.
+     *
+     * @param raridade Raridade dos quadrinhos desejados.
+     * @param request  Requisição atual, usada na validação condicional.
+     * @return Resposta contendo a lista de quadrinhos com a raridade especificada e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se a lista não mudou.
+     */
+    @GetMapping("/buscar/raridade/{raridade}")
+    public ResponseEntity<List<QuadrinhoDTO>> getByRarity(@PathVariable Quadrinho.Raridade raridade, WebRequest request) {
+        return porRaridade(raridade, request, "json");
+    }
+
+    /**
+     * Endpoint para buscar quadrinhos pela raridade em CBOR.
+     *
+     * @param raridade Raridade dos quadrinhos desejados.
+     * @param request  Requisição atual, usada na validação condicional.
+     * @return Resposta contendo a lista de quadrinhos com a raridade especificada e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se a lista não mudou.
+     */
+    @GetMapping(value = "/buscar/raridade/{raridade}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<List<QuadrinhoDTO>> getByRarityCbor(@PathVariable Quadrinho.Raridade raridade, WebRequest request) {
+        return porRaridade(raridade, request, "cbor");
+    }
+
+    /**
+     * Endpoint para buscar quadrinhos pela raridade em Smile.
+     *
+     * @param raridade Raridade dos quadrinhos desejados.
+     * @param request  Requisição atual, usada na validação condicional.
+     * @return Resposta contendo a lista de quadrinhos com a raridade especificada e o status HTTP 200 (OK),
+     * ou HTTP 304 (Not Modified) se a lista não mudou.
+     */
+    @GetMapping(value = "/buscar/raridade/{raridade}", produces = FormatosBinariosConfig.APPLICATION_SMILE_VALUE)
+    public ResponseEntity<List<QuadrinhoDTO>> getByRaritySmile(@PathVariable Quadrinho.Raridade raridade, WebRequest request) {
+        return porRaridade(raridade, request, "smile");
+    }
+
+    /**
+     * Endpoint para buscar cupons associados à raridade de um quadrinho específico.
+     * Os cupons vêm da lista pré-serializada de {@link ListaCupons}, inteira ou em páginas,
+     * com os totais nos cabeçalhos X-Total-Paginas e X-Total-Cupons.
+     *
+     * @param id Identificador do quadrinho pelo qual os cupons serão buscados.
+     * @param cursor Cursor da página, do cabeçalho X-Proximo-Cursor da anterior; vazio para a primeira página;
+     *               se ausente, retorna todos os cupons.
+     * @param aceitaCodificacao Cabeçalho Accept-Encoding; com gzip, a resposta é enviada comprimida.
+     * @return Resposta contendo a lista de cupons associados à raridade do quadrinho e o status HTTP 200 (OK).
+     */
+    @GetMapping("/buscar/cupons/{id}")
+    public ResponseEntity<StreamingResponseBody> getCuponsByQuadrinho(@PathVariable Long id,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceitaCodificacao) {
+        QuadrinhoDTO quadrinho = quadrinhoService.buscarPorId(id);
+        return RespostaListaCupons.responder(listaCupons.conteudo(quadrinho.raridade(), cursor), aceitaCodificacao);
+    }
+
+    /**
+     * Monta o ETag de um quadrinho a partir do id e da data de modificação, na precisão guardada pelo banco (microssegundos).
+     */
+    private static String etag(Long id, LocalDateTime versao) {
+        long microssegundos = versao.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + versao.getNano() / 1_000;
+        return "\"" + id + "-" + Long.toString(microssegundos, 36) + "\"";
+    }
+
+    /**
+     * Escreve todos os quadrinhos como um array no formato do {@link ObjectMapper} informado.
+     * O ETag inclui a representação, já que cada formato tem um corpo diferente para a mesma versão do catálogo.
+     */
+    private ResponseEntity<StreamingResponseBody> transmitirTodos(WebRequest request, ObjectMapper mapper,
+                                                                  MediaType tipo, String representacao) {
+        VersoesCatalogo.Versao versao = versoesCatalogo.versaoTodos();
+        if (request.checkNotModified(versao.etag(representacao), versao.ultimaModificacao())) {
+            return null;
+        }
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = mapper.createGenerator(saida)) {
+                gerador.writeStartArray();
+                quadrinhoService.transmitirTodos(quadrinho -> escrever(gerador, quadrinho));
+                gerador.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).contentType(tipo).body(corpo);
+    }
+
+    /**
+     * Busca os quadrinhos de uma raridade para serialização pelo conversor do formato negociado.
+     */
+    private ResponseEntity<List<QuadrinhoDTO>> porRaridade(Quadrinho.Raridade raridade, WebRequest request, String representacao) {
+        VersoesCatalogo.Versao versao = versoesCatalogo.versaoRaridade(raridade);
+        if (request.checkNotModified(versao.etag(representacao), versao.ultimaModificacao())) {
+            return null;
+        }
+        List<QuadrinhoDTO> nomes = quadrinhoService.getQuadrinhosPorRaridade(raridade);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(nomes);
+    }
+
+    private void escrever(JsonGenerator gerador, QuadrinhoDTO quadrinho) {
+        try {
+            gerador.writeObject(quadrinho);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.service.ListaCupons;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Monta as respostas das listagens de cupons a partir do conteúdo já comprimido mantido por {@link ListaCupons}.
+ * Clientes que aceitam gzip recebem os bytes prontos, sem nova compressão; os demais recebem o JSON descomprimido
+ * à medida que é escrito. Como o corpo é sempre o array de cupons, a paginação é informada em cabeçalhos:
+ * o cursor da página seguinte, ausente na última, e os totais de páginas e de cupons.
+ * Nos formatos binários, a lista de cupons é devolvida para serialização pelo conversor negociado,
+ * com os mesmos cabeçalhos de paginação.
+ */
+final class RespostaListaCupons {
+
+    static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    static final String CABECALHO_TOTAL_PAGINAS = "X-Total-Paginas";
+    static final String CABECALHO_TOTAL_CUPONS = "X-Total-Cupons";
+
+    private RespostaListaCupons() {
+    }
+
+    /**
+     * Monta a resposta para o conteúdo informado.
+     *
+     * @param conteudo Conteúdo da lista, inteira ou de uma página.
+     * @param aceitaCodificacao Valor do cabeçalho Accept-Encoding da requisição, ou null se ausente.
+     * @return Resposta com o array JSON de cupons e os totais nos cabeçalhos.
+     */
+    static ResponseEntity<StreamingResponseBody> responder(ListaCupons.Conteudo conteudo, String aceitaCodificacao) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        paginacao(resposta, conteudo.proximoCursor(), conteudo.totalPaginas(), conteudo.totalCupons());
+        if (aceitaGzip(aceitaCodificacao)) {
+            long tamanho = conteudo.membros().stream().mapToLong(membro -> membro.length).sum();
+            return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip").contentLength(tamanho).body(saida -> {
+                for (byte[] membro : conteudo.membros()) {
+                    saida.write(membro);
+                }
+            });
+        }
+        return resposta.body(saida -> {
+            for (byte[] membro : conteudo.membros()) {
+                try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(membro), 8192)) {
+                    json.transferTo(saida);
+                }
+            }
+        });
+    }
+
+    /**
+     * Monta a resposta com os cupons para serialização em um formato binário.
+     * A compressão, se houver, fica a cargo do servidor.
+     *
+     * @param cupons Cupons da lista, inteira ou de uma página.
+     * @return Resposta com a lista de cupons e os totais nos cabeçalhos.
+     */
+    static ResponseEntity<List<CupomDTO>> responder(ListaCupons.Cupons cupons) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        paginacao(resposta, cupons.proximoCursor(), cupons.totalPaginas(), cupons.totalCupons());
+        return resposta.body(cupons.cupons());
+    }
+
+    private static void paginacao(ResponseEntity.BodyBuilder resposta, String proximoCursor, int totalPaginas, int totalCupons) {
+        resposta.header(CABECALHO_TOTAL_PAGINAS, String.valueOf(totalPaginas))
+                .header(CABECALHO_TOTAL_CUPONS, String.valueOf(totalCupons));
+        if (proximoCursor != null) {
+            resposta.header(CABECALHO_PROXIMO_CURSOR, proximoCursor);
+        }
+    }
+
+    /**
+     * Verifica se o cliente aceita gzip, desconsiderando codificações recusadas explicitamente com q=0.
+     */
+    private static boolean aceitaGzip(String aceitaCodificacao) {
+        if (aceitaCodificacao == null) {
+            return false;
+        }
+        for (String codificacao : aceitaCodificacao.toLowerCase(Locale.ROOT).split(",")) {
+            String[] partes = codificacao.split(";");
+            String nome = partes[0].trim();
+            if (!nome.equals("gzip") && !nome.equals("*")) {
+                continue;
+            }
+            boolean recusada = partes.length > 1 && partes[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            return !recusada;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alteração registrada no catálogo de quadrinhos ou nos cupons, entregue pelo feed de alterações.
+ *
+ * @param sequencia Posição da alteração no feed; crescente, mas não necessariamente contínua.
+ * @param tipo Tipo da alteração, como {@code quadrinho.criado} ou {@code cupom.emitido}.
+ * @param agregadoId Identificador do quadrinho ou do cupom alterado.
+ * @param dados Representação JSON do estado gravado; em alterações parciais, apenas o id e os campos alterados.
+ * @param dataCriacao Data e hora em que a alteração foi registrada.
+ */
+public record EventoAlteracao(long sequencia, String tipo, long agregadoId, @JsonRawValue String dados,
+                              LocalDateTime dataCriacao) {
+}
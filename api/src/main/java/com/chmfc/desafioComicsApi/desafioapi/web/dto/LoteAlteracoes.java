@@ -0,0 +1,12 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.dto;
+
+import java.util.List;
+
+/**
+ * Resposta da consulta ao feed de alterações.
+ *
+ * @param eventos Alterações posteriores à sequência pedida, em ordem de sequência.
+ * @param proxima Sequência a informar na próxima consulta para continuar de onde esta parou.
+ */
+public record LoteAlteracoes(List<EventoAlteracao> eventos, long proxima) {
+}
@@ -0,0 +1,9 @@
+-- Os índices das buscas por autor e por raridade passam a incluir data_criacao e data_modificacao,
+-- as demais colunas lidas pelas projeções de lista: as buscas são respondidas só pelo índice,
+-- sem voltar à tabela pela chave primária a cada linha.
+
+drop index idx_quadrinhos_autor on quadrinhos;
+create index idx_quadrinhos_autor on quadrinhos (autor, raridade, nome, data_criacao, data_modificacao);
+
+drop index idx_quadrinhos_raridade on quadrinhos;
+create index idx_quadrinhos_raridade on quadrinhos (raridade, autor, nome, data_criacao, data_modificacao);
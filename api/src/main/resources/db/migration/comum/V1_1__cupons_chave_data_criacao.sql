@@ -0,0 +1,8 @@
+-- Chave numérica dos códigos compactos de cupom, usada nas buscas por código,
+-- e data de criação, usada para sincronizar o filtro de códigos entre as instâncias.
+
+alter table cupons add column chave bigint;
+alter table cupons add constraint uk_cupons_chave unique (chave);
+
+alter table cupons add column data_criacao datetime(6);
+create index idx_cupons_data_criacao on cupons (data_criacao);
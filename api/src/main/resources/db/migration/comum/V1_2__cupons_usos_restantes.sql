@@ -0,0 +1,3 @@
+-- Quantidade de resgates que o cupom ainda aceita; cupons existentes valem para um único resgate.
+
+alter table cupons add column usos_restantes integer default 1 not null;
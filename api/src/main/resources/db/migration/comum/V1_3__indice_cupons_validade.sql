@@ -0,0 +1,3 @@
+-- Índice da listagem de cupons válidos por raridade e do expurgo de cupons vencidos.
+
+create index idx_cupons_raridade_validade on cupons (raridade, validade);
@@ -0,0 +1,23 @@
+-- Esquema inicial, equivalente ao gerado pelo Hibernate com ddl-auto=update até esta versão.
+-- Bancos existentes criados dessa forma são marcados nesta versão (baseline) e não executam este script.
+
+create table quadrinhos (
+    id               bigint       not null auto_increment,
+    nome             varchar(200) not null,
+    autor            varchar(200) not null,
+    raridade         enum ('comum','raro') not null,
+    data_criacao     datetime(6),
+    data_modificacao datetime(6),
+    primary key (id),
+    constraint uk_quadrinhos_nome unique (nome)
+);
+
+create table cupons (
+    id        bigint       not null auto_increment,
+    codigo    varchar(255) not null,
+    raridade  enum ('comum','raro') not null,
+    desconto  float(53)    not null,
+    validade  datetime(6)  not null,
+    primary key (id),
+    constraint uk_cupons_codigo unique (codigo)
+);
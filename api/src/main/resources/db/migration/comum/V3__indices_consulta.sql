@@ -0,0 +1,7 @@
+-- Índices das buscas por autor e por raridade.
+-- A coluna filtrada vem primeiro; com a segunda, a contagem por raridade e autor das estatísticas do catálogo
+-- é feita apenas pelo índice idx_quadrinhos_raridade. As projeções de lista também leem data_criacao
+-- e data_modificacao, que continuam sendo buscadas na tabela pela chave primária.
+
+create index idx_quadrinhos_autor on quadrinhos (autor, raridade, nome);
+create index idx_quadrinhos_raridade on quadrinhos (raridade, autor, nome);
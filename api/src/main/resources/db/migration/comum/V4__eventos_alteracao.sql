@@ -0,0 +1,13 @@
+-- Registro das alterações do catálogo e dos cupons (outbox), gravado na mesma transação da alteração.
+-- O id é a sequência usada pelos consumidores para pedir as alterações seguintes.
+
+create table eventos_alteracao (
+    id           bigint        not null auto_increment,
+    tipo         varchar(40)   not null,
+    agregado_id  bigint        not null,
+    dados        varchar(4000) not null,
+    data_criacao datetime(6)   not null,
+    primary key (id)
+);
+
+create index idx_eventos_alteracao_data_criacao on eventos_alteracao (data_criacao);
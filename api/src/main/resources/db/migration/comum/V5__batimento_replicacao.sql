@@ -0,0 +1,10 @@
+-- Batimento gravado periodicamente no primário quando há réplicas de leitura configuradas.
+-- A diferença entre o instante lido em cada réplica e o relógio da aplicação estima o atraso da replicação.
+
+create table batimento_replicacao (
+    id       int         not null,
+    instante datetime(6) not null,
+    primary key (id)
+);
+
+insert into batimento_replicacao (id, instante) values (1, current_timestamp(6));
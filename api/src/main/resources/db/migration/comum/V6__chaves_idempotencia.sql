@@ -0,0 +1,14 @@
+-- Respostas das requisições com Idempotency-Key, gravadas quando idempotencia.persistir=true.
+-- Permite repetir a resposta de uma requisição reenviada depois de um reinício ou para outra instância.
+
+create table chaves_idempotencia (
+    chave      varchar(400)  not null,
+    impressao  char(64)      not null,
+    status     int           not null,
+    corpo      varchar(8000),
+    criado_em  datetime(6)   not null,
+    expira_em  datetime(6)   not null,
+    primary key (chave)
+);
+
+create index idx_chaves_idempotencia_expira_em on chaves_idempotencia (expira_em);
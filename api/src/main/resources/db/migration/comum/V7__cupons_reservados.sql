@@ -0,0 +1,6 @@
+-- Cupons pré-gerados pela reserva em memória (CupomPool) ficam marcados até serem emitidos.
+-- O índice atende a remoção dos cupons reservados abandonados, por exemplo após um reinício da instância.
+
+alter table cupons add column reservado boolean default false not null;
+
+create index idx_cupons_reservado_data_criacao on cupons (reservado, data_criacao);
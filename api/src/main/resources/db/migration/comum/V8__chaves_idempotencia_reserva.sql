@@ -0,0 +1,5 @@
+-- Com idempotencia.persistir=true, a chave é reservada antes da operação executar: a linha é inserida sem status
+-- (pendente) e recebe a resposta ao final. Enquanto pendente, expira_em marca quando a reserva passa a ser
+-- considerada abandonada.
+
+alter table chaves_idempotencia modify status int null;
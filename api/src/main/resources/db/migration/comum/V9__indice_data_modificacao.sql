@@ -0,0 +1,3 @@
+-- Índice da sincronização periódica do índice de busca, que lê os quadrinhos modificados a partir de um instante.
+
+create index idx_quadrinhos_data_modificacao on quadrinhos (data_modificacao);
@@ -0,0 +1 @@
+create sequence if not exists cupons_seq start with 1 increment by 500;
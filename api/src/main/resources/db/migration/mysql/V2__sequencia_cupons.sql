@@ -0,0 +1,14 @@
+-- O MySQL não tem sequências; o Hibernate emula cupons_seq com uma tabela de uma linha.
+-- A tabela pode já existir em bancos criados com ddl-auto=update, e o valor é ajustado para
+-- ficar acima dos ids já usados, inclusive os gerados por IDENTITY antes da troca de estratégia.
+
+create table if not exists cupons_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into cupons_seq (next_val)
+select 1 from dual
+where not exists (select 1 from cupons_seq);
+
+update cupons_seq
+set next_val = greatest(next_val, (select coalesce(max(id), 0) + 501 from cupons));
@@ -0,0 +1,163 @@
+package com.chmfc.desafioComicsApi.desafioapi.config;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.service.QuadrinhoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste do roteamento de leituras para as réplicas.
+ * As duas réplicas são novos pools apontando para o mesmo banco H2 do primário, o que simula réplicas sem atraso;
+ * o atraso é simulado gravando um batimento antigo. As verificações periódicas ficam espaçadas,
+ * e o teste chama a verificação diretamente.
+ */
+@SpringBootTest(properties = {
+        "banco.replicas.habilitado=true",
+        "banco.replicas.urls=${spring.datasource.url},${spring.datasource.url}",
+        "banco.replicas.tamanho-pool=2",
+        "banco.replicas.atraso-maximo=5s",
+        "banco.replicas.intervalo-verificacao=3600000"
+})
+class RoteadorReplicasTest {
+
+    @Autowired
+    private RoteadorReplicas roteador;
+
+    @Autowired
+    private QuadrinhoRepository quadrinhoRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private QuadrinhoService quadrinhoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void preparar() {
+        roteador.verificar();
+    }
+
+    @AfterEach
+    void restaurar() {
+        roteador.verificar();
+    }
+
+    @Test
+    void leiturasSomenteLeituraAlternamEntreAsReplicas() {
+        assertTrue(roteador.isDisponivel(0));
+        assertTrue(roteador.isDisponivel(1));
+        long replica1 = roteador.getLeituras(0);
+        long replica2 = roteador.getLeituras(1);
+        long primario = roteador.getLeiturasPrimario();
+
+        for (int i = 0; i < 4; i++) {
+            quadrinhoRepository.count();
+        }
+
+        assertTrue(roteador.getLeituras(0) - replica1 >= 2);
+        assertTrue(roteador.getLeituras(1) - replica2 >= 2);
+        assertEquals(primario, roteador.getLeiturasPrimario());
+    }
+
+    @Test
+    void replicasAtrasadasDeixamDeReceberLeituras() {
+        new JdbcTemplate(dataSource).update("update batimento_replicacao set instante = ? where id = 1", LocalDateTime.now().minusMinutes(1));
+        roteador.verificarReplicas();
+
+        assertFalse(roteador.isDisponivel(0));
+        assertFalse(roteador.isDisponivel(1));
+        assertTrue(roteador.getAtraso(0).compareTo(Duration.ofSeconds(5)) > 0);
+
+        long replica1 = roteador.getLeituras(0);
+        long replica2 = roteador.getLeituras(1);
+        long primario = roteador.getLeiturasPrimario();
+
+        for (int i = 0; i < 3; i++) {
+            quadrinhoRepository.count();
+        }
+
+        assertEquals(replica1, roteador.getLeituras(0));
+        assertEquals(replica2, roteador.getLeituras(1));
+        assertTrue(roteador.getLeiturasPrimario() - primario >= 3);
+
+        roteador.verificar();
+        assertTrue(roteador.isDisponivel(0));
+        assertTrue(roteador.isDisponivel(1));
+    }
+
+    @Test
+    void buscasQueAlimentamOCacheVaoAoPrimario() {
+        Quadrinho quadrinho = new Quadrinho();
+        quadrinho.setNome("Réplica " + UUID.randomUUID());
+        quadrinho.setAutor("Autor " + UUID.randomUUID());
+        quadrinho.setRaridade(Quadrinho.Raridade.comum);
+        quadrinho = quadrinhoService.salvar(quadrinho);
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        long replica1 = roteador.getLeituras(0);
+        long replica2 = roteador.getLeituras(1);
+
+        assertEquals(quadrinho.getNome(), quadrinhoService.buscarPorId(quadrinho.getId()).nome());
+        assertEquals(1, quadrinhoService.getQuadrinhosPorAutor(quadrinho.getAutor()).size());
+        quadrinhoService.getQuadrinhosPorRaridade(Quadrinho.Raridade.comum);
+
+        assertEquals(replica1, roteador.getLeituras(0));
+        assertEquals(replica2, roteador.getLeituras(1));
+    }
+
+    @Test
+    void listagemCompletaVaiAoPrimarioComoAsVersoesDoEtag() {
+        long quantidade = quadrinhoRepository.count();
+        long replica1 = roteador.getLeituras(0);
+        long replica2 = roteador.getLeituras(1);
+        long primario = roteador.getLeiturasPrimario();
+        LongAdder lidos = new LongAdder();
+
+        quadrinhoService.transmitirTodos(quadrinho -> lidos.increment());
+
+        assertEquals(quantidade, lidos.sum());
+        assertEquals(replica1, roteador.getLeituras(0));
+        assertEquals(replica2, roteador.getLeituras(1));
+        assertEquals(primario, roteador.getLeiturasPrimario());
+    }
+
+    @Test
+    void limitadorDeCadaPoolNaoBloqueiaOsDemais() throws Exception {
+        roteador.envolverPools(pool -> new DataSourceLimitado(pool, 1, Duration.ofMillis(200)));
+        try {
+            Map<String, DataSource> acessos = roteador.getAcessosPools();
+            assertEquals(List.of("primario", "replica-1", "replica-2"), List.copyOf(acessos.keySet()));
+            long primario = roteador.getLeiturasPrimario();
+
+            try (Connection replica1 = acessos.get("replica-1").getConnection();
+                 Connection replica2 = acessos.get("replica-2").getConnection()) {
+                quadrinhoRepository.count();
+            }
+
+            assertTrue(roteador.getLeiturasPrimario() - primario >= 1);
+        } finally {
+            roteador.envolverPools(pool -> pool);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da reserva de cupons pré-gerados ({@link CupomPool}): cupons reservados ficam fora das listagens,
+ * a validade conta a partir da emissão, a emissão e o seu registro no feed de alterações são atômicos e cupons esquecidos na reserva são descartados e removidos do banco.
+ */
+@SpringBootTest(properties = {"cupons.pool.capacidade=20", "cupons.pool.minimo=10", "cupons.pool.idade-maxima=2s"})
+class CupomPoolTest {
+
+    @Autowired
+    private CupomPool cupomPool;
+
+    @Autowired
+    private CupomLoteService cupomLoteService;
+
+    @Autowired
+    private CupomExpurgoService cupomExpurgoService;
+
+    @Autowired
+    private CupomRepository cupomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void cupomEmitidoValeAPartirDaEmissaoEApareceNaListagem() {
+        List<Cupom> reservados = cupomLoteService.reservarLote(Quadrinho.Raridade.raro, 1);
+        assertFalse(listados(Quadrinho.Raridade.raro).contains(reservados.get(0).getId()));
+
+        LocalDateTime antes = LocalDateTime.now();
+        Cupom cupom = cupomPool.retirar(Quadrinho.Raridade.raro);
+
+        Cupom gravado = cupomRepository.findById(cupom.getId()).orElseThrow();
+        assertFalse(gravado.isReservado());
+        assertFalse(gravado.getValidade().isBefore(antes.plusDays(Cupom.DIAS_VALIDADE)));
+        assertTrue(listados(Quadrinho.Raridade.raro).contains(cupom.getId()));
+    }
+
+    @Test
+    void emissaoERegistroNoFeedSaoConfirmadosOuDesfeitosJuntos() {
+        Cupom cupom = cupomLoteService.reservarLote(Quadrinho.Raridade.comum, 1).get(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(cupomLoteService.emitirReservado(cupom));
+            status.setRollbackOnly();
+        });
+        assertTrue(cupomRepository.findById(cupom.getId()).orElseThrow().isReservado());
+        assertEquals(0, eventosEmissao(cupom.getId()));
+
+        assertTrue(cupomLoteService.emitirReservado(cupom));
+        assertFalse(cupomRepository.findById(cupom.getId()).orElseThrow().isReservado());
+        assertEquals(1, eventosEmissao(cupom.getId()));
+    }
+
+    @Test
+    void cuponsReservadosAbandonadosSaoRemovidos() throws InterruptedException {
+        List<Long> abandonados = cupomLoteService.reservarLote(Quadrinho.Raridade.comum, 3).stream().map(Cupom::getId).toList();
+        Thread.sleep(Duration.ofSeconds(3).toMillis());
+
+        cupomExpurgoService.expurgar();
+
+        assertTrue(cupomRepository.findAllById(abandonados).isEmpty());
+    }
+
+    @Test
+    void cuponsAntigosDaReservaSaoDescartados() throws InterruptedException {
+        long descartados = (long) cupomPool.estatisticas().get("descartados");
+        Thread.sleep(Duration.ofSeconds(3).toMillis());
+
+        cupomPool.verificarReservas();
+
+        assertTrue((long) cupomPool.estatisticas().get("descartados") > descartados);
+        Cupom cupom = cupomPool.retirar(Quadrinho.Raridade.comum);
+        assertTrue(cupom.getDataCriacao().isAfter(LocalDateTime.now().minusSeconds(2)));
+    }
+
+    private long eventosEmissao(long cupomId) {
+        return jdbcTemplate.queryForObject("select count(*) from eventos_alteracao where tipo = ? and agregado_id = ?",
+                Long.class, RegistroAlteracoes.CUPOM_EMITIDO, cupomId);
+    }
+
+    private List<Long> listados(Quadrinho.Raridade raridade) {
+        return cupomRepository.listarValidosPorRaridade(raridade, LocalDateTime.now()).stream().map(CupomDTO::id).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes do resgate de cupons com várias threads concorrentes.
+ * Verifica que nenhum uso é consumido além do limite do cupom, e que resgates simultâneos de cupons diferentes
+ * não interferem entre si. A vazão do resgate é medida à parte, em CupomResgateBenchmark (perfil jmh).
+ */
+@SpringBootTest
+class CupomResgateConcorrenteTest {
+
+    @Autowired
+    private CupomService cupomService;
+
+    @Autowired
+    private CupomRepository cupomRepository;
+
+    @Autowired
+    private FiltroCupons filtroCupons;
+
+    @Test
+    void resgatesConcorrentesNaoUltrapassamOsUsosDoCupom() throws Exception {
+        Cupom cupom = criarCupom(500);
+
+        Resultado resultado = resgatarConcorrentemente(cupom.getCodigo(), 8, 100);
+
+        assertEquals(500, resultado.sucessos());
+        assertEquals(300, resultado.recusas());
+        assertEquals(0, cupomRepository.findByChave(cupom.getChave()).orElseThrow().getUsosRestantes());
+    }
+
+    @Test
+    void resgatesConcorrentesDeCuponsDiferentesSaoTodosAtendidos() throws Exception {
+        int threads = 8;
+        int resgatesPorThread = 50;
+        List<Cupom> cupons = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            cupons.add(criarCupom(resgatesPorThread));
+        }
+
+        Resultado resultado = resgatarConcorrentemente(cupons.stream().map(Cupom::getCodigo).toList(), resgatesPorThread);
+
+        assertEquals(threads * resgatesPorThread, resultado.sucessos());
+        assertEquals(0, resultado.recusas());
+        for (Cupom cupom : cupons) {
+            assertEquals(0, cupomRepository.findByChave(cupom.getChave()).orElseThrow().getUsosRestantes());
+        }
+    }
+
+    private Cupom criarCupom(int usos) {
+        Cupom cupom = new Cupom(Quadrinho.Raridade.raro, 0.1);
+        cupom.setUsosRestantes(usos);
+        cupom = cupomRepository.save(cupom);
+        filtroCupons.adicionar(cupom.getChave());
+        return cupom;
+    }
+
+    private Resultado resgatarConcorrentemente(String codigo, int threads, int resgatesPorThread) throws Exception {
+        return resgatarConcorrentemente(Collections.nCopies(threads, codigo), resgatesPorThread);
+    }
+
+    /**
+     * Resgata os cupons em paralelo, com uma thread por código informado.
+     */
+    private Resultado resgatarConcorrentemente(List<String> codigos, int resgatesPorThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(codigos.size());
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger sucessos = new AtomicInteger();
+        AtomicInteger recusas = new AtomicInteger();
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (String codigo : codigos) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < resgatesPorThread; i++) {
+                    try {
+                        cupomService.resgatar(codigo);
+                        sucessos.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                        recusas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        return new Resultado(sucessos.get(), recusas.get());
+    }
+
+    private record Resultado(int sucessos, int recusas) {
+    }
+}
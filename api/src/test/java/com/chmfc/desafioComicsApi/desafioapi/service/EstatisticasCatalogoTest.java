@@ -0,0 +1,125 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.CupomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes dos contadores de {@link EstatisticasCatalogo}, atualizados pelas escritas e conferidos com o banco.
+ * A reserva de cupons fica desligada, para que o reabastecimento em segundo plano não altere as contagens.
+ */
+@SpringBootTest(properties = "cupons.pool.minimo=0")
+class EstatisticasCatalogoTest {
+
+    @Autowired
+    private EstatisticasCatalogo estatisticasCatalogo;
+
+    @Autowired
+    private QuadrinhoService quadrinhoService;
+
+    @Autowired
+    private CupomService cupomService;
+
+    @Autowired
+    private CupomRepository cupomRepository;
+
+    @Test
+    void escritasDeQuadrinhosAtualizamOsContadores() {
+        estatisticasCatalogo.reconciliar();
+        long raros = quadrinhosPorRaridade().get("raro");
+        long comuns = quadrinhosPorRaridade().get("comum");
+        String autor = "Autor " + UUID.randomUUID();
+        String outroAutor = "Autor " + UUID.randomUUID();
+
+        Quadrinho quadrinho = new Quadrinho();
+        quadrinho.setNome("Estatísticas " + UUID.randomUUID());
+        quadrinho.setAutor(autor);
+        quadrinho.setRaridade(Quadrinho.Raridade.raro);
+        Long id = quadrinhoService.salvar(quadrinho).getId();
+        assertEquals(raros + 1, quadrinhosPorRaridade().get("raro"));
+        assertEquals(1, estatisticasCatalogo.quadrinhosDoAutor(autor));
+
+        quadrinhoService.alterarRaridade(id, Quadrinho.Raridade.comum);
+        assertEquals(raros, quadrinhosPorRaridade().get("raro"));
+        assertEquals(comuns + 1, quadrinhosPorRaridade().get("comum"));
+
+        Quadrinho alteracoes = new Quadrinho();
+        alteracoes.setAutor(outroAutor);
+        quadrinhoService.atualizarParcialmente(id, alteracoes);
+        assertEquals(0, estatisticasCatalogo.quadrinhosDoAutor(autor));
+        assertEquals(1, estatisticasCatalogo.quadrinhosDoAutor(outroAutor));
+        assertEquals(1L, estatisticasCatalogo.quadrinhosPorAutor().get(outroAutor));
+
+        estatisticasCatalogo.reconciliar();
+        assertEquals(0L, estatisticasCatalogo.resumo().get("divergenciaUltimaReconciliacao"));
+
+        quadrinhoService.deletar(id);
+        assertEquals(comuns, quadrinhosPorRaridade().get("comum"));
+        assertEquals(0, estatisticasCatalogo.quadrinhosDoAutor(outroAutor));
+        assertEquals(0, quadrinhoService.deletar(id));
+        assertEquals(comuns, quadrinhosPorRaridade().get("comum"));
+    }
+
+    @Test
+    void cuponsEmitidosEVencidosAtualizamOsContadores() {
+        estatisticasCatalogo.reconciliar();
+        assertEquals(cupomRepository.listarValidosPorRaridade(Quadrinho.Raridade.comum, LocalDateTime.now()).size(),
+                cuponsValidos(Quadrinho.Raridade.comum));
+        long validos = cuponsValidos(Quadrinho.Raridade.comum);
+
+        cupomService.gerarCupons(Quadrinho.Raridade.comum, 1200, cupom -> {
+        });
+        assertEquals(validos + 1200, cuponsValidos(Quadrinho.Raridade.comum));
+        assertEquals(0.2, (double) cupons(Quadrinho.Raridade.comum).get("descontoMedio"), 1e-9);
+
+        estatisticasCatalogo.reconciliar();
+        assertEquals(0L, estatisticasCatalogo.resumo().get("divergenciaUltimaReconciliacao"));
+        assertEquals(validos + 1200, cuponsValidos(Quadrinho.Raridade.comum));
+
+        Cupom vencido = new Cupom(Quadrinho.Raridade.comum, 0.2);
+        vencido.setValidade(LocalDateTime.now().minusMinutes(5));
+        estatisticasCatalogo.cuponsCriados(List.of(vencido));
+        assertEquals(validos + 1201, cuponsValidos(Quadrinho.Raridade.comum));
+        estatisticasCatalogo.expirarCupons();
+        assertEquals(validos + 1200, cuponsValidos(Quadrinho.Raridade.comum));
+    }
+
+    @Test
+    void escritaNaoContadaAntecipaAReconciliacao() {
+        estatisticasCatalogo.reconciliar();
+        long raros = quadrinhosPorRaridade().get("raro");
+        // Desconto indevido, como o de uma escrita contada com um estado anterior desatualizado
+        estatisticasCatalogo.quadrinhoRemovido(Quadrinho.Raridade.raro, "Autor " + UUID.randomUUID());
+        assertEquals(raros - 1, quadrinhosPorRaridade().get("raro"));
+
+        estatisticasCatalogo.alteracaoNaoContada();
+        estatisticasCatalogo.reconciliarSePendente();
+        assertEquals(raros, quadrinhosPorRaridade().get("raro"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> quadrinhosPorRaridade() {
+        Map<String, Object> quadrinhos = (Map<String, Object>) estatisticasCatalogo.resumo().get("quadrinhos");
+        return (Map<String, Long>) quadrinhos.get("porRaridade");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> cupons(Quadrinho.Raridade raridade) {
+        Map<String, Object> cupons = (Map<String, Object>) estatisticasCatalogo.resumo().get("cupons");
+        return (Map<String, Object>) cupons.get(raridade.name());
+    }
+
+    private long cuponsValidos(Quadrinho.Raridade raridade) {
+        return (long) cupons(raridade).get("validos");
+    }
+}
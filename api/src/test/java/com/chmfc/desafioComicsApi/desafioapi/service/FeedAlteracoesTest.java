@@ -0,0 +1,88 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.EventoAlteracao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do tratamento de lacunas na sequência do {@link FeedAlteracoes}.
+ * As alterações são gravadas com ids explícitos e data de criação antiga, simulando transações
+ * que demoraram entre a inserção e o commit.
+ */
+@SpringBootTest(properties = {"eventos.feed.janela-lacunas=2s", "cupons.pool.minimo=0"})
+class FeedAlteracoesTest {
+
+    @Autowired
+    private FeedAlteracoes feedAlteracoes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long base;
+
+    @BeforeEach
+    void preparar() {
+        base = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from eventos_alteracao", Long.class);
+        aguardarSequencia(base, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void lacunaSeguraAEntregaAtePreenchidaMesmoComDataDeCriacaoAntiga() throws InterruptedException {
+        inserir(base + 1);
+        inserir(base + 3);
+        aguardarSequencia(base + 1, Duration.ofSeconds(5));
+
+        Thread.sleep(500);
+        assertEquals(List.of(base + 1), sequencias(feedAlteracoes.consultar(base, 10).eventos()));
+
+        inserir(base + 2);
+        aguardarSequencia(base + 3, Duration.ofSeconds(5));
+        assertEquals(List.of(base + 1, base + 2, base + 3), sequencias(feedAlteracoes.consultar(base, 10).eventos()));
+    }
+
+    @Test
+    void lacunaNaoPreenchidaEIgnoradaDepoisDaJanela() {
+        long ignoradas = (long) feedAlteracoes.estatisticas().get("lacunasIgnoradas");
+        inserir(base + 1);
+        inserir(base + 3);
+
+        aguardarSequencia(base + 3, Duration.ofSeconds(10));
+
+        assertEquals(List.of(base + 1, base + 3), sequencias(feedAlteracoes.consultar(base, 10).eventos()));
+        assertTrue((long) feedAlteracoes.estatisticas().get("lacunasIgnoradas") > ignoradas);
+    }
+
+    private void inserir(long id) {
+        jdbcTemplate.update("insert into eventos_alteracao (id, tipo, agregado_id, dados, data_criacao) values (?, ?, ?, ?, ?)",
+                id, "teste.lacuna", id, "{}", Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+        feedAlteracoes.sinalizar();
+    }
+
+    private void aguardarSequencia(long sequencia, Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        while ((long) feedAlteracoes.estatisticas().get("ultimaSequencia") < sequencia) {
+            assertTrue(System.nanoTime() < limite, "Sequência " + sequencia + " não publicada a tempo");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static List<Long> sequencias(List<EventoAlteracao> eventos) {
+        return eventos.stream().map(EventoAlteracao::sequencia).toList();
+    }
+}
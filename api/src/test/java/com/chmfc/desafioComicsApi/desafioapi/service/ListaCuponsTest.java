@@ -0,0 +1,108 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Cupom;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da paginação por cursor e da reconciliação da {@link ListaCupons}, com blocos pequenos
+ * e os ciclos de atualização e reconciliação chamados diretamente.
+ */
+@SpringBootTest(properties = {"cupons.lista.tamanho-pagina=5", "cupons.usos-por-cupom=3", "cupons.pool.minimo=0",
+        "cupons.lista.intervalo-atualizacao=3600000", "cupons.lista.intervalo-reconciliacao=3600000"})
+class ListaCuponsTest {
+
+    @Autowired
+    private ListaCupons listaCupons;
+
+    @Autowired
+    private CupomLoteService cupomLoteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void aguardarCarga() throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!Boolean.TRUE.equals(listaCupons.estatisticas().get("pronto"))) {
+            assertTrue(System.nanoTime() < limite, "A lista de cupons não foi carregada");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void blocoEsvaziadoDuranteAPaginacaoNaoDeslocaAsPaginasSeguintes() {
+        cupomLoteService.gerarLote(Quadrinho.Raridade.raro, 15);
+        listaCupons.atualizarBlocos();
+        List<Long> esperados = ids(listaCupons.cupons(Quadrinho.Raridade.raro, null).cupons());
+
+        ListaCupons.Cupons pagina = listaCupons.cupons(Quadrinho.Raridade.raro, "");
+        List<Long> recebidos = new ArrayList<>(ids(pagina.cupons()));
+        // Todos os cupons da primeira página são resgatados até o fim, e o bloco deixa a lista
+        pagina.cupons().forEach(cupom -> listaCupons.atualizar(comUsos(cupom, 0)));
+        listaCupons.atualizarBlocos();
+
+        while (pagina.proximoCursor() != null) {
+            pagina = listaCupons.cupons(Quadrinho.Raridade.raro, pagina.proximoCursor());
+            recebidos.addAll(ids(pagina.cupons()));
+        }
+        assertEquals(esperados, recebidos);
+    }
+
+    @Test
+    void reconciliacaoAplicaResgatesERemocoesDeOutrasInstancias() {
+        List<Cupom> cupons = cupomLoteService.gerarLote(Quadrinho.Raridade.comum, 4);
+        listaCupons.atualizarBlocos();
+        long resgatado = cupons.get(0).getId();
+        long esgotado = cupons.get(1).getId();
+        long removido = cupons.get(2).getId();
+        long comMaisUsosNoBanco = cupons.get(3).getId();
+
+        // Alterações feitas diretamente no banco, como por outra instância
+        jdbcTemplate.update("update cupons set usos_restantes = 1 where id = ?", resgatado);
+        jdbcTemplate.update("update cupons set usos_restantes = 0 where id = ?", esgotado);
+        jdbcTemplate.update("delete from cupons where id = ?", removido);
+        jdbcTemplate.update("update cupons set usos_restantes = 5 where id = ?", comMaisUsosNoBanco);
+        long reconciliados = (long) listaCupons.estatisticas().get("cuponsReconciliados");
+        listaCupons.reconciliar();
+        listaCupons.atualizarBlocos();
+
+        Map<Long, CupomDTO> lista = listaCupons.cupons(Quadrinho.Raridade.comum, null).cupons().stream()
+                .collect(Collectors.toMap(CupomDTO::id, Function.identity()));
+        assertNotNull(lista.get(resgatado));
+        assertEquals(1, lista.get(resgatado).usosRestantes());
+        assertFalse(lista.containsKey(esgotado));
+        assertFalse(lista.containsKey(removido));
+        assertEquals(3, lista.get(comMaisUsosNoBanco).usosRestantes());
+        assertTrue((long) listaCupons.estatisticas().get("cuponsReconciliados") >= reconciliados + 3);
+    }
+
+    private static List<Long> ids(List<CupomDTO> cupons) {
+        List<Long> ids = cupons.stream().map(CupomDTO::id).toList();
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        return ids;
+    }
+
+    private static CupomDTO comUsos(CupomDTO cupom, int usosRestantes) {
+        return new CupomDTO(cupom.id(), cupom.codigo(), cupom.raridade(), cupom.desconto(), cupom.validade(),
+                usosRestantes, cupom.dataCriacao());
+    }
+}
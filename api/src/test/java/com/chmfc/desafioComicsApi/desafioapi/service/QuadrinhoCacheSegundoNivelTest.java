@@ -0,0 +1,153 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.config.CacheConfig;
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.QuadrinhoDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste do cache de segundo nível do Hibernate sob as buscas de {@link QuadrinhoService} por id, raridade e autor
+ * e sob as atualizações que carregam o quadrinho pelo id. As leituras ao banco são medidas pelas estatísticas do Hibernate. Antes de cada busca, o cache do serviço é
+ * esvaziado, como acontece quando uma entrada expira, para que a leitura chegue ao repositório.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+class QuadrinhoCacheSegundoNivelTest {
+
+    @Autowired
+    private QuadrinhoService quadrinhoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private Quadrinho quadrinho;
+
+    @BeforeEach
+    void preparar() {
+        quadrinho = new Quadrinho();
+        quadrinho.setNome("Quadrinho " + UUID.randomUUID());
+        quadrinho.setAutor("Autor " + UUID.randomUUID());
+        quadrinho.setRaridade(Quadrinho.Raridade.comum);
+        quadrinho = quadrinhoService.salvar(quadrinho);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void buscasRepetidasPeloIdNaoVoltamAoBanco() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(quadrinho.getNome(), buscarPorId().nome());
+        }
+
+        assertEquals(1, estatisticas.getQueryExecutionCount());
+        assertEquals(2, estatisticas.getQueryRegionStatistics(QuadrinhoRepository.REGIAO_POR_ID).getHitCount());
+    }
+
+    @Test
+    void consultasRepetidasPorAutorNaoVoltamAoBanco() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, porAutor(quadrinho.getAutor()).size());
+        }
+
+        assertEquals(1, estatisticas.getQueryExecutionCount());
+        assertEquals(2, estatisticas.getQueryRegionStatistics(QuadrinhoRepository.REGIAO_POR_AUTOR).getHitCount());
+    }
+
+    @Test
+    void updateRaridadeInvalidaAsConsultasPorRaridade() throws Exception {
+        assertFalse(contemQuadrinho(porRaridade(Quadrinho.Raridade.raro)));
+
+        quadrinhoService.updateRaridade(quadrinho.getId(), Quadrinho.Raridade.raro);
+
+        assertTrue(contemQuadrinho(porRaridade(Quadrinho.Raridade.raro)));
+        assertEquals(2, estatisticas.getQueryExecutionCount());
+    }
+
+    @Test
+    void atualizarQuadrinhoInvalidaAsConsultasPorAutor() {
+        String autorAnterior = quadrinho.getAutor();
+        assertEquals(1, porAutor(autorAnterior).size());
+
+        Quadrinho atualizado = new Quadrinho();
+        atualizado.setNome(quadrinho.getNome());
+        atualizado.setAutor("Autor " + UUID.randomUUID());
+        atualizado.setRaridade(Quadrinho.Raridade.comum);
+        quadrinhoService.atualizarQuadrinho(quadrinho.getId(), atualizado);
+
+        assertTrue(porAutor(autorAnterior).isEmpty());
+        assertEquals(1, porAutor(atualizado.getAutor()).size());
+        assertEquals(atualizado.getAutor(), buscarPorId().autor());
+    }
+
+    @Test
+    void atualizacoesSeguidasCarregamAEntidadeDoBancoUmaVez() throws Exception {
+        quadrinhoService.updateRaridade(quadrinho.getId(), Quadrinho.Raridade.raro);
+        quadrinhoService.editarRaridade(quadrinho.getId(), Quadrinho.Raridade.comum);
+
+        Quadrinho atualizado = new Quadrinho();
+        atualizado.setNome(quadrinho.getNome());
+        atualizado.setAutor(quadrinho.getAutor());
+        atualizado.setRaridade(Quadrinho.Raridade.raro);
+        quadrinhoService.atualizarQuadrinho(quadrinho.getId(), atualizado);
+
+        assertEquals(1, estatisticas.getEntityLoadCount());
+        assertEquals(2, estatisticas.getDomainDataRegionStatistics(Quadrinho.REGIAO_CACHE).getHitCount());
+        assertEquals(Quadrinho.Raridade.raro, buscarPorId().raridade());
+    }
+
+    @Test
+    void alteracaoEmMassaInvalidaABuscaPeloId() {
+        buscarPorId();
+
+        quadrinhoService.alterarRaridade(quadrinho.getId(), Quadrinho.Raridade.raro);
+
+        assertEquals(Quadrinho.Raridade.raro, buscarPorId().raridade());
+    }
+
+    private QuadrinhoDTO buscarPorId() {
+        limparCacheServico(CacheConfig.QUADRINHOS_POR_ID);
+        return quadrinhoService.buscarPorId(quadrinho.getId());
+    }
+
+    private List<QuadrinhoDTO> porRaridade(Quadrinho.Raridade raridade) {
+        limparCacheServico(CacheConfig.QUADRINHOS_POR_RARIDADE);
+        return quadrinhoService.getQuadrinhosPorRaridade(raridade);
+    }
+
+    private List<QuadrinhoDTO> porAutor(String autor) {
+        limparCacheServico(CacheConfig.QUADRINHOS_POR_AUTOR);
+        return quadrinhoService.getQuadrinhosPorAutor(autor);
+    }
+
+    private void limparCacheServico(String nomeCache) {
+        cacheManager.getCache(nomeCache).clear();
+    }
+
+    private boolean contemQuadrinho(List<QuadrinhoDTO> quadrinhos) {
+        return quadrinhos.stream().anyMatch(q -> q.id().equals(quadrinho.getId()));
+    }
+}
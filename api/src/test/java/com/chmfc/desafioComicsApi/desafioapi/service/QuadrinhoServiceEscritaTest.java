@@ -0,0 +1,166 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Teste de regressão da quantidade de comandos SQL emitidos pelas operações de escrita de {@link QuadrinhoService}.
+ * Os comandos são contados nas conexões do pool, e não pelo Hibernate, para incluir os emitidos pelo JDBC,
+ * como o registro no feed de alterações. A contagem é por thread, para não incluir as tarefas em segundo plano.
+ */
+@SpringBootTest
+class QuadrinhoServiceEscritaTest {
+
+    @Autowired
+    private QuadrinhoService quadrinhoService;
+
+    @Autowired
+    private QuadrinhoRepository quadrinhoRepository;
+
+    private Quadrinho quadrinho;
+
+    @BeforeEach
+    void preparar() {
+        quadrinho = new Quadrinho();
+        quadrinho.setNome("Quadrinho " + UUID.randomUUID());
+        quadrinho.setAutor("Autor");
+        quadrinho.setRaridade(Quadrinho.Raridade.comum);
+        quadrinho = quadrinhoService.salvar(quadrinho);
+        ContadorComandos.zerar();
+    }
+
+    @Test
+    void deletarTravaALinhaERemoveComUmComando() {
+        assertEquals(1, quadrinhoService.deletar(quadrinho.getId()));
+
+        // Trava da linha, escrita e registro no feed de alterações
+        assertEquals(3, ContadorComandos.total());
+        assertFalse(quadrinhoRepository.existsById(quadrinho.getId()));
+    }
+
+    @Test
+    void deletarInexistenteRetornaZero() {
+        assertEquals(0, quadrinhoService.deletar(-1L));
+
+        assertEquals(1, ContadorComandos.total());
+    }
+
+    @Test
+    void alterarRaridadeTravaALinhaEAlteraComUmComando() {
+        assertEquals(1, quadrinhoService.alterarRaridade(quadrinho.getId(), Quadrinho.Raridade.raro));
+
+        // Trava da linha, escrita e registro no feed de alterações
+        assertEquals(3, ContadorComandos.total());
+        assertEquals(Quadrinho.Raridade.raro, quadrinhoRepository.findById(quadrinho.getId()).orElseThrow().getRaridade());
+    }
+
+    @Test
+    void atualizarParcialmenteTravaALinhaEAlteraComUmComando() {
+        Quadrinho alteracoes = new Quadrinho();
+        alteracoes.setAutor("Outro Autor");
+
+        assertEquals(1, quadrinhoService.atualizarParcialmente(quadrinho.getId(), alteracoes));
+
+        // Trava da linha, escrita e registro no feed de alterações
+        assertEquals(3, ContadorComandos.total());
+        Quadrinho atualizado = quadrinhoRepository.findById(quadrinho.getId()).orElseThrow();
+        assertEquals("Outro Autor", atualizado.getAutor());
+        assertEquals(quadrinho.getNome(), atualizado.getNome());
+    }
+
+    @Test
+    void atualizarQuadrinhoNaoRepeteConsultas() {
+        Quadrinho atualizado = new Quadrinho();
+        atualizado.setNome(quadrinho.getNome());
+        atualizado.setAutor("Outro Autor");
+        atualizado.setRaridade(Quadrinho.Raridade.comum);
+
+        quadrinhoService.atualizarQuadrinho(quadrinho.getId(), atualizado);
+
+        // Busca pelo id, escrita e registro no feed de alterações
+        assertEquals(3, ContadorComandos.total());
+    }
+
+    @TestConfiguration
+    static class ContagemComandosConfig {
+
+        /**
+         * Passa a obter as conexões do pool criado pelo Spring Boot por um {@link ContadorComandos}.
+         */
+        @Bean
+        static BeanPostProcessor contadorComandos() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                    return bean instanceof HikariDataSource pool ? new ContadorComandos(pool) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * {@link DataSource} que conta os comandos SQL criados pela thread atual nas conexões que entrega.
+     */
+    static class ContadorComandos extends DelegatingDataSource {
+
+        private static final Set<String> CRIACAO_COMANDO = Set.of("createStatement", "prepareStatement", "prepareCall");
+        private static final ThreadLocal<int[]> CONTADOR = ThreadLocal.withInitial(() -> new int[1]);
+
+        ContadorComandos(DataSource alvo) {
+            super(alvo);
+        }
+
+        static void zerar() {
+            CONTADOR.get()[0] = 0;
+        }
+
+        static int total() {
+            return CONTADOR.get()[0];
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return envolver(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return envolver(super.getConnection(username, password));
+        }
+
+        private static Connection envolver(Connection conexao) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, metodo, argumentos) -> {
+                        if (CRIACAO_COMANDO.contains(metodo.getName())) {
+                            CONTADOR.get()[0]++;
+                        }
+                        try {
+                            return metodo.invoke(conexao, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.chmfc.desafioComicsApi.desafioapi.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.CupomDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testes do registro de chaves de idempotência, com as chaves também reservadas no banco.
+ * As linhas gravadas direto na tabela simulam reservas feitas por outra instância.
+ */
+@SpringBootTest(properties = {"idempotencia.persistir=true", "idempotencia.espera-maxima=2s"})
+class RegistroIdempotenciaTest {
+
+    private static final String OPERACAO = "POST /teste";
+
+    @Autowired
+    private RegistroIdempotencia registroIdempotencia;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void repeticaoDevolveARespostaOriginalSemExecutarDeNovo() {
+        String chave = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+
+        ResponseEntity<CupomDTO> primeira = executar(chave, Map.of("valor", 1), execucoes);
+        ResponseEntity<CupomDTO> repetida = executar(chave, Map.of("valor", 1), execucoes);
+
+        assertEquals(1, execucoes.get());
+        assertNull(primeira.getHeaders().getFirst(RegistroIdempotencia.CABECALHO_REPETICAO));
+        assertEquals("true", repetida.getHeaders().getFirst(RegistroIdempotencia.CABECALHO_REPETICAO));
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        assertEquals(primeira.getBody(), repetida.getBody());
+    }
+
+    @Test
+    void chaveReaproveitadaComOutroCorpoERecusada() {
+        String chave = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+        executar(chave, Map.of("valor", 1), execucoes);
+
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> executar(chave, Map.of("valor", 2), execucoes));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, erro.getStatusCode());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void requisicoesSimultaneasComAMesmaChaveExecutamUmaVez() throws Exception {
+        String chave = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ResponseEntity<CupomDTO>>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                return registroIdempotencia.executar(chave, OPERACAO, null, CupomDTO.class, () -> {
+                    execucoes.incrementAndGet();
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ResponseEntity.status(HttpStatus.CREATED).body(cupom());
+                });
+            }));
+        }
+        largada.countDown();
+        CupomDTO esperado = tarefas.get(0).get().getBody();
+        for (Future<ResponseEntity<CupomDTO>> tarefa : tarefas) {
+            assertEquals(esperado, tarefa.get().getBody());
+        }
+        executor.shutdown();
+
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void respostaPersistidaERepetidaDepoisDeSairDaMemoria() {
+        String chave = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+        ResponseEntity<CupomDTO> primeira = executar(chave, Map.of("valor", 1), execucoes);
+
+        registroIdempotencia.limparMemoria();
+        ResponseEntity<CupomDTO> repetida = executar(chave, Map.of("valor", 1), execucoes);
+
+        assertEquals(1, execucoes.get());
+        assertEquals("true", repetida.getHeaders().getFirst(RegistroIdempotencia.CABECALHO_REPETICAO));
+        assertEquals(primeira.getBody(), repetida.getBody());
+    }
+
+    @Test
+    void falhaNaoERegistradaEPermiteNovaTentativa() {
+        String chave = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> registroIdempotencia.executar(chave, OPERACAO, null, CupomDTO.class, () -> {
+            execucoes.incrementAndGet();
+            throw new IllegalStateException("falha");
+        }));
+
+        executar(chave, null, execucoes);
+
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void reservaPendenteDeOutraInstanciaEAguardadaESuaRespostaRepetida() throws Exception {
+        String chave = UUID.randomUUID().toString();
+        reservarComoOutraInstancia(chave, LocalDateTime.now().plusMinutes(5));
+        CupomDTO original = cupom();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> {
+            Thread.sleep(300);
+            return jdbcTemplate.update("update chaves_idempotencia set status = 201, corpo = ? where chave = ?",
+                    objectMapper.writeValueAsString(original), OPERACAO + " " + chave);
+        });
+        AtomicInteger execucoes = new AtomicInteger();
+
+        ResponseEntity<CupomDTO> repetida = executar(chave, null, execucoes);
+        executor.shutdown();
+
+        assertEquals(0, execucoes.get());
+        assertEquals("true", repetida.getHeaders().getFirst(RegistroIdempotencia.CABECALHO_REPETICAO));
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        assertEquals(original, repetida.getBody());
+    }
+
+    @Test
+    void reservaPendenteSemRespostaDentroDaEsperaRecebe409() {
+        String chave = UUID.randomUUID().toString();
+        reservarComoOutraInstancia(chave, LocalDateTime.now().plusMinutes(5));
+        AtomicInteger execucoes = new AtomicInteger();
+
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class, () -> executar(chave, null, execucoes));
+
+        assertEquals(HttpStatus.CONFLICT, erro.getStatusCode());
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    void reservaAbandonadaETomadaPorNovaRequisicao() {
+        String chave = UUID.randomUUID().toString();
+        reservarComoOutraInstancia(chave, LocalDateTime.now().minusSeconds(1));
+        AtomicInteger execucoes = new AtomicInteger();
+
+        ResponseEntity<CupomDTO> resposta = executar(chave, null, execucoes);
+
+        assertEquals(1, execucoes.get());
+        assertNull(resposta.getHeaders().getFirst(RegistroIdempotencia.CABECALHO_REPETICAO));
+        assertEquals(201, jdbcTemplate.queryForObject("select status from chaves_idempotencia where chave = ?",
+                Integer.class, OPERACAO + " " + chave));
+    }
+
+    @Test
+    void execucaoEmAndamentoNaoEDescartadaPeloLimiteDeQuantidade() throws Exception {
+        RegistroIdempotencia registro = new RegistroIdempotencia(jdbcTemplate, objectMapper, 1,
+                Duration.ofHours(1), Duration.ofSeconds(5), Duration.ofMinutes(5), false);
+        String chave = UUID.randomUUID().toString();
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<ResponseEntity<CupomDTO>> primeira = executor.submit(() -> registro.executar(chave, OPERACAO, null, CupomDTO.class, () -> {
+            execucoes.incrementAndGet();
+            iniciada.countDown();
+            try {
+                liberada.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(cupom());
+        }));
+        iniciada.await();
+        for (int i = 0; i < 1000; i++) {
+            registro.executar(UUID.randomUUID().toString(), OPERACAO, null, CupomDTO.class,
+                    () -> ResponseEntity.status(HttpStatus.CREATED).body(cupom()));
+        }
+
+        Future<ResponseEntity<CupomDTO>> repetida = executor.submit(() -> registro.executar(chave, OPERACAO, null, CupomDTO.class, () -> {
+            execucoes.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(cupom());
+        }));
+        Thread.sleep(200);
+        liberada.countDown();
+
+        assertEquals(primeira.get(5, TimeUnit.SECONDS).getBody(), repetida.get(5, TimeUnit.SECONDS).getBody());
+        executor.shutdown();
+        assertEquals(1, execucoes.get());
+    }
+
+    private void reservarComoOutraInstancia(String chave, LocalDateTime expiraEm) {
+        jdbcTemplate.update("insert into chaves_idempotencia (chave, impressao, status, corpo, criado_em, expira_em) values (?, ?, null, null, ?, ?)",
+                OPERACAO + " " + chave, impressaoSemCorpo(), Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(expiraEm));
+    }
+
+    private static String impressaoSemCorpo() {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(OPERACAO.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ResponseEntity<CupomDTO> executar(String chave, Object requisicao, AtomicInteger execucoes) {
+        return registroIdempotencia.executar(chave, OPERACAO, requisicao, CupomDTO.class, () -> {
+            execucoes.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(cupom());
+        });
+    }
+
+    private static CupomDTO cupom() {
+        LocalDateTime agora = LocalDateTime.now().withNano(0);
+        return new CupomDTO(System.nanoTime(), UUID.randomUUID().toString(), Quadrinho.Raridade.raro, 0.1,
+                agora.plusDays(30), 1, agora);
+    }
+}
@@ -0,0 +1,137 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.desafioapi.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.desafioapi.service.FeedAlteracoes;
+import com.chmfc.desafioComicsApi.desafioapi.service.QuadrinhoService;
+import com.chmfc.desafioComicsApi.desafioapi.service.RegistroAlteracoes;
+import com.chmfc.desafioComicsApi.desafioapi.service.VersoesCatalogo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes das requisições condicionais das listagens de quadrinhos ({@code If-None-Match} e {@code If-Modified-Since}).
+ * As escritas feitas direto pelo repositório, com o registro no feed de alterações gravado na mesma transação,
+ * simulam outra instância: não passam pelo serviço desta e só são percebidas quando {@link FeedAlteracoes} as publica.
+ */
+@SpringBootTest(properties = "cupons.pool.minimo=0")
+@AutoConfigureMockMvc
+class QuadrinhoControllerCondicionalTest {
+
+    private static final String RARIDADE = "/api/v1/quadrinhos/buscar/raridade/raro";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuadrinhoRepository quadrinhoRepository;
+
+    @Autowired
+    private QuadrinhoService quadrinhoService;
+
+    @Autowired
+    private FeedAlteracoes feedAlteracoes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void ifNoneMatchRecebe304AteUmaExclusaoDeOutraInstancia() throws Exception {
+        Quadrinho quadrinho = quadrinhoRepository.save(novoQuadrinho());
+        aguardarFeed();
+        String etag = mockMvc.perform(get(RARIDADE)).andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(RARIDADE).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+        escreverComoOutraInstancia(RegistroAlteracoes.QUADRINHO_REMOVIDO, quadrinho.getId(),
+                id -> quadrinhoRepository.deleteById(id));
+
+        MvcResult resultado = mockMvc.perform(get(RARIDADE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk()).andReturn();
+        assertNotEquals(etag, resultado.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void ifModifiedSinceRecebe304AteUmaInclusaoDeOutraInstancia() throws Exception {
+        aguardarFeed();
+        String ultimaModificacao = mockMvc.perform(get(RARIDADE)).andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get(RARIDADE).header(HttpHeaders.IF_MODIFIED_SINCE, ultimaModificacao))
+                .andExpect(status().isNotModified());
+
+        Quadrinho quadrinho = quadrinhoRepository.save(novoQuadrinho());
+        escreverComoOutraInstancia(RegistroAlteracoes.QUADRINHO_ATUALIZADO, quadrinho.getId(), id -> {
+        });
+
+        mockMvc.perform(get(RARIDADE).header(HttpHeaders.IF_MODIFIED_SINCE, ultimaModificacao))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void escritaDestaInstanciaMudaOEtagLogoAposOCommit() throws Exception {
+        aguardarFeed();
+        String etag = mockMvc.perform(get(RARIDADE)).andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+
+        quadrinhoService.salvar(novoQuadrinho());
+
+        // Sem esperar o feed: a alteração confirmada nesta instância já muda a versão
+        mockMvc.perform(get(RARIDADE).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+    }
+
+    /**
+     * Executa a escrita e grava o registro no feed na mesma transação, sem passar por {@link RegistroAlteracoes},
+     * e espera o feed publicar o registro.
+     */
+    private void escreverComoOutraInstancia(String tipo, long id, Consumer<Long> escrita) throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            escrita.accept(id);
+            jdbcTemplate.update("insert into eventos_alteracao (tipo, agregado_id, dados, data_criacao) values (?, ?, ?, now())",
+                    tipo, id, "{\"id\":" + id + "}");
+        });
+        aguardarFeed();
+    }
+
+    /**
+     * Espera o feed publicar todas as alterações já gravadas.
+     */
+    private void aguardarFeed() throws InterruptedException {
+        long ultima = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from eventos_alteracao", Long.class);
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((long) feedAlteracoes.estatisticas().get("ultimaSequencia") < ultima) {
+            assertTrue(System.nanoTime() < limite, "O feed não publicou as alterações");
+            feedAlteracoes.sinalizar();
+            Thread.sleep(20);
+        }
+    }
+
+    private static Quadrinho novoQuadrinho() {
+        Quadrinho quadrinho = new Quadrinho();
+        quadrinho.setNome("Condicional " + UUID.randomUUID());
+        quadrinho.setAutor("Autor condicional");
+        quadrinho.setRaridade(Quadrinho.Raridade.raro);
+        return quadrinho;
+    }
+}
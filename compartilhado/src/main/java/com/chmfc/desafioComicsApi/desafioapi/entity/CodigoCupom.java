@@ -0,0 +1,140 @@
+package com.chmfc.desafioComicsApi.desafioapi.entity;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Gerador e decodificador dos códigos de cupom.
+ * O código é um valor aleatório de 64 bits escrito em base32 de Crockford (13 caracteres)
+ * seguido de um dígito verificador Luhn mod 32, totalizando 14 caracteres.
+ * O valor numérico é a chave armazenada no banco; o texto é apenas sua representação.
+ * As chaves vêm de uma única instância compartilhada de {@link SecureRandom}, com o algoritmo padrão da plataforma,
+ * como a usada por {@link UUID#randomUUID()}; instâncias por thread seriam criadas e semeadas de novo a cada thread virtual.
+ */
+public final class CodigoCupom {
+
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] VALORES = new int[128];
+    private static final int TAMANHO_VALOR = 13;
+    private static final int TAMANHO_CODIGO = TAMANHO_VALOR + 1;
+    private static final int TAMANHO_CODIGO_LEGADO = 36;
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    static {
+        Arrays.fill(VALORES, -1);
+        for (int i = 0; i < ALFABETO.length; i++) {
+            VALORES[ALFABETO[i]] = i;
+        }
+        // Caracteres ambíguos aceitos na leitura, conforme a base32 de Crockford
+        VALORES['O'] = 0;
+        VALORES['I'] = 1;
+        VALORES['L'] = 1;
+    }
+
+    private CodigoCupom() {
+    }
+
+    /**
+     * Gera uma nova chave aleatória de cupom.
+     *
+     * @return A chave gerada.
+     */
+    public static long gerarChave() {
+        return ALEATORIO.nextLong();
+    }
+
+    /**
+     * Escreve a chave no formato textual do cupom.
+     *
+     * @param chave A chave do cupom.
+     * @return O código de 14 caracteres correspondente.
+     */
+    public static String codificar(long chave) {
+        char[] codigo = new char[TAMANHO_CODIGO];
+        long restante = chave;
+        for (int i = TAMANHO_VALOR - 1; i >= 0; i--) {
+            codigo[i] = ALFABETO[(int) (restante & 31)];
+            restante >>>= 5;
+        }
+        codigo[TAMANHO_VALOR] = ALFABETO[digitoVerificador(codigo)];
+        return new String(codigo);
+    }
+
+    /**
+     * Lê a chave a partir do código informado pelo cliente.
+     * Hífens são ignorados e letras minúsculas e ambíguas são normalizadas.
+     *
+     * @param codigo O código do cupom.
+     * @return A chave do cupom, ou null se o código estiver malformado ou o dígito verificador não conferir.
+     */
+    public static Long decodificar(String codigo) {
+        String normalizado = codigo.replace("-", "").toUpperCase(Locale.ROOT);
+        if (normalizado.length() != TAMANHO_CODIGO) {
+            return null;
+        }
+        char[] caracteres = new char[TAMANHO_CODIGO];
+        long chave = 0;
+        for (int i = 0; i < TAMANHO_CODIGO; i++) {
+            char c = normalizado.charAt(i);
+            int valor = c < 128 ? VALORES[c] : -1;
+            if (valor < 0 || (i == 0 && valor > 15)) {
+                return null;
+            }
+            caracteres[i] = ALFABETO[valor];
+            if (i < TAMANHO_VALOR) {
+                chave = (chave << 5) | valor;
+            }
+        }
+        if (caracteres[TAMANHO_VALOR] != ALFABETO[digitoVerificador(caracteres)]) {
+            return null;
+        }
+        return chave;
+    }
+
+    /**
+     * Indica se o código está no formato UUID usado pelos cupons emitidos antes do formato compacto.
+     *
+     * @param codigo O código do cupom.
+     * @return true se o código tem o formato de UUID.
+     */
+    public static boolean isLegado(String codigo) {
+        if (codigo.length() != TAMANHO_CODIGO_LEGADO) {
+            return false;
+        }
+        try {
+            UUID.fromString(codigo);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deriva uma chave de 64 bits a partir de um código legado em formato UUID,
+     * para que esses cupons também possam ser registrados no filtro de códigos.
+     *
+     * @param codigo O código legado.
+     * @return A chave derivada.
+     */
+    public static long chaveLegada(String codigo) {
+        UUID uuid = UUID.fromString(codigo);
+        return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+    }
+
+    /**
+     * Calcula o dígito verificador Luhn mod 32 sobre os 13 primeiros caracteres do código.
+     */
+    private static int digitoVerificador(char[] codigo) {
+        int fator = 2;
+        int soma = 0;
+        for (int i = TAMANHO_VALOR - 1; i >= 0; i--) {
+            int adendo = fator * VALORES[codigo[i]];
+            fator = fator == 2 ? 1 : 2;
+            soma += adendo / 32 + adendo % 32;
+        }
+        return (32 - soma % 32) % 32;
+    }
+}
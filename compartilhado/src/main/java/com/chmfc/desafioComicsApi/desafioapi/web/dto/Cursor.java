@@ -0,0 +1,52 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica e decodifica os tokens opacos de continuação usados na paginação por keyset.
+ * O token carrega apenas o último id retornado, mas o cliente não deve depender do seu formato.
+ */
+public final class Cursor {
+
+    private static final String PREFIXO = "id:";
+
+    private Cursor() {
+    }
+
+    /**
+     * Gera o token de continuação a partir do último id retornado.
+     *
+     * @param ultimoId Último id da página atual.
+     * @return Token opaco em Base64 URL-safe.
+     */
+    public static String codificar(Long ultimoId) {
+        byte[] bytes = (PREFIXO + ultimoId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Recupera o último id a partir do token de continuação.
+     *
+     * @param token Token recebido do cliente, ou null para a primeira página.
+     * @return Último id retornado anteriormente, ou null se o token não foi informado.
+     * @throws ResponseStatusException com status 400 se o token for inválido.
+     */
+    public static Long decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO)) {
+                throw new IllegalArgumentException();
+            }
+            return Long.parseLong(valor.substring(PREFIXO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.chmfc.desafioComicsApi.desafioapi.web.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de uma listagem paginada por cursor.
+ *
+ * @param itens Itens da página atual.
+ * @param proximoCursor Token opaco para buscar a próxima página, ou null se não houver mais itens.
+ */
+public record Pagina<T>(List<T> itens, String proximoCursor) {
+}
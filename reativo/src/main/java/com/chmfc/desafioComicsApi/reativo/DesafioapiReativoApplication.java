@@ -0,0 +1,15 @@
+package com.chmfc.desafioComicsApi.reativo;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+
+@SpringBootApplication
+@EnableR2dbcAuditing
+public class DesafioapiReativoApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(DesafioapiReativoApplication.class, args);
+	}
+
+}
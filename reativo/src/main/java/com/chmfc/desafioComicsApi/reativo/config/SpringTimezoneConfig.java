@@ -0,0 +1,23 @@
+package com.chmfc.desafioComicsApi.reativo.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.TimeZone;
+
+/**
+ * Classe de configuração de fuso horário da aplicação.
+ * Usa o mesmo fuso da aplicação principal, "America/Sao_Paulo", já que as duas gravam datas no mesmo banco.
+ */
+@Configuration
+public class SpringTimezoneConfig {
+
+    /**
+     * Define o fuso horário padrão como "America/Sao_Paulo".
+     * Este método é executado após a construção do bean.
+     */
+    @PostConstruct
+    public void timezoneConfig() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+    }
+}
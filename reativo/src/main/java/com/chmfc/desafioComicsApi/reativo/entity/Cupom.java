@@ -0,0 +1,82 @@
+package com.chmfc.desafioComicsApi.reativo.entity;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.CodigoCupom;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade R2DBC que representa um cupom de desconto, mapeada na mesma tabela da entidade JPA da aplicação principal.
+ * O id vem da sequência {@code cupons_seq}, reservada em faixas por {@link com.chmfc.desafioComicsApi.reativo.service.SequenciaCupons},
+ * e o código segue o formato de {@link CodigoCupom}, de modo que cupons emitidos por qualquer das duas aplicações
+ * são válidos na outra.
+ */
+@Getter @Setter @NoArgsConstructor
+@Table("cupons")
+public class Cupom {
+
+    /**
+     * Identificador único, atribuído antes da inserção.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Código do cupom, derivado da chave.
+     */
+    private String codigo;
+
+    /**
+     * Chave numérica do código do cupom.
+     */
+    private Long chave;
+
+    /**
+     * Raridade do quadrinho ao qual o cupom se aplica.
+     */
+    private Quadrinho.Raridade raridade;
+
+    /**
+     * Valor do desconto aplicado pelo cupom.
+     */
+    private double desconto;
+
+    /**
+     * Data e hora de validade do cupom.
+     */
+    private LocalDateTime validade;
+
+    /**
+     * Quantidade de vezes que o cupom ainda pode ser resgatado.
+     */
+    @Column("usos_restantes")
+    private int usosRestantes = 1;
+
+    /**
+     * Data e hora de criação do cupom.
+     */
+    @Column("data_criacao")
+    private LocalDateTime dataCriacao;
+
+    /**
+     * Cria um novo cupom com código aleatório e validade de 30 dias.
+     *
+     * @param id O id reservado para o cupom.
+     * @param raridade A raridade do quadrinho ao qual o cupom se aplica.
+     * @param desconto O valor do desconto.
+     */
+    public Cupom(Long id, Quadrinho.Raridade raridade, double desconto) {
+        this.id = id;
+        this.chave = CodigoCupom.gerarChave();
+        this.codigo = CodigoCupom.codificar(chave);
+        this.raridade = raridade;
+        this.desconto = desconto;
+        this.dataCriacao = LocalDateTime.now();
+        this.validade = dataCriacao.plusDays(30);
+    }
+}
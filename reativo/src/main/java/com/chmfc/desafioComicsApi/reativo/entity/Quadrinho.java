@@ -0,0 +1,64 @@
+package com.chmfc.desafioComicsApi.reativo.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade R2DBC que representa um Quadrinho, mapeada na mesma tabela da entidade JPA da aplicação principal.
+ * As datas de criação e modificação são preenchidas pela auditoria do Spring Data.
+ */
+@Getter @Setter @NoArgsConstructor
+@Table("quadrinhos")
+public class Quadrinho {
+
+    /**
+     * Identificador único, gerado pelo banco (auto incremento).
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Nome do quadrinho.
+     * Não pode ser nulo e deve ser único.
+     */
+    private String nome;
+
+    /**
+     * Nome do autor do quadrinho.
+     */
+    private String autor;
+
+    /**
+     * Raridade do quadrinho, gravada pelo nome.
+     */
+    private Raridade raridade;
+
+    /**
+     * Data de criação, preenchida na inserção.
+     */
+    @CreatedDate
+    @Column("data_criacao")
+    private LocalDateTime dataCriacao;
+
+    /**
+     * Data da última modificação, preenchida a cada gravação.
+     */
+    @LastModifiedDate
+    @Column("data_modificacao")
+    private LocalDateTime dataModificacao;
+
+    /**
+     * Enum que define os possíveis valores de raridade.
+     */
+    public enum Raridade {
+        raro, comum
+    }
+}
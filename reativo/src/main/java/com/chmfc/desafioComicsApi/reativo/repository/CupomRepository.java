@@ -0,0 +1,80 @@
+package com.chmfc.desafioComicsApi.reativo.repository;
+
+import com.chmfc.desafioComicsApi.reativo.entity.Cupom;
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositório reativo para a entidade {@link Cupom}.
+ * A inserção de novos cupons, com id já atribuído, é feita por {@link com.chmfc.desafioComicsApi.reativo.service.CupomService}.
+ */
+@Repository
+public interface CupomRepository extends ReactiveCrudRepository<Cupom, Long> {
+
+    /**
+     * Lista os cupons válidos de uma raridade, em ordem de id.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param agora Instante de referência; só são retornados cupons com validade posterior a ele.
+     * @param limite Quantidade máxima de cupons.
+     * @param deslocamento Quantidade de cupons a pular.
+     * @return Os cupons válidos da raridade.
+     */
+    @Query("select * from cupons where raridade = :raridade and validade > :agora and reservado = false order by id limit :limite offset :deslocamento")
+    Flux<Cupom> listarValidosPorRaridade(Quadrinho.Raridade raridade, LocalDateTime agora, long limite, long deslocamento);
+
+    /**
+     * Conta os cupons válidos de uma raridade.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param agora Instante de referência; só são contados cupons com validade posterior a ele.
+     * @return A quantidade de cupons válidos.
+     */
+    @Query("select count(*) from cupons where raridade = :raridade and validade > :agora and reservado = false")
+    Mono<Long> contarValidosPorRaridade(Quadrinho.Raridade raridade, LocalDateTime agora);
+
+    /**
+     * Busca um cupom pela chave do código.
+     *
+     * @param chave A chave do código do cupom.
+     * @return O cupom, se existir.
+     */
+    Mono<Cupom> findByChave(Long chave);
+
+    /**
+     * Busca um cupom pelo código legado (UUID).
+     *
+     * @param codigo O código legado do cupom, em minúsculas.
+     * @return O cupom, se existir.
+     */
+    Mono<Cupom> findByCodigo(String codigo);
+
+    /**
+     * Consome um uso do cupom com a chave informada, desde que ainda tenha usos e esteja na validade.
+     *
+     * @param chave A chave do código do cupom.
+     * @param agora Instante do resgate, comparado com a validade do cupom.
+     * @return 1 se um uso foi consumido, 0 caso contrário.
+     */
+    @Modifying
+    @Query("update cupons set usos_restantes = usos_restantes - 1 where chave = :chave and usos_restantes > 0 and validade > :agora and reservado = false")
+    Mono<Integer> consumirUsoPorChave(Long chave, LocalDateTime agora);
+
+    /**
+     * Consome um uso do cupom legado com o código informado, nas mesmas condições de {@link #consumirUsoPorChave}.
+     *
+     * @param codigo O código legado do cupom.
+     * @param agora Instante do resgate, comparado com a validade do cupom.
+     * @return 1 se um uso foi consumido, 0 caso contrário.
+     */
+    @Modifying
+    @Query("update cupons set usos_restantes = usos_restantes - 1 where codigo = :codigo and usos_restantes > 0 and validade > :agora and reservado = false")
+    Mono<Integer> consumirUsoPorCodigo(String codigo, LocalDateTime agora);
+}
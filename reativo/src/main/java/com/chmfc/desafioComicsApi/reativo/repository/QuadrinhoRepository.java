@@ -0,0 +1,53 @@
+package com.chmfc.desafioComicsApi.reativo.repository;
+
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositório reativo para a entidade {@link Quadrinho}.
+ * As listagens são entregues como {@link Flux}, lidas do banco conforme o consumidor solicita.
+ */
+@Repository
+public interface QuadrinhoRepository extends ReactiveCrudRepository<Quadrinho, Long> {
+
+    /**
+     * Lista os quadrinhos de uma raridade.
+     *
+     * @param raridade A raridade dos quadrinhos.
+     * @return Os quadrinhos com a raridade informada.
+     */
+    Flux<Quadrinho> findByRaridade(Quadrinho.Raridade raridade);
+
+    /**
+     * Lista uma página de quadrinhos por keyset, a partir do id seguinte ao informado.
+     *
+     * @param id Último id da página anterior, ou 0 para a primeira página.
+     * @param limite Quantidade máxima de quadrinhos.
+     * @return Os quadrinhos da página, em ordem de id.
+     */
+    @Query("select * from quadrinhos where id > :id order by id limit :limite")
+    Flux<Quadrinho> listarPagina(Long id, int limite);
+
+    /**
+     * Lista todos os quadrinhos em ordem de id.
+     *
+     * @return Todos os quadrinhos cadastrados.
+     */
+    @Query("select * from quadrinhos order by id")
+    Flux<Quadrinho> listarTodos();
+
+    /**
+     * Remove o quadrinho pelo id com um único comando DELETE.
+     *
+     * @param id Identificador do quadrinho.
+     * @return Quantidade de quadrinhos removidos (0 se o quadrinho não existir).
+     */
+    @Modifying
+    @Query("delete from quadrinhos where id = :id")
+    Mono<Integer> removerPorId(Long id);
+}
@@ -0,0 +1,222 @@
+package com.chmfc.desafioComicsApi.reativo.service;
+
+import com.chmfc.desafioComicsApi.desafioapi.entity.CodigoCupom;
+import com.chmfc.desafioComicsApi.reativo.entity.Cupom;
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.reativo.repository.CupomRepository;
+import com.chmfc.desafioComicsApi.reativo.web.dto.CupomDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Serviço reativo responsável pela lógica de negócios relacionada aos cupons.
+ * Os cupons são emitidos sob demanda: o id vem de {@link SequenciaCupons} e a inserção é feita pelo R2DBC,
+ * sem reserva de cupons pré-gerados nem filtro de códigos em memória como na aplicação principal.
+ */
+@RequiredArgsConstructor
+@Service
+public class CupomService {
+
+    private static final String INSERIR = "insert into cupons "
+            + "(id, codigo, chave, raridade, desconto, validade, usos_restantes, data_criacao) values ";
+
+    private final CupomRepository cupomRepository;
+    private final SequenciaCupons sequenciaCupons;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Quantidade de usos de cada cupom emitido.
+     */
+    @Value("${cupons.usos-por-cupom:1}")
+    private int usosPorCupom;
+
+    /**
+     * Quantidade de cupons gravados em cada INSERT durante a emissão em massa.
+     */
+    @Value("${cupons.lote.tamanho-insercao:500}")
+    private int tamanhoInsercao;
+
+    /**
+     * Quantidade de cupons por página nas listagens paginadas.
+     */
+    @Value("${cupons.lista.tamanho-pagina:1000}")
+    private int tamanhoPagina;
+
+    /**
+     * Retorna o desconto dos cupons emitidos para a raridade, com a mesma regra da aplicação principal.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @return O desconto: 0.1 para raros e 0.2 para comuns.
+     */
+    public static double descontoPara(Quadrinho.Raridade raridade) {
+        return raridade == Quadrinho.Raridade.raro ? 0.1 : 0.2;
+    }
+
+    /**
+     * Emite um novo cupom para a raridade informada.
+     *
+     * @param raridade A raridade do quadrinho para o qual o cupom será gerado.
+     * @return Mono com o cupom já persistido.
+     */
+    public Mono<Cupom> gerarCupom(Quadrinho.Raridade raridade) {
+        return sequenciaCupons.proximoId()
+                .flatMap(id -> r2dbcEntityTemplate.insert(novoCupom(id, raridade)));
+    }
+
+    /**
+     * Emite uma quantidade de cupons para a raridade informada, em blocos gravados com um único INSERT cada.
+     * Cada bloco só é gerado depois que o consumidor recebe todos os cupons do anterior,
+     * de modo que um cliente lento reduz o ritmo da emissão em vez de acumular cupons em memória.
+     *
+     * @param raridade A raridade do quadrinho para o qual os cupons serão gerados.
+     * @param quantidade A quantidade total de cupons a gerar.
+     * @return Flux com os cupons, entregues à medida que cada bloco é persistido.
+     */
+    public Flux<Cupom> gerarCupons(Quadrinho.Raridade raridade, int quantidade) {
+        int blocos = (quantidade + tamanhoInsercao - 1) / tamanhoInsercao;
+        return Flux.range(0, blocos)
+                .map(bloco -> Math.min(tamanhoInsercao, quantidade - bloco * tamanhoInsercao))
+                .concatMap(tamanho -> inserirBloco(raridade, tamanho), 1);
+    }
+
+    /**
+     * Conta os cupons válidos de uma raridade.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param agora Instante de referência da listagem.
+     * @return Mono com a quantidade de cupons válidos.
+     */
+    public Mono<Long> contarCuponsPorRaridade(Quadrinho.Raridade raridade, LocalDateTime agora) {
+        return cupomRepository.contarValidosPorRaridade(raridade, agora);
+    }
+
+    /**
+     * Recupera os cupons válidos de uma raridade, inteiros ou em uma página.
+     * Os cupons são lidos do banco conforme o consumidor os solicita.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param pagina Número da página, começando em 0, ou null para todos os cupons.
+     * @param agora Instante de referência da listagem.
+     * @return Flux com os cupons válidos, em ordem de id.
+     */
+    public Flux<CupomDTO> getCuponsPorRaridade(Quadrinho.Raridade raridade, Integer pagina, LocalDateTime agora) {
+        long limite = pagina == null ? Integer.MAX_VALUE : tamanhoPagina;
+        long deslocamento = pagina == null ? 0 : (long) pagina * tamanhoPagina;
+        return cupomRepository.listarValidosPorRaridade(raridade, agora, limite, deslocamento).map(CupomDTO::de);
+    }
+
+    /**
+     * Calcula a quantidade de páginas de uma listagem de cupons.
+     *
+     * @param totalCupons A quantidade de cupons da listagem.
+     * @return A quantidade de páginas.
+     */
+    public long totalPaginas(long totalCupons) {
+        return (totalCupons + tamanhoPagina - 1) / tamanhoPagina;
+    }
+
+    /**
+     * Busca um cupom pelo código informado pelo cliente.
+     * Códigos malformados ou com dígito verificador inválido são descartados sem consulta ao banco.
+     *
+     * @param codigo O código do cupom.
+     * @return Mono com o cupom, ou vazio se não existir.
+     */
+    public Mono<Cupom> buscarPorCodigo(String codigo) {
+        Long chave = CodigoCupom.decodificar(codigo);
+        if (chave != null) {
+            return cupomRepository.findByChave(chave);
+        }
+        if (CodigoCupom.isLegado(codigo)) {
+            return cupomRepository.findByCodigo(codigo.toLowerCase(Locale.ROOT));
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Resgata um uso do cupom com o código informado.
+     * O uso é consumido por um único UPDATE condicional; o cupom só é lido novamente para montar a resposta
+     * ou explicar uma recusa.
+     *
+     * @param codigo O código do cupom.
+     * @return Mono com o cupom resgatado, com os usos restantes já atualizados.
+     * @throws ResponseStatusException com status 404 se o cupom não existir,
+     *                                 410 se estiver expirado ou 409 se não tiver mais usos.
+     */
+    public Mono<Cupom> resgatar(String codigo) {
+        LocalDateTime agora = LocalDateTime.now();
+        Long chave = CodigoCupom.decodificar(codigo);
+        Mono<Integer> consumo;
+        if (chave != null) {
+            consumo = cupomRepository.consumirUsoPorChave(chave, agora);
+        } else if (CodigoCupom.isLegado(codigo)) {
+            consumo = cupomRepository.consumirUsoPorCodigo(codigo.toLowerCase(Locale.ROOT), agora);
+        } else {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Cupom não encontrado."));
+        }
+        return consumo.flatMap(consumidos -> buscarPorCodigo(codigo)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cupom não encontrado.")))
+                .flatMap(cupom -> {
+                    if (consumidos > 0) {
+                        return Mono.just(cupom);
+                    }
+                    if (!cupom.getValidade().isAfter(agora)) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.GONE, "Cupom expirado."));
+                    }
+                    return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Cupom sem usos restantes."));
+                }));
+    }
+
+    /**
+     * Reserva os ids, monta os cupons e os grava com um único INSERT de várias linhas.
+     */
+    private Flux<Cupom> inserirBloco(Quadrinho.Raridade raridade, int tamanho) {
+        return Flux.range(0, tamanho)
+                .concatMap(i -> sequenciaCupons.proximoId())
+                .map(id -> novoCupom(id, raridade))
+                .collectList()
+                .flatMap(cupons -> inserir(cupons).thenReturn(cupons))
+                .flatMapIterable(cupons -> cupons);
+    }
+
+    private Cupom novoCupom(Long id, Quadrinho.Raridade raridade) {
+        Cupom cupom = new Cupom(id, raridade, descontoPara(raridade));
+        cupom.setUsosRestantes(usosPorCupom);
+        return cupom;
+    }
+
+    private Mono<Void> inserir(List<Cupom> cupons) {
+        StringBuilder sql = new StringBuilder(INSERIR);
+        for (int i = 0; i < cupons.size(); i++) {
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:id").append(i).append(", :codigo").append(i).append(", :chave").append(i)
+                    .append(", :raridade").append(i).append(", :desconto").append(i).append(", :validade").append(i)
+                    .append(", :usos").append(i).append(", :criacao").append(i).append(')');
+        }
+        DatabaseClient.GenericExecuteSpec insercao = databaseClient.sql(sql.toString());
+        for (int i = 0; i < cupons.size(); i++) {
+            Cupom cupom = cupons.get(i);
+            insercao = insercao.bind("id" + i, cupom.getId())
+                    .bind("codigo" + i, cupom.getCodigo())
+                    .bind("chave" + i, cupom.getChave())
+                    .bind("raridade" + i, cupom.getRaridade().name())
+                    .bind("desconto" + i, cupom.getDesconto())
+                    .bind("validade" + i, cupom.getValidade())
+                    .bind("usos" + i, cupom.getUsosRestantes())
+                    .bind("criacao" + i, cupom.getDataCriacao());
+        }
+        return insercao.then();
+    }
+}
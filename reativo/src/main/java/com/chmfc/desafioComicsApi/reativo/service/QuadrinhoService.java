@@ -0,0 +1,137 @@
+package com.chmfc.desafioComicsApi.reativo.service;
+
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.reativo.repository.QuadrinhoRepository;
+import com.chmfc.desafioComicsApi.reativo.web.dto.QuadrinhoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serviço reativo responsável pela lógica de negócios relativa aos quadrinhos.
+ * Nenhum método bloqueia: cada operação devolve um {@link Mono} ou {@link Flux} executado sobre as conexões R2DBC.
+ */
+@RequiredArgsConstructor
+@Service
+public class QuadrinhoService {
+
+    private final QuadrinhoRepository quadrinhoRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    /**
+     * Tamanho da página quando o cliente não informa o tamanho.
+     */
+    @Value("${quadrinhos.paginacao.tamanho-padrao:50}")
+    private int tamanhoPadraoPagina;
+
+    /**
+     * Maior tamanho de página aceito.
+     */
+    @Value("${quadrinhos.paginacao.tamanho-maximo:500}")
+    private int tamanhoMaximoPagina;
+
+    /**
+     * Salva um novo quadrinho ou atualiza um existente.
+     * Quadrinhos com id informado que ainda não existe são inseridos com esse id;
+     * nos existentes, são alterados apenas nome, autor e raridade.
+     *
+     * @param quadrinho Quadrinho a ser salvo.
+     * @return Mono com o quadrinho salvo.
+     */
+    @Transactional
+    public Mono<Quadrinho> salvar(Quadrinho quadrinho) {
+        if (quadrinho.getId() == null) {
+            return quadrinhoRepository.save(quadrinho);
+        }
+        return quadrinhoRepository.findById(quadrinho.getId())
+                .flatMap(existente -> copiarESalvar(existente, quadrinho))
+                .switchIfEmpty(Mono.defer(() -> r2dbcEntityTemplate.insert(quadrinho)));
+    }
+
+    /**
+     * Atualiza nome, autor e raridade de um quadrinho existente.
+     *
+     * @param id Identificador do quadrinho.
+     * @param quadrinhoAtualizado Dados atualizados do quadrinho.
+     * @return Mono com o quadrinho atualizado.
+     * @throws ResponseStatusException com status 404 se o quadrinho não existir.
+     */
+    @Transactional
+    public Mono<Quadrinho> atualizarQuadrinho(Long id, Quadrinho quadrinhoAtualizado) {
+        return quadrinhoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quadrinho não encontrado.")))
+                .flatMap(quadrinho -> copiarESalvar(quadrinho, quadrinhoAtualizado));
+    }
+
+    /**
+     * Deleta um quadrinho pelo id, com um único comando DELETE.
+     *
+     * @param id Identificador do quadrinho a ser deletado.
+     * @return Mono com a quantidade de quadrinhos deletados (0 se o quadrinho não existir).
+     */
+    public Mono<Integer> deletar(Long id) {
+        return quadrinhoRepository.removerPorId(id);
+    }
+
+    /**
+     * Busca um quadrinho pelo id.
+     *
+     * @param id Identificador do quadrinho.
+     * @return Mono com o quadrinho encontrado.
+     * @throws ResponseStatusException com status 404 se o quadrinho não existir.
+     */
+    public Mono<QuadrinhoDTO> buscarPorId(Long id) {
+        return quadrinhoRepository.findById(id)
+                .map(QuadrinhoDTO::de)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quadrinho não encontrado.")));
+    }
+
+    /**
+     * Busca quadrinhos pela raridade.
+     *
+     * @param raridade Raridade dos quadrinhos desejados.
+     * @return Flux com os quadrinhos da raridade, lidos conforme a demanda do consumidor.
+     */
+    public Flux<QuadrinhoDTO> getQuadrinhosPorRaridade(Quadrinho.Raridade raridade) {
+        return quadrinhoRepository.findByRaridade(raridade).map(QuadrinhoDTO::de);
+    }
+
+    /**
+     * Busca uma página de quadrinhos em ordem de id, a partir do id seguinte ao informado.
+     *
+     * @param aposId Último id da página anterior, ou null para a primeira página.
+     * @param tamanho Quantidade de quadrinhos desejada; limitada pelo tamanho máximo configurado.
+     * @return Flux com os quadrinhos da página.
+     */
+    public Flux<QuadrinhoDTO> buscarPagina(Long aposId, Integer tamanho) {
+        int limite = tamanho == null ? tamanhoPadraoPagina : Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+        return quadrinhoRepository.listarPagina(aposId == null ? 0L : aposId, limite).map(QuadrinhoDTO::de);
+    }
+
+    /**
+     * Percorre todos os quadrinhos cadastrados em ordem de id.
+     * As linhas são lidas do banco à medida que o consumidor as solicita,
+     * de modo que um cliente lento não faz a aplicação acumular o catálogo em memória.
+     *
+     * @return Flux com todos os quadrinhos.
+     */
+    public Flux<QuadrinhoDTO> transmitirTodos() {
+        return quadrinhoRepository.listarTodos().map(QuadrinhoDTO::de);
+    }
+
+    /**
+     * Copia nome, autor e raridade para o quadrinho carregado e o grava, preservando a data de criação.
+     */
+    private Mono<Quadrinho> copiarESalvar(Quadrinho existente, Quadrinho alteracoes) {
+        existente.setNome(alteracoes.getNome());
+        existente.setAutor(alteracoes.getAutor());
+        existente.setRaridade(alteracoes.getRaridade());
+        return quadrinhoRepository.save(existente);
+    }
+}
@@ -0,0 +1,83 @@
+package com.chmfc.desafioComicsApi.reativo.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reserva os ids dos novos cupons a partir da sequência {@code cupons_seq}, a mesma usada pelo Hibernate na aplicação principal.
+ * No MySQL a sequência é uma tabela de uma linha; cada reserva lê o valor com bloqueio e o avança em {@link #INCREMENTO},
+ * e a faixa reservada segue a convenção do otimizador {@code pooled} do Hibernate: o valor lido é o último id da faixa.
+ * Assim, as duas aplicações podem emitir cupons no mesmo banco sem colisão de ids.
+ * <p>
+ * Os ids da faixa atual são entregues sem acesso ao banco; quando ela se esgota, uma única reserva é feita
+ * e as demais solicitações aguardam o seu resultado sem bloquear threads.
+ */
+@RequiredArgsConstructor
+@Component
+public class SequenciaCupons {
+
+    /**
+     * Tamanho de cada faixa, igual ao {@code allocationSize} da entidade Cupom na aplicação principal.
+     */
+    public static final int INCREMENTO = 500;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    private long proximo;
+    private long ultimo = -1;
+    private Mono<Void> reserva;
+
+    /**
+     * Retorna o próximo id de cupom.
+     *
+     * @return Mono com o id, disponível de imediato enquanto houver ids na faixa atual.
+     */
+    public Mono<Long> proximoId() {
+        return Mono.defer(() -> {
+            Mono<Void> pendente;
+            synchronized (this) {
+                if (proximo <= ultimo) {
+                    return Mono.just(proximo++);
+                }
+                if (reserva == null) {
+                    reserva = reservarFaixa().cache();
+                }
+                pendente = reserva;
+            }
+            return pendente.then(proximoId());
+        });
+    }
+
+    /**
+     * Reserva uma nova faixa e a torna a faixa atual.
+     */
+    private Mono<Void> reservarFaixa() {
+        Mono<Long> valor = databaseClient.sql("select next_val from cupons_seq for update")
+                .map(linha -> linha.get("next_val", Long.class))
+                .one()
+                .flatMap(lido -> databaseClient.sql("update cupons_seq set next_val = :proximo")
+                        .bind("proximo", lido + INCREMENTO)
+                        .then()
+                        .thenReturn(lido));
+        return transactionalOperator.transactional(valor)
+                .doOnNext(lido -> {
+                    synchronized (this) {
+                        proximo = Math.max(1, lido - INCREMENTO + 1);
+                        ultimo = lido;
+                    }
+                })
+                // A reserva é liberada antes de os que a aguardam serem notificados: se eles esgotarem a nova faixa
+                // ainda durante a notificação, os seguintes fazem outra reserva em vez de voltar a esta, já concluída,
+                // o que repetiria proximoId() sem fim na mesma pilha
+                .doOnTerminate(() -> {
+                    synchronized (this) {
+                        reserva = null;
+                    }
+                })
+                .then();
+    }
+}
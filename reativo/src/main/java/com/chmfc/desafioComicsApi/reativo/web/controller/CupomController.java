@@ -0,0 +1,129 @@
+package com.chmfc.desafioComicsApi.reativo.web.controller;
+
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.reativo.service.CupomService;
+import com.chmfc.desafioComicsApi.reativo.web.dto.CupomDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controlador REST reativo para gerenciar cupons, com os mesmos caminhos e formatos do CupomController
+ * da aplicação principal.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/cupons")
+public class CupomController {
+
+    static final String CABECALHO_PAGINA = "X-Pagina";
+    static final String CABECALHO_TOTAL_PAGINAS = "X-Total-Paginas";
+    static final String CABECALHO_TOTAL_CUPONS = "X-Total-Cupons";
+
+    private final CupomService cupomService;
+
+    /**
+     * Quantidade máxima de cupons aceita em uma única requisição de emissão em massa.
+     */
+    @Value("${cupons.lote.quantidade-maxima:100000}")
+    private int quantidadeMaxima;
+
+    /**
+     * Endpoint para gerar um novo cupom com base na raridade do quadrinho.
+     *
+     * @param raridade A raridade do quadrinho para o qual o cupom será gerado.
+     * @return Mono com o cupom recém-criado.
+     */
+    @PostMapping("/gerar/{raridade}")
+    public Mono<CupomDTO> gerarCupom(@PathVariable Quadrinho.Raridade raridade) {
+        return cupomService.gerarCupom(raridade).map(CupomDTO::de);
+    }
+
+    /**
+     * Endpoint para gerar vários cupons de uma vez com base na raridade do quadrinho.
+     * Os códigos são transmitidos em texto, um por linha, à medida que cada bloco é persistido;
+     * o próximo bloco só é gerado quando o cliente já recebeu o anterior.
+     *
+     * @param raridade   A raridade do quadrinho para o qual os cupons serão gerados.
+     * @param quantidade A quantidade de cupons a gerar.
+     * @return Flux com os códigos dos cupons gerados.
+     */
+    @PostMapping(value = "/gerar/{raridade}", params = "quantidade", produces = MediaType.TEXT_PLAIN_VALUE)
+    public Flux<String> gerarCupons(@PathVariable Quadrinho.Raridade raridade, @RequestParam int quantidade) {
+        if (quantidade < 1 || quantidade > quantidadeMaxima) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A quantidade deve estar entre 1 e " + quantidadeMaxima + ".");
+        }
+        return cupomService.gerarCupons(raridade, quantidade).map(cupom -> cupom.getCodigo() + "\n");
+    }
+
+    /**
+     * Endpoint para recuperar os cupons válidos com base na raridade do quadrinho, inteiros ou em páginas.
+     * Os cupons são transmitidos como array JSON à medida que são lidos do banco;
+     * os totais de páginas e de cupons são informados nos cabeçalhos X-Total-Paginas e X-Total-Cupons.
+     *
+     * @param raridade A raridade do quadrinho.
+     * @param pagina Número da página, começando em 0; se ausente, retorna todos os cupons.
+     * @return Mono com a resposta contendo os cupons válidos que correspondem à raridade fornecida.
+     */
+    @GetMapping("/raridade/{raridade}")
+    public Mono<ResponseEntity<Flux<CupomDTO>>> getCuponsByRaridade(@PathVariable Quadrinho.Raridade raridade,
+                                                                    @RequestParam(required = false) Integer pagina) {
+        return responder(cupomService, raridade, pagina);
+    }
+
+    /**
+     * Endpoint para validar um cupom pelo código.
+     *
+     * @param codigo O código do cupom.
+     * @return Mono com o cupom encontrado, ou status HTTP 404 (Not Found) se o código não existir.
+     */
+    @GetMapping("/validar/{codigo}")
+    public Mono<ResponseEntity<CupomDTO>> validarCupom(@PathVariable String codigo) {
+        return cupomService.buscarPorCodigo(codigo)
+                .map(cupom -> ResponseEntity.ok(CupomDTO.de(cupom)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint para resgatar um uso de um cupom.
+     *
+     * @param codigo O código do cupom.
+     * @return Mono com o cupom resgatado, com os usos restantes atualizados.
+     */
+    @PostMapping("/resgatar/{codigo}")
+    public Mono<CupomDTO> resgatarCupom(@PathVariable String codigo) {
+        return cupomService.resgatar(codigo).map(CupomDTO::de);
+    }
+
+    /**
+     * Monta a listagem de cupons de uma raridade: conta os cupons válidos para os cabeçalhos
+     * e devolve o corpo como um {@link Flux}, lido do banco conforme o cliente consome a resposta.
+     *
+     * @param cupomService Serviço de cupons.
+     * @param raridade A raridade do quadrinho.
+     * @param pagina Número da página, ou null para todos os cupons.
+     * @return Mono com a resposta.
+     */
+    static Mono<ResponseEntity<Flux<CupomDTO>>> responder(CupomService cupomService, Quadrinho.Raridade raridade, Integer pagina) {
+        LocalDateTime agora = LocalDateTime.now();
+        return cupomService.contarCuponsPorRaridade(raridade, agora).map(totalCupons -> {
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(CABECALHO_TOTAL_PAGINAS, String.valueOf(cupomService.totalPaginas(totalCupons)))
+                    .header(CABECALHO_TOTAL_CUPONS, String.valueOf(totalCupons));
+            if (pagina != null) {
+                resposta.header(CABECALHO_PAGINA, String.valueOf(pagina));
+            }
+            return resposta.body(cupomService.getCuponsPorRaridade(raridade, pagina, agora));
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package com.chmfc.desafioComicsApi.reativo.web.controller;
+
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.Cursor;
+import com.chmfc.desafioComicsApi.desafioapi.web.dto.Pagina;
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+import com.chmfc.desafioComicsApi.reativo.service.CupomService;
+import com.chmfc.desafioComicsApi.reativo.service.QuadrinhoService;
+import com.chmfc.desafioComicsApi.reativo.web.dto.CupomDTO;
+import com.chmfc.desafioComicsApi.reativo.web.dto.QuadrinhoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Controlador REST reativo para gerenciar quadrinhos, com os mesmos caminhos e formatos do QuadrinhoController
+ * da aplicação principal. As listagens são devolvidas como {@link Flux}: o corpo é escrito à medida que as linhas
+ * chegam do banco, e a leitura acompanha o ritmo com que o cliente consome a resposta.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/quadrinhos")
+public class QuadrinhoController {
+
+    private final QuadrinhoService quadrinhoService;
+    private final CupomService cupomService;
+
+    /**
+     * Endpoint para criar um novo quadrinho.
+     *
+     * @param quadrinho Objeto Quadrinho a ser criado.
+     * @return Mono com o quadrinho criado e o status HTTP 201 (Created).
+     */
+    @PostMapping("cadastrar")
+    public Mono<ResponseEntity<QuadrinhoDTO>> create(@RequestBody Quadrinho quadrinho) {
+        return quadrinhoService.salvar(quadrinho)
+                .map(salvo -> ResponseEntity.status(HttpStatus.CREATED).body(QuadrinhoDTO.de(salvo)));
+    }
+
+    /**
+     * Endpoint para atualizar um quadrinho existente.
+     *
+     * @param id                  Identificador do quadrinho a ser atualizado.
+     * @param quadrinhoAtualizado Objeto Quadrinho contendo os dados atualizados.
+     * @return Mono com o quadrinho atualizado, ou status HTTP 404 (Not Found) se ele não existir.
+     */
+    @PutMapping("/atualizar/{id}")
+    public Mono<QuadrinhoDTO> atualizarQuadrinho(@PathVariable Long id, @RequestBody Quadrinho quadrinhoAtualizado) {
+        return quadrinhoService.atualizarQuadrinho(id, quadrinhoAtualizado).map(QuadrinhoDTO::de);
+    }
+
+    /**
+     * Endpoint para deletar um quadrinho pelo seu id.
+     *
+     * @param id Identificador do quadrinho a ser deletado.
+     * @return Mono com o status HTTP 204 (No Content) se a exclusão for bem-sucedida,
+     * ou HTTP 404 (Not Found) se o quadrinho não existir.
+     */
+    @DeleteMapping("/deletar/{id}")
+    public Mono<ResponseEntity<Void>> deletarQuadrinho(@PathVariable Long id) {
+        return quadrinhoService.deletar(id)
+                .map(removidos -> removidos == 0 ? ResponseEntity.notFound().<Void>build() : ResponseEntity.noContent().<Void>build());
+    }
+
+    /**
+     * Endpoint para buscar todos os quadrinhos.
+     * Com {@code Accept: application/json}, a resposta é um array JSON; com {@code Accept: application/x-ndjson},
+     * um quadrinho por linha. Nos dois casos, cada quadrinho é escrito assim que é lido.
+     *
+     * @return Flux com todos os quadrinhos, em ordem de id.
+     */
+    @GetMapping("/buscar/todos")
+    public Flux<QuadrinhoDTO> getAll() {
+        return quadrinhoService.transmitirTodos();
+    }
+
+    /**
+     * Endpoint para buscar os quadrinhos em páginas, usando um cursor opaco de continuação.
+     *
+     * @param cursor  Token retornado na página anterior, ou ausente para a primeira página.
+     * @param tamanho Quantidade de quadrinhos por página; limitada pelo tamanho máximo configurado.
+     * @return Mono com a página de quadrinhos e o cursor da próxima página.
+     */
+    @GetMapping("/buscar/pagina")
+    public Mono<Pagina<QuadrinhoDTO>> getPagina(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer tamanho) {
+        return quadrinhoService.buscarPagina(Cursor.decodificar(cursor), tamanho)
+                .collectList()
+                .map(quadrinhos -> new Pagina<>(quadrinhos,
+                        quadrinhos.isEmpty() ? null : Cursor.codificar(quadrinhos.get(quadrinhos.size() - 1).id())));
+    }
+
+    /**
+     * Endpoint para buscar um quadrinho pelo id.
+     * Requisições condicionais cujo ETag ou data ainda correspondem à versão do quadrinho recebem 304 sem corpo.
+     *
+     * @param id       Identificador do quadrinho a ser buscado.
+     * @param exchange Requisição atual, usada na validação condicional.
+     * @return Mono com o quadrinho encontrado, vazio com HTTP 304 (Not Modified) se o quadrinho não mudou,
+     * ou erro com HTTP 404 (Not Found) se ele não existir.
+     */
+    @GetMapping("/buscar/id/{id}")
+    public Mono<ResponseEntity<QuadrinhoDTO>> getById(@PathVariable Long id, ServerWebExchange exchange) {
+        return quadrinhoService.buscarPorId(id).flatMap(quadrinho -> {
+            LocalDateTime versao = quadrinho.dataModificacao() != null ? quadrinho.dataModificacao() : quadrinho.dataCriacao();
+            if (versao != null && exchange.checkNotModified(etag(id, versao), versao.atZone(ZoneId.systemDefault()).toInstant())) {
+                return Mono.empty();
+            }
+            return Mono.just(ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(quadrinho));
+        });
+    }
+
+    /**
+     * Endpoint para buscar quadrinhos pela raridade.
+     *
+     * @param raridade Raridade dos quadrinhos desejados.
+     * @return Flux com os quadrinhos com a raridade especificada.
+     */
+    @GetMapping("/buscar/raridade/{raridade}")
+    public Flux<QuadrinhoDTO> getByRarity(@PathVariable Quadrinho.Raridade raridade) {
+        return quadrinhoService.getQuadrinhosPorRaridade(raridade);
+    }
+
+    /**
+     * Endpoint para buscar cupons associados à raridade de um quadrinho específico, inteiros ou em páginas.
+     *
+     * @param id     Identificador do quadrinho pelo qual os cupons serão buscados.
+     * @param pagina Número da página, começando em 0; se ausente, retorna todos os cupons.
+     * @return Mono com a resposta contendo os cupons associados à raridade do quadrinho.
+     */
+    @GetMapping("/buscar/cupons/{id}")
+    public Mono<ResponseEntity<Flux<CupomDTO>>> getCuponsByQuadrinho(@PathVariable Long id,
+                                                                     @RequestParam(required = false) Integer pagina) {
+        return quadrinhoService.buscarPorId(id)
+                .flatMap(quadrinho -> CupomController.responder(cupomService, quadrinho.raridade(), pagina));
+    }
+
+    /**
+     * Monta o ETag de um quadrinho a partir do id e da data de modificação, no mesmo formato da aplicação principal.
+     */
+    private static String etag(Long id, LocalDateTime versao) {
+        long microssegundos = versao.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + versao.getNano() / 1_000;
+        return "\"" + id + "-" + Long.toString(microssegundos, 36) + "\"";
+    }
+}
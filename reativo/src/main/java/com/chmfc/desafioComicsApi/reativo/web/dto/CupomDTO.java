@@ -0,0 +1,32 @@
+package com.chmfc.desafioComicsApi.reativo.web.dto;
+
+import com.chmfc.desafioComicsApi.reativo.entity.Cupom;
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representação de leitura de um {@link Cupom}, com os mesmos campos devolvidos pela aplicação principal.
+ *
+ * @param id Identificador do cupom.
+ * @param codigo Código do cupom.
+ * @param raridade Raridade associada ao quadrinho que o cupom aplica.
+ * @param desconto Valor do desconto aplicado pelo cupom.
+ * @param validade Data e hora de validade do cupom.
+ * @param usosRestantes Quantidade de vezes que o cupom ainda pode ser resgatado.
+ * @param dataCriacao Data e hora de criação do cupom.
+ */
+public record CupomDTO(Long id, String codigo, Quadrinho.Raridade raridade, double desconto,
+                       LocalDateTime validade, int usosRestantes, LocalDateTime dataCriacao) {
+
+    /**
+     * Converte uma entidade já carregada.
+     *
+     * @param cupom Entidade a converter.
+     * @return Representação de leitura do cupom.
+     */
+    public static CupomDTO de(Cupom cupom) {
+        return new CupomDTO(cupom.getId(), cupom.getCodigo(), cupom.getRaridade(), cupom.getDesconto(),
+                cupom.getValidade(), cupom.getUsosRestantes(), cupom.getDataCriacao());
+    }
+}
@@ -0,0 +1,30 @@
+package com.chmfc.desafioComicsApi.reativo.web.dto;
+
+import com.chmfc.desafioComicsApi.reativo.entity.Quadrinho;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representação de leitura de um {@link Quadrinho}, com os mesmos campos devolvidos pela aplicação principal.
+ *
+ * @param id Identificador do quadrinho.
+ * @param nome Nome do quadrinho.
+ * @param autor Nome do autor do quadrinho.
+ * @param raridade Raridade do quadrinho.
+ * @param dataCriacao Data de criação do quadrinho.
+ * @param dataModificacao Data da última modificação do quadrinho.
+ */
+public record QuadrinhoDTO(Long id, String nome, String autor, Quadrinho.Raridade raridade,
+                           LocalDateTime dataCriacao, LocalDateTime dataModificacao) {
+
+    /**
+     * Converte uma entidade já carregada.
+     *
+     * @param quadrinho Entidade a converter.
+     * @return Representação de leitura do quadrinho.
+     */
+    public static QuadrinhoDTO de(Quadrinho quadrinho) {
+        return new QuadrinhoDTO(quadrinho.getId(), quadrinho.getNome(), quadrinho.getAutor(), quadrinho.getRaridade(),
+                quadrinho.getDataCriacao(), quadrinho.getDataModificacao());
+    }
+}
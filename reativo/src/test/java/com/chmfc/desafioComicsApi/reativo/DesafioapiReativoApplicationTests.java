@@ -0,0 +1,125 @@
+package com.chmfc.desafioComicsApi.reativo;
+
+import com.chmfc.desafioComicsApi.reativo.service.SequenciaCupons;
+import com.chmfc.desafioComicsApi.reativo.web.dto.CupomDTO;
+import com.chmfc.desafioComicsApi.reativo.web.dto.QuadrinhoDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da API reativa sobre um banco H2 com as migrações da aplicação principal.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class DesafioapiReativoApplicationTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private SequenciaCupons sequenciaCupons;
+
+	@Test
+	void quadrinhosSaoCadastradosEListadosEmStreaming() {
+		QuadrinhoDTO criado = webTestClient.post().uri("/api/v1/quadrinhos/cadastrar")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("nome", "Reativo 1", "autor", "Autor", "raridade", "raro"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(QuadrinhoDTO.class).returnResult().getResponseBody();
+		assertNotNull(criado);
+		assertNotNull(criado.dataCriacao());
+
+		String etag = webTestClient.get().uri("/api/v1/quadrinhos/buscar/id/{id}", criado.id())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(QuadrinhoDTO.class).value(quadrinho -> assertEquals(criado.nome(), quadrinho.nome()))
+				.returnResult().getResponseHeaders().getETag();
+		webTestClient.get().uri("/api/v1/quadrinhos/buscar/id/{id}", criado.id())
+				.header(HttpHeaders.IF_NONE_MATCH, etag)
+				.exchange()
+				.expectStatus().isNotModified();
+
+		List<QuadrinhoDTO> linhas = webTestClient.get().uri("/api/v1/quadrinhos/buscar/todos")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(QuadrinhoDTO.class).getResponseBody().collectList().block();
+		assertTrue(Objects.requireNonNull(linhas).stream().anyMatch(quadrinho -> quadrinho.id().equals(criado.id())));
+
+		webTestClient.delete().uri("/api/v1/quadrinhos/deletar/{id}", criado.id()).exchange().expectStatus().isNoContent();
+		webTestClient.delete().uri("/api/v1/quadrinhos/deletar/{id}", criado.id()).exchange().expectStatus().isNotFound();
+		webTestClient.get().uri("/api/v1/quadrinhos/buscar/id/{id}", criado.id()).exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	void cuponsEmitidosEmMassaTemIdsECodigosDistintosEPodemSerResgatados() {
+		String corpo = webTestClient.post().uri("/api/v1/cupons/gerar/comum?quantidade=1234")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).returnResult().getResponseBody();
+		List<String> codigos = Objects.requireNonNull(corpo).lines().toList();
+		assertEquals(1234, codigos.size());
+		assertEquals(1234, new HashSet<>(codigos).size());
+
+		List<CupomDTO> cupons = webTestClient.get().uri("/api/v1/cupons/raridade/comum")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("X-Total-Cupons", "1234")
+				.expectBodyList(CupomDTO.class).returnResult().getResponseBody();
+		Set<Long> ids = new HashSet<>();
+		Objects.requireNonNull(cupons).forEach(cupom -> ids.add(cupom.id()));
+		assertEquals(1234, ids.size());
+
+		webTestClient.get().uri("/api/v1/cupons/raridade/comum?pagina=1")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("X-Pagina", "1")
+				.expectHeader().valueEquals("X-Total-Paginas", "25")
+				.expectBodyList(CupomDTO.class).hasSize(50);
+
+		String codigo = codigos.get(0);
+		webTestClient.get().uri("/api/v1/cupons/validar/{codigo}", codigo).exchange().expectStatus().isOk();
+		webTestClient.post().uri("/api/v1/cupons/resgatar/{codigo}", codigo)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(CupomDTO.class).value(cupom -> assertEquals(0, cupom.usosRestantes()));
+		webTestClient.post().uri("/api/v1/cupons/resgatar/{codigo}", codigo).exchange().expectStatus().isEqualTo(409);
+
+		CupomDTO avulso = webTestClient.post().uri("/api/v1/cupons/gerar/raro")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(CupomDTO.class).returnResult().getResponseBody();
+		assertEquals(0.1, Objects.requireNonNull(avulso).desconto());
+		assertFalse(ids.contains(avulso.id()));
+	}
+
+	@Test
+	void emissoesConcorrentesEsgotandoAFaixaRecebemIdsDistintos() {
+		// Cada emissão pede os ids um a um, como em um bloco de cupons; várias aguardam a mesma reserva de faixa
+		List<Long> ids = Flux.range(0, 8)
+				.flatMap(emissao -> Flux.range(0, SequenciaCupons.INCREMENTO).concatMap(i -> sequenciaCupons.proximoId()))
+				.collectList()
+				.block();
+		assertEquals(8 * SequenciaCupons.INCREMENTO, Objects.requireNonNull(ids).size());
+		assertEquals(ids.size(), new HashSet<>(ids).size());
+	}
+}
@@ -0,0 +1,3 @@
+-- O driver r2dbc-h2 envia textos como CLOB, que o H2 não converte para ENUM; no MySQL o texto é aceito diretamente.
+alter table quadrinhos alter column raridade varchar(25) not null;
+alter table cupons alter column raridade varchar(25) not null;
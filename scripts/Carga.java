@@ -0,0 +1,91 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gerador de carga HTTP usado pelos scripts de comparação, executado direto do código-fonte (Java 11+):
+ * java scripts/Carga.java -n requisicoes -c concorrencia [-m metodo] url
+ * Cada uma das c threads envia requisições em sequência até completar n no total. O resumo segue o formato do hey
+ * (Requests/sec, Average, 99% in e a contagem por código de status), para que os scripts filtrem as mesmas linhas.
+ */
+public class Carga {
+
+    public static void main(String[] args) throws Exception {
+        int requisicoes = 200;
+        int concorrencia = 50;
+        String metodo = "GET";
+        String url = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-n" -> requisicoes = Integer.parseInt(args[++i]);
+                case "-c" -> concorrencia = Integer.parseInt(args[++i]);
+                case "-m" -> metodo = args[++i];
+                default -> url = args[i];
+            }
+        }
+        if (url == null) {
+            System.err.println("Uso: java scripts/Carga.java -n requisicoes -c concorrencia [-m metodo] url");
+            System.exit(1);
+        }
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(4))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .method(metodo, HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        long[] latencias = new long[requisicoes];
+        Map<Integer, AtomicInteger> status = new TreeMap<>();
+        AtomicInteger proxima = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(concorrencia);
+        int total = requisicoes;
+        long inicio = System.nanoTime();
+        for (int t = 0; t < concorrencia; t++) {
+            threads.execute(() -> {
+                for (int i = proxima.getAndIncrement(); i < total; i = proxima.getAndIncrement()) {
+                    long envio = System.nanoTime();
+                    try {
+                        int codigo = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        synchronized (status) {
+                            status.computeIfAbsent(codigo, c -> new AtomicInteger()).incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                    }
+                    latencias[i] = System.nanoTime() - envio;
+                }
+            });
+        }
+        threads.shutdown();
+        threads.awaitTermination(1, TimeUnit.HOURS);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Arrays.sort(latencias);
+        double media = Arrays.stream(latencias).average().orElse(0) / 1e9;
+        double p99 = latencias[Math.max(0, (int) Math.ceil(latencias.length * 0.99) - 1)] / 1e9;
+        System.out.printf("Summary:%n");
+        System.out.printf("  Total:\t%.4f secs%n", segundos);
+        System.out.printf("  Requests/sec:\t%.4f%n", requisicoes / segundos);
+        System.out.printf("  Average:\t%.4f secs%n", media);
+        System.out.printf("  99%% in %.4f secs%n", p99);
+        System.out.printf("Status code distribution:%n");
+        status.forEach((codigo, quantidade) -> System.out.printf("  [%d]\t%d responses%n", codigo, quantidade.get()));
+        if (erros.get() > 0) {
+            System.out.printf("  Erros:\t%d%n", erros.get());
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,113 @@
+#!/usr/bin/env bash
+#
+# Compara a API bloqueante (Spring MVC + JPA, em api/) com a variante reativa (WebFlux + R2DBC, em reativo/)
+# nos mesmos endpoints de quadrinhos e cupons, com alta concorrência.
+# Requer Java 17 e um MySQL acessível com as credenciais de application.properties. A aplicação principal sobe primeiro,
+# para aplicar as migrações do esquema; as duas rodam uma de cada vez, contra o mesmo banco.
+# Com BANCO=h2, a aplicação principal usa um H2 em memória, e a reativa, um H2 em arquivo migrado antes pela principal
+# com as migrações do MySQL (a variante reativa reserva os ids dos cupons na tabela cupons_seq).
+# A carga é gerada por scripts/Carga.java. Os resultados são gravados em target/carga/<modo>-<endpoint>.txt.
+#
+# Uso: [BANCO=h2] scripts/comparar-reativo.sh [requisicoes] [concorrencia]
+
+set -euo pipefail
+
+REQUISICOES=${1:-50000}
+CONCORRENCIA=${2:-1000}
+SAIDA=target/carga
+BANCO=${BANCO:-mysql}
+
+OPCOES_MVC=()
+OPCOES_REATIVO=()
+if [ "$BANCO" = h2 ]; then
+  ARQUIVO_H2=$PWD/$SAIDA/reativo-h2
+  OPCOES_MVC=(--spring.datasource.driver-class-name=org.h2.Driver
+    "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE"
+    --spring.datasource.username=sa --spring.datasource.password=)
+  OPCOES_REATIVO=("--spring.r2dbc.url=r2dbc:h2:file:///$ARQUIVO_H2?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+    --spring.r2dbc.username=sa --spring.r2dbc.password=)
+fi
+
+carga() {
+  java scripts/Carga.java "$@"
+}
+
+./mvnw -q -DskipTests package
+JAR_MVC=$(ls api/target/desafioapi-*.jar | head -n 1)
+JAR_REATIVO=$(ls reativo/target/desafioapi-reativo-*.jar | head -n 1)
+mkdir -p "$SAIDA"
+
+aguardar() {
+  local base=$1
+  for _ in $(seq 1 60); do
+    curl -sf "$base/quadrinhos/buscar/pagina?tamanho=1" > /dev/null && return 0
+    sleep 1
+  done
+  echo "A aplicação não subiu" >&2
+  exit 1
+}
+
+# Aplica as migrações do MySQL no H2 em arquivo da variante reativa, subindo a aplicação principal sem gerar cupons,
+# com o mesmo ajuste das colunas de raridade feito nos testes da variante reativa (db/teste/afterMigrate.sql)
+migrar_h2_reativo() {
+  rm -f "$ARQUIVO_H2".*.db
+  java -jar "$JAR_MVC" --server.port=8082 --cupons.pool.minimo=0 \
+    --spring.datasource.driver-class-name=org.h2.Driver \
+    "--spring.datasource.url=jdbc:h2:file:$ARQUIVO_H2;MODE=MySQL;DATABASE_TO_LOWER=TRUE" \
+    --spring.datasource.username=sa --spring.datasource.password= \
+    --spring.flyway.locations=classpath:db/migration/comum,classpath:db/migration/mysql,filesystem:reativo/src/test/resources/db/teste > "$SAIDA/reativo-migracao.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+  aguardar http://localhost:8082/api/v1
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+executar() {
+  local modo=$1
+  local jar=$2
+  local porta=$3
+  shift 3
+  local base=http://localhost:$porta/api/v1
+  # A aplicação principal pagina a lista de cupons por cursor (vazio na primeira página); a reativa, pelo número da página
+  local primeira_pagina=pagina=0
+  if [ "$modo" = mvc ]; then
+    primeira_pagina=cursor=
+  fi
+  java -jar "$jar" "$@" > "$SAIDA/$modo-aplicacao.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+  aguardar "$base"
+
+  curl -sf -X POST -H 'Content-Type: application/json' \
+    -d "{\"nome\":\"Carga $modo $$\",\"autor\":\"Carga\",\"raridade\":\"raro\"}" \
+    "$base/quadrinhos/cadastrar" > /dev/null || true
+  local id
+  id=$(curl -sf "$base/quadrinhos/buscar/pagina?tamanho=1" | sed -E 's/.*"id":([0-9]+).*/\1/')
+
+  # Aquecimento do JIT e dos pools de conexão, sem registrar o resultado
+  carga -n 5000 -c 100 "$base/quadrinhos/buscar/id/$id" > /dev/null
+
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" "$base/quadrinhos/buscar/id/$id" > "$SAIDA/$modo-quadrinho-por-id.txt"
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" "$base/quadrinhos/buscar/pagina?tamanho=50" > "$SAIDA/$modo-quadrinhos-pagina.txt"
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" "$base/quadrinhos/buscar/raridade/raro" > "$SAIDA/$modo-quadrinhos-raridade.txt"
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" "$base/quadrinhos/buscar/cupons/$id?$primeira_pagina" > "$SAIDA/$modo-cupons-por-quadrinho.txt"
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" -m POST "$base/cupons/gerar/comum" > "$SAIDA/$modo-gerar-cupom.txt"
+  carga -n 200 -c 20 -m POST "$base/cupons/gerar/raro?quantidade=10000" > "$SAIDA/$modo-gerar-cupons-em-massa.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+executar mvc "$JAR_MVC" 8080 "${OPCOES_MVC[@]}"
+if [ "$BANCO" = h2 ]; then
+  migrar_h2_reativo
+fi
+executar reativo "$JAR_REATIVO" 8081 "${OPCOES_REATIVO[@]}"
+
+for arquivo in "$SAIDA"/mvc-*.txt "$SAIDA"/reativo-*.txt; do
+  echo "== $(basename "$arquivo" .txt)"
+  grep -E "Requests/sec|Average|99% in|\[5[0-9][0-9]\]" "$arquivo" || true
+done
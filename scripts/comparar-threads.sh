@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Compara threads de plataforma e threads virtuais nos endpoints de quadrinhos e cupons.
+# Requer Java 21 e um MySQL acessível com as credenciais de application.properties; com BANCO=h2, as duas execuções
+# usam um H2 em memória. A carga é gerada por scripts/Carga.java. Os resultados são gravados em
+# target/carga/<modo>-<endpoint>.txt.
+#
+# Uso: [BANCO=h2] scripts/comparar-threads.sh [requisicoes] [concorrencia]
+
+set -euo pipefail
+
+REQUISICOES=${1:-20000}
+CONCORRENCIA=${2:-500}
+BASE=http://localhost:8080/api/v1
+SAIDA=target/carga
+BANCO=${BANCO:-mysql}
+
+OPCOES_BANCO=()
+if [ "$BANCO" = h2 ]; then
+  OPCOES_BANCO=(--spring.datasource.driver-class-name=org.h2.Driver
+    "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE"
+    --spring.datasource.username=sa --spring.datasource.password=)
+fi
+
+carga() {
+  java scripts/Carga.java "$@"
+}
+
+./mvnw -q -Pjava21 -DskipTests -pl api -am package
+JAR=$(ls api/target/desafioapi-*.jar | head -n 1)
+mkdir -p "$SAIDA"
+
+aguardar() {
+  for _ in $(seq 1 60); do
+    curl -sf "$BASE/quadrinhos/buscar/pagina?tamanho=1" > /dev/null && return 0
+    sleep 1
+  done
+  echo "A aplicação não subiu" >&2
+  exit 1
+}
+
+executar() {
+  local modo=$1
+  shift
+  java -jar "$JAR" "${OPCOES_BANCO[@]}" "$@" > "$SAIDA/$modo-aplicacao.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+  aguardar
+
+  curl -sf -X POST -H 'Content-Type: application/json' \
+    -d "{\"nome\":\"Carga $modo $$\",\"autor\":\"Carga\",\"raridade\":\"raro\"}" \
+    "$BASE/quadrinhos/cadastrar" > /dev/null || true
+  local id
+  id=$(curl -sf "$BASE/quadrinhos/buscar/pagina?tamanho=1" | sed -E 's/.*"id":([0-9]+).*/\1/')
+
+  # Aquecimento do JIT e dos pools de conexão, sem registrar o resultado
+  carga -n 5000 -c 100 "$BASE/quadrinhos/buscar/id/$id" > /dev/null
+
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" "$BASE/quadrinhos/buscar/id/$id" > "$SAIDA/$modo-quadrinho-por-id.txt"
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" "$BASE/quadrinhos/buscar/pagina?tamanho=50" > "$SAIDA/$modo-quadrinhos-pagina.txt"
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" "$BASE/quadrinhos/buscar/cupons/$id" > "$SAIDA/$modo-cupons-por-quadrinho.txt"
+  carga -n "$REQUISICOES" -c "$CONCORRENCIA" -m POST "$BASE/cupons/gerar/comum" > "$SAIDA/$modo-gerar-cupom.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+executar plataforma
+executar virtual --spring.profiles.active=virtual-threads
+
+for arquivo in "$SAIDA"/*.txt; do
+  echo "== $(basename "$arquivo" .txt)"
+  grep -E "Requests/sec|Average|99% in|\[5[0-9][0-9]\]" "$arquivo" || true
+done
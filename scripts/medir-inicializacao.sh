@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+#
+# Mede o tempo de inicialização e a memória residente (RSS) da aplicação, com o perfil prod, em três modos:
+# JVM comum, JVM com AOT e CDS (perfil Maven aot) e imagem nativa (perfil Maven native, se o executável existir).
+# Requer Java 17 e um MySQL acessível com as credenciais de application.properties; para medir contra outro banco,
+# use as variáveis SPRING_DATASOURCE_*. A imagem nativa é gerada à parte, com GraalVM:
+# ./mvnw -Pnative -DskipTests -pl api -am native:compile
+# Os resultados são gravados em target/inicializacao/resultado.txt.
+#
+# Uso: scripts/medir-inicializacao.sh [repeticoes]
+
+set -euo pipefail
+
+REPETICOES=${1:-5}
+SAIDA=target/inicializacao
+SAUDE=http://localhost:8080/actuator/health
+
+./mvnw -q -Paot -DskipTests -pl api -am package
+JAR=$(ls api/target/desafioapi-*.jar | head -n 1)
+JAR_CDS=api/target/cds/$(basename "$JAR")
+NATIVO=api/target/desafioapi
+mkdir -p "$SAIDA"
+: > "$SAIDA/resultado.txt"
+
+medir() {
+  local modo=$1
+  shift
+  local soma_inicio=0 soma_rss=0
+  for i in $(seq 1 "$REPETICOES"); do
+    "$@" > "$SAIDA/$modo-$i.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+    for _ in $(seq 1 600); do
+      curl -sf "$SAUDE" > /dev/null && break
+      sleep 0.1
+    done
+    # Tempo informado pelo Spring ("process running for"), que inclui a inicialização da JVM
+    local inicio
+    inicio=$(sed -nE 's/.*process running for ([0-9.]+)\).*/\1/p' "$SAIDA/$modo-$i.log")
+    local rss
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+    soma_inicio=$(awk -v a="$soma_inicio" -v b="$inicio" 'BEGIN {print a + b}')
+    soma_rss=$((soma_rss + rss))
+  done
+  printf '%-10s inicialização média: %6.3f s   RSS médio: %5d MB\n' "$modo" \
+    "$(awk -v a="$soma_inicio" -v n="$REPETICOES" 'BEGIN {print a / n}')" $((soma_rss / REPETICOES / 1024)) | tee -a "$SAIDA/resultado.txt"
+}
+
+medir jvm java -Dspring.profiles.active=prod -jar "$JAR"
+medir aot-cds java -XX:SharedArchiveFile=api/target/cds/desafioapi.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar "$JAR_CDS"
+if [ -x "$NATIVO" ]; then
+  medir nativo "$NATIVO" --spring.profiles.active=prod
+else
+  echo "Imagem nativa não encontrada em $NATIVO; modo nativo não medido" | tee -a "$SAIDA/resultado.txt"
+fi